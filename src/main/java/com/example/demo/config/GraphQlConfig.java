@@ -0,0 +1,80 @@
+package com.example.demo.config;
+
+import java.math.BigInteger;
+import java.util.Locale;
+
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.execution.RuntimeWiringConfigurer;
+
+import graphql.GraphQLContext;
+import graphql.execution.CoercedVariables;
+import graphql.language.IntValue;
+import graphql.language.StringValue;
+import graphql.language.Value;
+import graphql.schema.Coercing;
+import graphql.schema.CoercingParseLiteralException;
+import graphql.schema.CoercingParseValueException;
+import graphql.schema.CoercingSerializeException;
+import graphql.schema.GraphQLScalarType;
+
+@Configuration
+public class GraphQlConfig {
+
+    /**
+     * Quantities, totals and versions are 64-bit; the built-in Int scalar stops at 2^31.
+     */
+    private static final GraphQLScalarType LONG = GraphQLScalarType.newScalar()
+        .name("Long")
+        .description("64-bit signed integer")
+        .coercing(new Coercing<Long, Long>() {
+            @Override
+            public Long serialize(Object value, GraphQLContext context, Locale locale) {
+                if (value instanceof Number number) {
+                    return number.longValue();
+                }
+                throw new CoercingSerializeException("Expected a number but was " + value);
+            }
+
+            @Override
+            public Long parseValue(Object input, GraphQLContext context, Locale locale) {
+                try {
+                    return input instanceof Number number ? number.longValue() : Long.parseLong(String.valueOf(input));
+                } catch (NumberFormatException e) {
+                    throw new CoercingParseValueException("Invalid Long: " + input);
+                }
+            }
+
+            @Override
+            public Long parseLiteral(Value<?> input, CoercedVariables variables, GraphQLContext context, Locale locale) {
+                try {
+                    if (input instanceof IntValue intValue) {
+                        return intValue.getValue().longValueExact();
+                    }
+                    if (input instanceof StringValue stringValue) {
+                        return Long.parseLong(stringValue.getValue());
+                    }
+                } catch (ArithmeticException | NumberFormatException e) {
+                    throw new CoercingParseLiteralException("Invalid Long literal: " + input);
+                }
+                throw new CoercingParseLiteralException("Expected an integer literal but was " + input);
+            }
+
+            @Override
+            public Value<?> valueToLiteral(Object input, GraphQLContext context, Locale locale) {
+                return new IntValue(BigInteger.valueOf(serialize(input, context, locale)));
+            }
+        })
+        .build();
+
+    @Bean
+    public RuntimeWiringConfigurer longScalarConfigurer() {
+        return wiring -> wiring.scalar(LONG);
+    }
+
+    @Bean
+    public GraphQlSourceBuilderCustomizer persistedDocumentCustomizer(PersistedDocumentProvider persistedDocumentProvider) {
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(persistedDocumentProvider));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.config;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.demo.config.JwtTokenProvider.VerifiedToken;
+import com.example.demo.exception.InvalidTokenException;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Verifies the bearer token once per request and stores the owner id as the principal, so
+ * controllers receive it through {@code @AuthenticationPrincipal}. Requests without a token pass
+ * through unauthenticated and are left to the authorization rules.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final OwnerRateLimiter rateLimiter;
+
+    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, OwnerRateLimiter rateLimiter) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || authorization.isBlank()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        UUID owner;
+        try {
+            VerifiedToken token = jwtTokenProvider.verify(authorization);
+            owner = token.subject();
+        } catch (InvalidTokenException e) {
+            reject(response, HttpStatus.UNAUTHORIZED, e.getMessage());
+            return;
+        }
+
+        long waitNanos = rateLimiter.acquire(owner);
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded");
+            return;
+        }
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(owner, null, List.of()));
+        SecurityContextHolder.setContext(context);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(message);
+    }
+}
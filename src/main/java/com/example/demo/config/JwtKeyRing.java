@@ -0,0 +1,276 @@
+package com.example.demo.config;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.util.Authorization;
+import com.example.demo.util.CustomLogger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Public keys used to verify bearer tokens, keyed by key id (the file name without extension).
+ * The key directory is watched on a background thread and every change rebuilds an immutable
+ * snapshot that is swapped in atomically, so lookups on the request path never touch the disk.
+ * A key that is replaced or removed stays trusted for the grace window to let tokens already
+ * issued with it run out.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final long RELOAD_DEBOUNCE_MILLIS = 100;
+
+    public record KeyEntry(String keyId, PublicKey key) {
+    }
+
+    private record RetiredKey(PublicKey key, long retiredAtMillis) {
+    }
+
+    private record Snapshot(Map<String, PublicKey> active, Map<String, RetiredKey> retired) {
+    }
+
+    private final CustomLogger customLogger;
+    private final Path directory;
+    private final String fileName;
+    private final long graceMillis;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(Map.of(), Map.of()));
+    private final AtomicLong reloads = new AtomicLong();
+
+    private volatile boolean running;
+    private WatchService watchService;
+    private Thread watcher;
+
+    @Autowired
+    public JwtKeyRing(CustomLogger customLogger,
+                      @Value("${jwt.key-directory:}") String keyDirectory,
+                      @Value("${jwt.public-key-path:}") String publicKeyPath,
+                      @Value("${jwt.key-grace-seconds:300}") long graceSeconds) {
+        this.customLogger = customLogger;
+        this.graceMillis = TimeUnit.SECONDS.toMillis(graceSeconds);
+        if (keyDirectory != null && !keyDirectory.isBlank()) {
+            this.directory = Paths.get(keyDirectory).toAbsolutePath();
+            this.fileName = null;
+        } else if (publicKeyPath != null && !publicKeyPath.isBlank()) {
+            Path path = Paths.get(publicKeyPath).toAbsolutePath();
+            this.directory = path.getParent();
+            this.fileName = path.getFileName().toString();
+        } else {
+            this.directory = null;
+            this.fileName = null;
+        }
+    }
+
+    private JwtKeyRing(Map<String, PublicKey> keys) {
+        this.customLogger = null;
+        this.directory = null;
+        this.fileName = null;
+        this.graceMillis = 0;
+        this.snapshot.set(new Snapshot(Map.copyOf(keys), Map.of()));
+    }
+
+    /**
+     * A ring with a fixed set of keys and no file watching.
+     */
+    static JwtKeyRing of(Map<String, PublicKey> keys) {
+        return new JwtKeyRing(keys);
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (directory == null || running) {
+            if (directory == null && customLogger != null) {
+                customLogger.logInfo("No JWT key directory or public key path configured; every bearer token will be rejected");
+            }
+            return;
+        }
+        reload();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to watch JWT key directory " + directory, e);
+        }
+        running = true;
+        watcher = new Thread(this::watch, "jwt-key-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Thread current;
+        synchronized (this) {
+            running = false;
+            current = watcher;
+            watcher = null;
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                customLogger.logError("Error closing JWT key watcher", e);
+            }
+        }
+        if (current != null) {
+            try {
+                current.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void watch() {
+        while (running) {
+            try {
+                WatchKey key = watchService.take();
+                // Editors and copy tools often emit several events per write; let them settle.
+                Thread.sleep(RELOAD_DEBOUNCE_MILLIS);
+                key.pollEvents();
+                reload();
+                if (!key.reset()) {
+                    customLogger.logError("JWT key directory is no longer accessible: " + directory, null);
+                    return;
+                }
+            } catch (ClosedWatchServiceException | InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Re-reads the key files and swaps in the new snapshot. Unreadable files are skipped and the
+     * key they held stays on its previous entry, so a half-written file never revokes a key.
+     */
+    public synchronized void reload() {
+        if (directory == null) {
+            return;
+        }
+        Snapshot current = snapshot.get();
+        Map<String, PublicKey> loaded = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, this::isKeyFile)) {
+            for (Path file : files) {
+                String keyId = keyId(file);
+                try {
+                    loaded.put(keyId, Authorization.getPublicKey(file.toString()));
+                } catch (Exception e) {
+                    customLogger.logError("Unable to load JWT key " + file, e);
+                    PublicKey previous = current.active().get(keyId);
+                    if (previous != null) {
+                        loaded.put(keyId, previous);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            customLogger.logError("Unable to list JWT key directory " + directory, e);
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Map<String, RetiredKey> retired = new HashMap<>();
+        current.retired().forEach((keyId, retiredKey) -> {
+            if (now - retiredKey.retiredAtMillis() < graceMillis && !loaded.containsValue(retiredKey.key())) {
+                retired.put(keyId, retiredKey);
+            }
+        });
+        current.active().forEach((keyId, key) -> {
+            if (!key.equals(loaded.get(keyId)) && graceMillis > 0) {
+                retired.put(keyId, new RetiredKey(key, now));
+            }
+        });
+        snapshot.set(new Snapshot(Map.copyOf(loaded), Map.copyOf(retired)));
+        reloads.incrementAndGet();
+        customLogger.logInfo("JWT key ring loaded: active " + loaded.keySet() + ", in grace " + retired.keySet());
+    }
+
+    /**
+     * Keys a token may be checked against: the key with the given id (active, or retired and
+     * still inside the grace window), or, when the token names none, every active key followed by
+     * every retired key still inside the grace window.
+     */
+    public List<KeyEntry> candidates(String keyId) {
+        Snapshot current = snapshot.get();
+        if (keyId == null || keyId.isEmpty()) {
+            List<KeyEntry> entries = new ArrayList<>(current.active().size() + current.retired().size());
+            current.active().forEach((id, key) -> entries.add(new KeyEntry(id, key)));
+            current.retired().keySet().forEach(id -> {
+                PublicKey previous = graceKey(current, id);
+                if (previous != null && !previous.equals(current.active().get(id))) {
+                    entries.add(new KeyEntry(id, previous));
+                }
+            });
+            return entries;
+        }
+        List<KeyEntry> entries = new ArrayList<>(2);
+        PublicKey active = current.active().get(keyId);
+        if (active != null) {
+            entries.add(new KeyEntry(keyId, active));
+        }
+        PublicKey previous = graceKey(current, keyId);
+        if (previous != null && !previous.equals(active)) {
+            entries.add(new KeyEntry(keyId, previous));
+        }
+        return entries;
+    }
+
+    /**
+     * Whether a token verified earlier with this key may still be accepted.
+     */
+    public boolean isTrusted(KeyEntry entry) {
+        Snapshot current = snapshot.get();
+        return entry.key().equals(current.active().get(entry.keyId()))
+            || entry.key().equals(graceKey(current, entry.keyId()));
+    }
+
+    private PublicKey graceKey(Snapshot current, String keyId) {
+        RetiredKey retiredKey = current.retired().get(keyId);
+        if (retiredKey == null || System.currentTimeMillis() - retiredKey.retiredAtMillis() >= graceMillis) {
+            return null;
+        }
+        return retiredKey.key();
+    }
+
+    private boolean isKeyFile(Path file) {
+        String name = file.getFileName().toString();
+        if (fileName != null) {
+            return name.equals(fileName);
+        }
+        return (name.endsWith(".pem") || name.endsWith(".pub")) && Files.isRegularFile(file);
+    }
+
+    private static String keyId(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    public long getReloadCount() {
+        return reloads.get();
+    }
+
+    public int getActiveKeyCount() {
+        return snapshot.get().active().size();
+    }
+}
@@ -1,40 +1,214 @@
 package com.example.demo.config;
 
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.example.demo.config.JwtKeyRing.KeyEntry;
+import com.example.demo.exception.InvalidTokenException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Verifies RS256 bearer tokens against the keys held in {@link JwtKeyRing}. Verified tokens are
+ * cached until they expire, so a client repeating the same token pays for the RSA check once.
+ */
 @Component
 public class JwtTokenProvider {
-    
-    // private String publicKeyPath;
-    // private String privateKeyPath;
-    // private String issuer;
-    // private String audience;
-    // private long validityInMilliseconds;
-
-    // @Value("${PUBLIC_KEY}")
-    // private String publicKey;
-
-    // @Value("${PRIVATE_KEY}")
-    // private String privateKey;
-
-    // public JwtTokenProvider(
-    //         @Value("${JWT_PUBLIC_KEY_PATH}") String publicKeyPath,
-    //         @Value("${JWT_PRIVATE_KEY_PATH}") String privateKeyPath,
-    //         @Value("${JWT_ISSUER}") String issuer,
-    //         @Value("${JWT_AUDIENCE}") String audience,
-    //         @Value("${JWT_VALIDITY_IN_MILLISECONDS}") long validityInMilliseconds) {
-    //     this.publicKeyPath = publicKeyPath;
-    //     this.privateKeyPath = privateKeyPath;
-    //     this.issuer = issuer;
-    //     this.audience = audience;
-    //     this.validityInMilliseconds = validityInMilliseconds;
-    // }
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    public record VerifiedToken(UUID subject, long expiresAtMillis) {
+    }
+
+    private record CachedToken(VerifiedToken token, KeyEntry key) {
+    }
+
+    private final JwtKeyRing keyRing;
+    private final ObjectMapper objectMapper;
+    private final String issuer;
+    private final String audience;
+    private final long clockSkewMillis;
+    private final Cache<String, CachedToken> verifiedTokens;
+
+    private final AtomicLong verifications = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong verifyNanos = new AtomicLong();
+
+    public JwtTokenProvider(JwtKeyRing keyRing, ObjectMapper objectMapper,
+                            @Value("${jwt.issuer:}") String issuer,
+                            @Value("${jwt.audience:}") String audience,
+                            @Value("${jwt.clock-skew-seconds:30}") long clockSkewSeconds,
+                            @Value("${jwt.cache.max-size:10000}") long cacheMaxSize) {
+        this.keyRing = keyRing;
+        this.objectMapper = objectMapper;
+        this.issuer = issuer;
+        this.audience = audience;
+        this.clockSkewMillis = TimeUnit.SECONDS.toMillis(clockSkewSeconds);
+        this.verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .expireAfter(new Expiry<String, CachedToken>() {
+                @Override
+                public long expireAfterCreate(String token, CachedToken cached, long currentTime) {
+                    long remainingMillis = cached.token().expiresAtMillis() + clockSkewMillis - System.currentTimeMillis();
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+                }
+
+                @Override
+                public long expireAfterUpdate(String token, CachedToken cached, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String token, CachedToken cached, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+    }
 
     public UUID retrieveIdFromToken(String token) {
-        //TODO
-        return UUID.fromString(token.split("\\.")[1]);
+        return verify(token).subject();
+    }
+
+    public VerifiedToken verify(String authorization) {
+        String token = stripBearer(authorization);
+        CachedToken cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            if (cached.token().expiresAtMillis() + clockSkewMillis > System.currentTimeMillis() && keyRing.isTrusted(cached.key())) {
+                return cached.token();
+            }
+            verifiedTokens.invalidate(token);
+        }
+        long start = System.nanoTime();
+        try {
+            CachedToken verified = verifyToken(token);
+            verifiedTokens.put(token, verified);
+            return verified.token();
+        } catch (InvalidTokenException e) {
+            failures.incrementAndGet();
+            throw e;
+        } finally {
+            verifications.incrementAndGet();
+            verifyNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private CachedToken verifyToken(String token) {
+        String[] parts = token.split("\\.", -1);
+        if (parts.length != 3) {
+            throw new InvalidTokenException("Malformed token");
+        }
+        JsonNode header = decodeJson(parts[0]);
+        if (!"RS256".equals(header.path("alg").asText())) {
+            throw new InvalidTokenException("Unsupported token algorithm");
+        }
+        KeyEntry key = findSigningKey(parts, header.path("kid").asText(null));
+        JsonNode claims = decodeJson(parts[1]);
+        long now = System.currentTimeMillis();
+        if (!claims.path("exp").canConvertToLong()) {
+            throw new InvalidTokenException("Token has no expiry");
+        }
+        long expiresAtMillis = TimeUnit.SECONDS.toMillis(claims.get("exp").asLong());
+        if (expiresAtMillis + clockSkewMillis <= now) {
+            throw new InvalidTokenException("Token has expired");
+        }
+        if (claims.has("nbf") && TimeUnit.SECONDS.toMillis(claims.get("nbf").asLong()) - clockSkewMillis > now) {
+            throw new InvalidTokenException("Token is not valid yet");
+        }
+        if (!issuer.isBlank() && !issuer.equals(claims.path("iss").asText())) {
+            throw new InvalidTokenException("Unexpected token issuer");
+        }
+        if (!audience.isBlank() && !hasAudience(claims.path("aud"))) {
+            throw new InvalidTokenException("Unexpected token audience");
+        }
+        try {
+            return new CachedToken(new VerifiedToken(UUID.fromString(claims.path("sub").asText()), expiresAtMillis), key);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTokenException("Token subject is not a valid id", e);
+        }
+    }
+
+    private KeyEntry findSigningKey(String[] parts, String keyId) {
+        List<KeyEntry> candidates = keyRing.candidates(keyId);
+        if (candidates.isEmpty()) {
+            throw new InvalidTokenException(keyId == null ? "Token verification is not configured" : "Unknown token key");
+        }
+        byte[] signingInput = (parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII);
+        try {
+            byte[] signatureBytes = Base64.getUrlDecoder().decode(parts[2]);
+            for (KeyEntry candidate : candidates) {
+                Signature signature = Signature.getInstance("SHA256withRSA");
+                signature.initVerify(candidate.key());
+                signature.update(signingInput);
+                if (signature.verify(signatureBytes)) {
+                    return candidate;
+                }
+            }
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid token signature", e);
+        }
+        throw new InvalidTokenException("Invalid token signature");
+    }
+
+    private boolean hasAudience(JsonNode aud) {
+        if (aud.isArray()) {
+            for (JsonNode value : aud) {
+                if (audience.equals(value.asText())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return audience.equals(aud.asText());
+    }
+
+    private JsonNode decodeJson(String part) {
+        try {
+            return objectMapper.readTree(Base64.getUrlDecoder().decode(part));
+        } catch (Exception e) {
+            throw new InvalidTokenException("Malformed token", e);
+        }
+    }
+
+    private static String stripBearer(String authorization) {
+        if (authorization == null || authorization.isBlank()) {
+            throw new InvalidTokenException("Missing bearer token");
+        }
+        String token = authorization.trim();
+        if (token.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            token = token.substring(BEARER_PREFIX.length()).trim();
+        }
+        return token;
+    }
+
+    public Map<String, Object> stats() {
+        verifiedTokens.cleanUp();
+        CacheStats cacheStats = verifiedTokens.stats();
+        long count = verifications.get();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("cacheSize", verifiedTokens.estimatedSize());
+        result.put("cacheHits", cacheStats.hitCount());
+        result.put("cacheMisses", cacheStats.missCount());
+        result.put("cacheHitRate", cacheStats.hitRate());
+        result.put("verifications", count);
+        result.put("failures", failures.get());
+        result.put("averageVerifyMicros", count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(verifyNanos.get() / count));
+        return result;
     }
 }
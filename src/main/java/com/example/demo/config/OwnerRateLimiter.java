@@ -0,0 +1,80 @@
+package com.example.demo.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Token bucket per request owner. Each bucket is a single {@link AtomicLong} holding the time at
+ * which it will be full again, so taking a token is one compare-and-set and never blocks. A full
+ * bucket holds {@code burst} tokens and refills at {@code requests-per-second}.
+ */
+@Component
+public class OwnerRateLimiter {
+
+    private final boolean enabled;
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final Cache<UUID, AtomicLong> buckets;
+
+    private final AtomicLong allowed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public OwnerRateLimiter(@Value("${security.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${security.rate-limit.requests-per-second:20}") int requestsPerSecond,
+                            @Value("${security.rate-limit.burst:40}") int burst,
+                            @Value("${security.rate-limit.max-owners:100000}") long maxOwners,
+                            @Value("${security.rate-limit.idle-seconds:600}") long idleSeconds) {
+        if (requestsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate limit requests per second and burst must be positive");
+        }
+        this.enabled = enabled;
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
+        this.capacityNanos = intervalNanos * burst;
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maxOwners)
+            .expireAfterAccess(idleSeconds, TimeUnit.SECONDS)
+            .build();
+    }
+
+    /**
+     * Takes one token from the owner's bucket. Returns 0 when the request may proceed, otherwise
+     * the number of nanoseconds until a token becomes available.
+     */
+    public long acquire(UUID owner) {
+        if (!enabled || owner == null) {
+            return 0;
+        }
+        AtomicLong bucket = buckets.get(owner, key -> new AtomicLong(System.nanoTime()));
+        while (true) {
+            long now = System.nanoTime();
+            long fullAt = bucket.get();
+            long next = (fullAt - now < 0 ? now : fullAt) + intervalNanos;
+            long debt = next - now;
+            if (debt > capacityNanos) {
+                rejected.incrementAndGet();
+                return debt - capacityNanos;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                allowed.incrementAndGet();
+                return 0;
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("owners", buckets.estimatedSize());
+        result.put("allowed", allowed.get());
+        result.put("rejected", rejected.get());
+        return result;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.demo.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+import graphql.execution.preparsed.persisted.PersistedQueryCacheMiss;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+
+/**
+ * Keeps parsed and validated GraphQL documents keyed by the SHA-256 of their text, so a repeated
+ * operation skips both steps. Requests using the automatic persisted query extension may send the
+ * hash alone once the document is known; plain requests share the same entries. Documents with
+ * errors are not kept.
+ */
+@Component
+public class PersistedDocumentProvider implements PreparsedDocumentProvider {
+
+    private static final String PERSISTED_QUERY_EXTENSION = "persistedQuery";
+
+    private final Cache<String, PreparsedDocumentEntry> documents;
+    private final ApolloPersistedQuerySupport persistedQuerySupport;
+
+    public PersistedDocumentProvider(@Value("${graphql.persisted-queries.max-size:2000}") long maxSize) {
+        this.documents = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .recordStats()
+            .build();
+        this.persistedQuerySupport = new ApolloPersistedQuerySupport(
+            (id, input, onMiss) -> CompletableFuture.completedFuture(lookup(String.valueOf(id), input, onMiss)));
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(ExecutionInput input,
+                                                                      Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate) {
+        if (input.getExtensions().containsKey(PERSISTED_QUERY_EXTENSION)) {
+            return persistedQuerySupport.getDocumentAsync(input, parseAndValidate);
+        }
+        if (input.getQuery() == null || input.getQuery().isBlank()) {
+            return CompletableFuture.completedFuture(parseAndValidate.apply(input));
+        }
+        PreparsedDocumentEntry entry = lookup(sha256(input.getQuery()), input, query -> parseAndValidate.apply(input));
+        return CompletableFuture.completedFuture(entry);
+    }
+
+    private PreparsedDocumentEntry lookup(String hash, ExecutionInput input, PersistedQueryCacheMiss onMiss) {
+        PreparsedDocumentEntry entry = documents.getIfPresent(hash);
+        if (entry != null) {
+            return entry;
+        }
+        String query = input.getQuery();
+        if (query == null || query.isBlank() || PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(query)) {
+            throw new PersistedQueryNotFound(hash);
+        }
+        entry = onMiss.apply(query);
+        if (!entry.hasErrors()) {
+            documents.put(hash, entry);
+        }
+        return entry;
+    }
+
+    static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        CacheStats stats = documents.stats();
+        result.put("size", documents.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.demo.config;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import graphql.ExecutionResult;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.normalized.ExecutableNormalizedField;
+import graphql.normalized.ExecutableNormalizedOperation;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLTypeUtil;
+
+/**
+ * Rejects GraphQL operations that are too deep, too wide or too expensive before any resolver
+ * runs. Checks run on the normalized operation, so fragments and aliases are already expanded.
+ * Every field costs one unit per parent item; a list field multiplies the cost of its children
+ * by its {@code first} argument, else by the size of its list argument, or by the default list
+ * size when it has neither.
+ */
+@Component
+public class QueryLimitsInstrumentation extends SimplePerformantInstrumentation {
+
+    private final int maxDepth;
+    private final int maxBreadth;
+    private final long maxCost;
+    private final long defaultListSize;
+
+    private final AtomicLong checked = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public QueryLimitsInstrumentation(@Value("${graphql.limits.max-depth:6}") int maxDepth,
+                                      @Value("${graphql.limits.max-breadth:50}") int maxBreadth,
+                                      @Value("${graphql.limits.max-cost:5000}") long maxCost,
+                                      @Value("${graphql.limits.default-list-size:20}") long defaultListSize) {
+        if (maxDepth <= 0 || maxBreadth <= 0 || maxCost <= 0 || defaultListSize <= 0) {
+            throw new IllegalArgumentException("GraphQL depth, breadth, cost and list size limits must be positive");
+        }
+        this.maxDepth = maxDepth;
+        this.maxBreadth = maxBreadth;
+        this.maxCost = maxCost;
+        this.defaultListSize = defaultListSize;
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters,
+                                                                         InstrumentationState state) {
+        checked.incrementAndGet();
+        ExecutionContext executionContext = parameters.getExecutionContext();
+        ExecutableNormalizedOperation operation = executionContext.getNormalizedQueryTree().get();
+        GraphQLSchema schema = executionContext.getGraphQLSchema();
+        List<ExecutableNormalizedField> topLevelFields = operation.getTopLevelFields();
+
+        int depth = depth(topLevelFields);
+        if (depth > maxDepth) {
+            throw reject("Query depth " + depth + " exceeds the limit of " + maxDepth);
+        }
+        int breadth = breadth(topLevelFields);
+        if (breadth > maxBreadth) {
+            throw reject("Query selects " + breadth + " fields in one selection set, the limit is " + maxBreadth);
+        }
+        long cost = cost(topLevelFields, 1, schema);
+        if (cost > maxCost) {
+            throw reject("Query cost " + (cost == Long.MAX_VALUE ? "overflows" : cost) + " exceeds the limit of " + maxCost);
+        }
+        return super.beginExecuteOperation(parameters, state);
+    }
+
+    private AbortExecutionException reject(String message) {
+        rejected.incrementAndGet();
+        return new AbortExecutionException(message);
+    }
+
+    private int depth(List<ExecutableNormalizedField> fields) {
+        int depth = 0;
+        for (ExecutableNormalizedField field : fields) {
+            if (!isIntrospection(field)) {
+                depth = Math.max(depth, 1 + depth(field.getChildren()));
+            }
+        }
+        return depth;
+    }
+
+    private int breadth(List<ExecutableNormalizedField> fields) {
+        int breadth = fields.size();
+        for (ExecutableNormalizedField field : fields) {
+            if (!isIntrospection(field)) {
+                breadth = Math.max(breadth, breadth(field.getChildren()));
+            }
+        }
+        return breadth;
+    }
+
+    /**
+     * Saturates at {@link Long#MAX_VALUE} and stops descending once the budget is spent.
+     */
+    private long cost(List<ExecutableNormalizedField> fields, long multiplier, GraphQLSchema schema) {
+        long total = 0;
+        for (ExecutableNormalizedField field : fields) {
+            if (isIntrospection(field)) {
+                continue;
+            }
+            total = saturatedAdd(total, multiplier);
+            if (field.hasChildren() && total <= maxCost) {
+                long childMultiplier = saturatedMultiply(multiplier, listSize(field, schema));
+                total = saturatedAdd(total, cost(field.getChildren(), childMultiplier, schema));
+            }
+            if (total > maxCost) {
+                return total;
+            }
+        }
+        return total;
+    }
+
+    private long listSize(ExecutableNormalizedField field, GraphQLSchema schema) {
+        List<GraphQLFieldDefinition> definitions = field.getFieldDefinitions(schema);
+        if (definitions.isEmpty() || !GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(definitions.get(0).getType()))) {
+            return 1;
+        }
+        if (field.getResolvedArguments().get("first") instanceof Number first) {
+            return Math.max(1, first.longValue());
+        }
+        for (Object argument : field.getResolvedArguments().values()) {
+            if (argument instanceof Collection<?> values) {
+                return Math.max(1, values.size());
+            }
+        }
+        return defaultListSize;
+    }
+
+    private static boolean isIntrospection(ExecutableNormalizedField field) {
+        return field.getFieldName().startsWith("__");
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long saturatedMultiply(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long product = a * b;
+        return high != 0 || product < 0 ? Long.MAX_VALUE : product;
+    }
+
+    public long getCheckedCount() {
+        return checked.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import jakarta.servlet.DispatcherType;
+
+/**
+ * Stateless chain: no sessions, no basic or form login. The bearer token is the only credential;
+ * read-only catalog endpoints and the GraphQL read API stay public, everything else needs an
+ * authenticated owner.
+ */
+@Configuration
+@EnableWebSecurity
+public class SecurityConfig {
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtTokenProvider jwtTokenProvider,
+                                                   OwnerRateLimiter rateLimiter) throws Exception {
+        http
+            .csrf(AbstractHttpConfigurer::disable)
+            .httpBasic(AbstractHttpConfigurer::disable)
+            .formLogin(AbstractHttpConfigurer::disable)
+            .logout(AbstractHttpConfigurer::disable)
+            .requestCache(AbstractHttpConfigurer::disable)
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+            .addFilterBefore(new JwtAuthenticationFilter(jwtTokenProvider, rateLimiter), UsernamePasswordAuthenticationFilter.class)
+            .authorizeHttpRequests(requests -> requests
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/shops/list-all", "/api/shops/list/*", "/api/shops/stream",
+                    "/api/shops/cache/stats", "/api/products/cache/stats", "/api/storage/products/*",
+                    "/api/reactive/shops/list-all", "/api/reactive/shops/list/*", "/api/reactive/shops/stream").permitAll()
+                .requestMatchers("/api/products/get/*", "/api/reactive/products/get/*", "/graphql").permitAll()
+                .anyRequest().authenticated());
+        return http.build();
+    }
+}
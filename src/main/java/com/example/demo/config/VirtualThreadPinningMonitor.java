@@ -0,0 +1,141 @@
+package com.example.demo.config;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.util.CustomLogger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Watches for virtual threads that stay pinned to their carrier, typically by blocking inside a
+ * synchronized block or a native frame. Each JFR pinning event longer than the threshold is
+ * attributed to the first application frame on its stack; the first occurrence of a site is
+ * logged with its location and the counts are kept for {@link #stats()}. Only runs when virtual
+ * threads are enabled on a runtime that has them.
+ */
+@Component
+public class VirtualThreadPinningMonitor {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.example.demo.";
+    private static final String OTHER_SITES = "(other)";
+
+    private final CustomLogger customLogger;
+    private final boolean virtualThreadsEnabled;
+    private final Duration threshold;
+    private final int maxSites;
+    private final Map<String, LongAdder> sites = new ConcurrentHashMap<>();
+
+    private final AtomicLong pinned = new AtomicLong();
+    private final AtomicLong pinnedNanos = new AtomicLong();
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(CustomLogger customLogger,
+                                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled,
+                                       @Value("${virtual-threads.pinning.threshold-ms:20}") long thresholdMillis,
+                                       @Value("${virtual-threads.pinning.max-sites:100}") int maxSites) {
+        if (thresholdMillis < 0 || maxSites <= 0) {
+            throw new IllegalArgumentException("Pinning threshold must not be negative and max sites must be positive");
+        }
+        this.customLogger = customLogger;
+        this.virtualThreadsEnabled = virtualThreadsEnabled;
+        this.threshold = Duration.ofMillis(thresholdMillis);
+        this.maxSites = maxSites;
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (!virtualThreadsEnabled || stream != null) {
+            return;
+        }
+        if (Runtime.version().feature() < 21) {
+            customLogger.logInfo("Virtual threads requested but Java " + Runtime.version().feature()
+                + " does not provide them; requests run on platform threads");
+            return;
+        }
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        stream = recording;
+        customLogger.logInfo("Virtual thread pinning monitor started, threshold " + threshold.toMillis() + " ms");
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (stream == null) {
+            return;
+        }
+        stream.close();
+        stream = null;
+        customLogger.logInfo("Virtual thread pinning monitor stopped: " + pinned.get() + " pinned events at "
+            + sites.size() + " sites, " + Duration.ofNanos(pinnedNanos.get()).toMillis() + " ms pinned");
+    }
+
+    private void onPinned(RecordedEvent event) {
+        record(siteOf(event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames()), event.getDuration());
+    }
+
+    void record(String site, Duration duration) {
+        pinned.incrementAndGet();
+        pinnedNanos.addAndGet(duration.toNanos());
+        String key = sites.containsKey(site) || sites.size() < maxSites ? site : OTHER_SITES;
+        LongAdder count = sites.computeIfAbsent(key, ignored -> new LongAdder());
+        count.increment();
+        if (count.sum() == 1) {
+            customLogger.logInfo("Virtual thread pinned for " + duration.toMillis() + " ms at " + key);
+        }
+    }
+
+    private static String siteOf(List<RecordedFrame> frames) {
+        RecordedFrame top = null;
+        for (RecordedFrame frame : frames) {
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            if (top == null) {
+                top = frame;
+            }
+            if (frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE)) {
+                return describe(frame);
+            }
+        }
+        return top == null ? "(unknown)" : describe(top);
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    public boolean isActive() {
+        return stream != null;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("active", isActive());
+        result.put("pinned", pinned.get());
+        result.put("pinnedMillis", Duration.ofNanos(pinnedNanos.get()).toMillis());
+        Map<String, Long> bySite = new LinkedHashMap<>();
+        sites.entrySet().stream()
+            .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> entry) -> entry.getValue().sum()).reversed())
+            .forEach(entry -> bySite.put(entry.getKey(), entry.getValue().sum()));
+        result.put("sites", bySite);
+        return result;
+    }
+}
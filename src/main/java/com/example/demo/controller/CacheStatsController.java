@@ -0,0 +1,35 @@
+package com.example.demo.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.config.JwtTokenProvider;
+import com.example.demo.config.PersistedDocumentProvider;
+
+/**
+ * Statistics of the caches that do not belong to a resource controller.
+ */
+@RestController
+@RequestMapping("/api")
+public class CacheStatsController {
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final PersistedDocumentProvider persistedDocumentProvider;
+
+    public CacheStatsController(JwtTokenProvider jwtTokenProvider, PersistedDocumentProvider persistedDocumentProvider) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.persistedDocumentProvider = persistedDocumentProvider;
+    }
+
+    @GetMapping("/auth/cache/stats")
+    public ResponseEntity<?> getTokenCacheStats() {
+        return ResponseEntity.ok().body(jwtTokenProvider.stats());
+    }
+
+    @GetMapping("/graphql/cache/stats")
+    public ResponseEntity<?> getDocumentCacheStats() {
+        return ResponseEntity.ok().body(persistedDocumentProvider.stats());
+    }
+}
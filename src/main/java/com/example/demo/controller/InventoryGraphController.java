@@ -0,0 +1,144 @@
+package com.example.demo.controller;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.dataloader.DataLoader;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.stereotype.Controller;
+
+import com.example.demo.dto.ProductChangeEvent;
+import com.example.demo.dto.StorageTotalsEvent;
+
+import com.example.demo.models.ProductModel;
+import com.example.demo.models.ShopModel;
+import com.example.demo.models.StorageModel;
+import com.example.demo.models.StorageProductModel;
+import com.example.demo.service.InventoryEventBus;
+import com.example.demo.service.InventoryGraphService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * GraphQL entry points for shops, storages and products. Nested fields are batch mappings: the
+ * DataLoader collects every parent of a level and resolves them with one service call. Storage
+ * products take a {@code first} argument, so they use a loader keyed by storage and page size.
+ */
+@Controller
+public class InventoryGraphController {
+
+    private static final String STORAGE_PRODUCTS_LOADER = "storageProducts";
+
+    private final InventoryGraphService inventoryGraphService;
+    private final InventoryEventBus inventoryEventBus;
+
+    public InventoryGraphController(InventoryGraphService inventoryGraphService, InventoryEventBus inventoryEventBus,
+                                    BatchLoaderRegistry batchLoaderRegistry) {
+        this.inventoryGraphService = inventoryGraphService;
+        this.inventoryEventBus = inventoryEventBus;
+        batchLoaderRegistry.<StorageProductsKey, List<StorageProductModel>>forName(STORAGE_PRODUCTS_LOADER)
+            .registerMappedBatchLoader((keys, environment) -> Mono.fromSupplier(() -> loadStorageProducts(keys)));
+    }
+
+    @QueryMapping
+    public ShopModel shop(@Argument UUID id) {
+        return inventoryGraphService.getShop(id);
+    }
+
+    @QueryMapping
+    public List<ShopModel> shops(@Argument List<UUID> ids) {
+        return inventoryGraphService.getShops(ids);
+    }
+
+    @QueryMapping
+    public StorageModel storage(@Argument Long id) {
+        return inventoryGraphService.getStorage(id);
+    }
+
+    @QueryMapping
+    public ProductModel product(@Argument UUID productId) {
+        return inventoryGraphService.getProduct(productId);
+    }
+
+    /**
+     * Without ids the subscriber receives every product; either way it only gets the latest state
+     * of each product it has not consumed yet.
+     */
+    @SubscriptionMapping
+    public Flux<ProductChangeEvent> productChanges(@Argument List<UUID> productIds) {
+        Set<UUID> ids = productIds == null ? Set.of() : Set.copyOf(productIds);
+        return inventoryEventBus.subscribe(ProductChangeEvent.class,
+            event -> ids.isEmpty() || ids.contains(event.productId()));
+    }
+
+    @SubscriptionMapping
+    public Flux<StorageTotalsEvent> storageTotals(@Argument List<Long> storageIds) {
+        Set<Long> ids = storageIds == null ? Set.of() : Set.copyOf(storageIds);
+        return inventoryEventBus.subscribe(StorageTotalsEvent.class,
+            event -> ids.isEmpty() || ids.contains(event.storageId()));
+    }
+
+    @BatchMapping(typeName = "Shop")
+    public Map<ShopModel, List<StorageModel>> storages(List<ShopModel> shops) {
+        Map<UUID, List<StorageModel>> byShop = inventoryGraphService.getStoragesByShop(
+            shops.stream().map(ShopModel::getId).toList());
+        Map<ShopModel, List<StorageModel>> result = new LinkedHashMap<>();
+        for (ShopModel shop : shops) {
+            result.put(shop, byShop.getOrDefault(shop.getId(), List.of()));
+        }
+        return result;
+    }
+
+    @SchemaMapping(typeName = "Storage", field = "products")
+    public CompletableFuture<List<StorageProductModel>> products(StorageModel storage, @Argument Integer first,
+                                                                 DataLoader<StorageProductsKey, List<StorageProductModel>> storageProducts) {
+        // An explicit null asks for everything, which the service caps like any other large value.
+        return storageProducts.load(new StorageProductsKey(storage.getId(), first == null ? Integer.MAX_VALUE : first));
+    }
+
+    /**
+     * Aliases may ask for different page sizes, so there is one IN query per distinct size.
+     */
+    private Map<StorageProductsKey, List<StorageProductModel>> loadStorageProducts(Set<StorageProductsKey> keys) {
+        Map<StorageProductsKey, List<StorageProductModel>> result = new LinkedHashMap<>();
+        Map<Integer, List<Long>> storageIdsByFirst = keys.stream().collect(Collectors.groupingBy(
+            StorageProductsKey::first, Collectors.mapping(StorageProductsKey::storageId, Collectors.toList())));
+        storageIdsByFirst.forEach((first, storageIds) -> {
+            Map<Long, List<StorageProductModel>> byStorage = inventoryGraphService.getProductsByStorage(storageIds, first);
+            for (Long storageId : storageIds) {
+                result.put(new StorageProductsKey(storageId, first), byStorage.getOrDefault(storageId, List.of()));
+            }
+        });
+        return result;
+    }
+
+    @BatchMapping(typeName = "StorageProduct", field = "product")
+    public Map<StorageProductModel, ProductModel> storageProduct(List<StorageProductModel> entries) {
+        Map<UUID, ProductModel> byId = inventoryGraphService.getProductsById(
+            entries.stream().map(StorageProductModel::getProductId).distinct().toList());
+        Map<StorageProductModel, ProductModel> result = new LinkedHashMap<>();
+        for (StorageProductModel entry : entries) {
+            result.put(entry, byId.get(entry.getProductId()));
+        }
+        return result;
+    }
+
+    @SchemaMapping(typeName = "Product", field = "active")
+    public Boolean productActive(ProductModel product) {
+        return product.getIsActive();
+    }
+
+    record StorageProductsKey(Long storageId, int first) {
+    }
+}
@@ -1,26 +1,41 @@
 package com.example.demo.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.UUID;
 
+import org.apache.coyote.BadRequestException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.demo.enums.LogPermissionEnum;
 import com.example.demo.service.LogService;
+import com.example.demo.service.LogTimestampBackfill;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 
 @RestController
 @RequestMapping("/api/logs")
 public class LogController {
 
+    private static final int STREAM_FLUSH_INTERVAL = 500;
+
     private final LogService logService;
+    private final ObjectMapper objectMapper;
+    private final LogTimestampBackfill logTimestampBackfill;
 
-    public LogController(LogService logService) {
+    public LogController(LogService logService, ObjectMapper objectMapper, LogTimestampBackfill logTimestampBackfill) {
         this.logService = logService;
+        this.objectMapper = objectMapper;
+        this.logTimestampBackfill = logTimestampBackfill;
     }
 
     @GetMapping("/get-all/{storeId}")
@@ -31,4 +46,40 @@ public class LogController {
             return ResponseEntity.status(500).body("Error retrieving logs: " + e.getMessage());
         }
     }
+
+    @GetMapping("/page/{storeId}")
+    public ResponseEntity<?> getLogsPage(@PathVariable("storeId") UUID storeId,
+                                         @RequestParam LogPermissionEnum logPermission,
+                                         @RequestParam(name = "cursor", required = false) String cursor,
+                                         @RequestParam(name = "size", required = false) Integer size) throws BadRequestException {
+        return ResponseEntity.ok(logService.getLogsPage(storeId, logPermission, cursor, size));
+    }
+
+    @GetMapping(value = "/stream/{storeId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamLogs(@PathVariable("storeId") UUID storeId,
+                                                            @RequestParam LogPermissionEnum logPermission) {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                long[] written = {0};
+                logService.streamLogs(storeId, logPermission, log -> {
+                    try {
+                        generator.writeObject(log);
+                        generator.writeRaw('\n');
+                        if (++written[0] % STREAM_FLUSH_INTERVAL == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @PostMapping("/timestamps/migrate")
+    public ResponseEntity<?> migrateTimestamps() {
+        return ResponseEntity.ok(logTimestampBackfill.migrate());
+    }
 }
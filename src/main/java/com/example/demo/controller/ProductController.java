@@ -1,22 +1,37 @@
 package com.example.demo.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 import java.util.UUID;
 
+import org.apache.coyote.BadRequestException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import com.example.demo.config.JwtTokenProvider;
+import com.example.demo.dto.BulkProductResponse;
+import com.example.demo.dto.ProductResponse;
+import com.example.demo.dto.ProductStockResponse;
+import com.example.demo.dto.ResourceVersion;
 import com.example.demo.exception.NotFoundException;
 import com.example.demo.models.ProductModel;
+import com.example.demo.service.ProductCache;
 import com.example.demo.service.ProductService;
 import com.example.demo.util.CustomLogger;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @RestController
 @RequestMapping("/api/products")
@@ -24,18 +39,20 @@ public class ProductController {
 
     private final ProductService productService;
     private final CustomLogger logger;
-    private final JwtTokenProvider jwtTokenProvider;
+    private final ProductCache productCache;
+    private final ObjectMapper objectMapper;
 
-    public ProductController(ProductService productService, CustomLogger logger, JwtTokenProvider jwtTokenProvider) {
+    public ProductController(ProductService productService, CustomLogger logger,
+                             ProductCache productCache, ObjectMapper objectMapper) {
         this.productService = productService;
         this.logger = logger;
-        this.jwtTokenProvider = jwtTokenProvider;
+        this.productCache = productCache;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/create/{storageId}")
     public ResponseEntity<?> createProduct(@RequestBody ProductModel product, @PathVariable Long storageId,
-                                           @RequestHeader("Authorization") String token) throws NotFoundException {
-        UUID requestOwner = jwtTokenProvider.retrieveIdFromToken(token);
+                                           @AuthenticationPrincipal UUID requestOwner) throws NotFoundException {
         logger.logInfo("Attempting to create product in storage: " + storageId);
         UUID productId = productService.createProduct(product, storageId, requestOwner);
         logger.logInfo("Product created successfully with ID: " + productId);
@@ -43,32 +60,73 @@ public class ProductController {
                                                 "message", "Product created successfully"));
     }
 
-    @PostMapping("/get/{productId}")
-    public ResponseEntity<?> getProductById(@PathVariable UUID productId)
+    @PostMapping(value = "/bulk/{storageId}",
+                 consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> bulkUpsertProducts(InputStream body, @PathVariable Long storageId,
+                                                @AuthenticationPrincipal UUID requestOwner)
+            throws NotFoundException, IOException {
+        logger.logInfo("Attempting bulk product upsert in storage: " + storageId);
+        BulkProductResponse result;
+        try (MappingIterator<ProductModel> products = objectMapper.readerFor(ProductModel.class).readValues(body)) {
+            result = productService.bulkUpsertProducts(products, storageId, requestOwner);
+        }
+        logger.logInfo(String.format(
+            "Bulk upsert in storage %s finished: %d created, %d updated, %d rejected",
+            storageId, result.created(), result.updated(), result.rejected()));
+        if (result.failedAt() != null) {
+            return ResponseEntity.badRequest().body(result);
+        }
+        return ResponseEntity.ok().body(result);
+    }
+
+    @RequestMapping(value = "/get/{productId}", method = {RequestMethod.GET, RequestMethod.POST})
+    public ResponseEntity<?> getProductById(@PathVariable UUID productId, WebRequest request)
             throws NotFoundException {
         logger.logDebug("Fetching product with ID: " + productId);
+        if (hasValidators(request)) {
+            ResourceVersion version = productService.getProductVersion(productId);
+            if (request.checkNotModified(version.etag(), version.lastModified())) {
+                logger.logDebug("Product not modified: " + productId);
+                productService.recordRead(productId);
+                return null;
+            }
+        }
         ProductModel product = productService.getProductById(productId);
         logger.logDebug("Product retrieved: " + product);
-        return ResponseEntity.ok().body(product);      
+        ResourceVersion version = ResourceVersion.of(product);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(version.etag());
+        if (version.lastModified() >= 0) {
+            response.lastModified(version.lastModified());
+        }
+        return response.body(ProductResponse.from(product));
     }
     
     @PostMapping("/update")
     public ResponseEntity<?> updateProduct(@RequestBody ProductModel product, 
-                                           @RequestHeader("Authorization") String token)
+                                           @AuthenticationPrincipal UUID requestOwner)
             throws NotFoundException {
         logger.logInfo("Updating product with ID: " + product.getId());
-        UUID requestOwner = jwtTokenProvider.retrieveIdFromToken(token);
         productService.updateProduct(product, requestOwner);
         logger.logInfo("Product updated successfully: " + product.getId());
         return ResponseEntity.ok().body(Map.of("message", "Product updated successfully"));
     }
 
+    @PostMapping("/adjust/{productId}")
+    public ResponseEntity<?> adjustQuantity(@PathVariable UUID productId,
+                                            @RequestParam(name = "delta") long delta,
+                                            @RequestParam(name = "expectedVersion", required = false) Long expectedVersion,
+                                            @AuthenticationPrincipal UUID requestOwner)
+            throws NotFoundException, BadRequestException {
+        logger.logDebug("Adjusting quantity of product " + productId + " by " + delta);
+        ProductStockResponse stock = productService.adjustQuantity(productId, delta, expectedVersion, requestOwner);
+        return ResponseEntity.ok().body(stock);
+    }
+
     @PostMapping("/deactivate/{productId}")
     public ResponseEntity<?> deactivateProduct(@PathVariable UUID productId,
-                                               @RequestHeader("Authorization") String token)
+                                               @AuthenticationPrincipal UUID requestOwner)
             throws NotFoundException {
         logger.logInfo("Deactivating product with ID: " + productId);
-        UUID requestOwner = jwtTokenProvider.retrieveIdFromToken(token);
         productService.deactivateProduct(productId, requestOwner);
         logger.logInfo("Product deactivated successfully: " + productId);
         return ResponseEntity.ok().body(Map.of("message", "Product deactivated successfully"));
@@ -76,10 +134,9 @@ public class ProductController {
 
     @PostMapping("/activate/{productId}")
     public ResponseEntity<?> activateProduct(@PathVariable UUID productId, 
-                                             @RequestHeader("Authorization") String token)
+                                             @AuthenticationPrincipal UUID requestOwner)
             throws NotFoundException {
         logger.logInfo("Activating product with ID: " + productId);
-        UUID requestOwner = jwtTokenProvider.retrieveIdFromToken(token);
         productService.activateProduct(productId, requestOwner);
         logger.logInfo("Product activated successfully: " + productId);
         return ResponseEntity.ok().body(Map.of("message", "Product activated successfully"));
@@ -87,12 +144,21 @@ public class ProductController {
 
     @DeleteMapping("/delete/{storageId}/{productId}")
     public ResponseEntity<?> deleteProduct(@PathVariable UUID productId, @PathVariable Long storageId,
-                                           @RequestHeader("Authorization") String token )
+                                           @AuthenticationPrincipal UUID requestOwner)
             throws NotFoundException {
         logger.logInfo("Deleting product with ID: " + productId + " from storage: " + storageId);
-        UUID requestOwner = jwtTokenProvider.retrieveIdFromToken(token);
         productService.deleteProduct(productId, storageId, requestOwner);
         logger.logInfo("Product deleted successfully: " + productId);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<?> getCacheStats() {
+        return ResponseEntity.ok().body(productCache.stats());
+    }
+
+    private static boolean hasValidators(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+            || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+}
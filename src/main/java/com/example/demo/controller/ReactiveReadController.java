@@ -0,0 +1,92 @@
+package com.example.demo.controller;
+
+import java.util.UUID;
+
+import org.apache.coyote.BadRequestException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.dto.ProductResponse;
+import com.example.demo.dto.ResourceVersion;
+import com.example.demo.dto.ShopPageResponse;
+import com.example.demo.dto.ShopResponse;
+import com.example.demo.dto.ShopSummaryRow;
+import com.example.demo.enums.LogPermissionEnum;
+import com.example.demo.models.LogModel;
+import com.example.demo.service.ReactiveReadService;
+import com.example.demo.util.CustomLogger;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variants of the read endpoints. The request thread is released as soon as the
+ * query is issued and the response is written when the database answers. Streams are written one
+ * element at a time, and the next row is only requested once the previous one has been handed to
+ * the client.
+ */
+@RestController
+@RequestMapping("/api/reactive")
+public class ReactiveReadController {
+
+    private final ReactiveReadService reactiveReadService;
+    private final CustomLogger logger;
+
+    public ReactiveReadController(ReactiveReadService reactiveReadService, CustomLogger logger) {
+        this.reactiveReadService = reactiveReadService;
+        this.logger = logger;
+    }
+
+    @GetMapping("/shops/list-all")
+    public Mono<ShopPageResponse> listShops(@RequestParam(name = "active", required = false) Boolean active,
+                                            @RequestParam(name = "responsibleId", required = false) UUID responsibleId,
+                                            @RequestParam(name = "cursor", required = false) String cursor,
+                                            @RequestParam(name = "size", required = false) Integer size) throws BadRequestException {
+        logger.logDebug("Reactively fetching shops page");
+        return reactiveReadService.getShopsPage(active, responsibleId, cursor, size);
+    }
+
+    @GetMapping(value = "/shops/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ShopSummaryRow> streamShops(@RequestParam(name = "active", required = false) Boolean active,
+                                            @RequestParam(name = "responsibleId", required = false) UUID responsibleId) {
+        logger.logDebug("Reactively streaming shops");
+        return reactiveReadService.streamShops(active, responsibleId);
+    }
+
+    @GetMapping("/shops/list/{shopId}")
+    public Mono<ShopResponse> getShopById(@PathVariable UUID shopId) {
+        logger.logDebug("Reactively fetching shop by ID: " + shopId);
+        return reactiveReadService.getShopById(shopId);
+    }
+
+    /**
+     * The validators are set on the entity, so a matching If-None-Match or If-Modified-Since is
+     * answered with 304.
+     */
+    @GetMapping("/products/get/{productId}")
+    public Mono<ResponseEntity<ProductResponse>> getProductById(@PathVariable UUID productId) {
+        logger.logDebug("Reactively fetching product with ID: " + productId);
+        return reactiveReadService.getProductById(productId).map(product -> {
+            ResourceVersion version = ResourceVersion.of(product);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(version.etag());
+            if (version.lastModified() >= 0) {
+                response.lastModified(version.lastModified());
+            }
+            return response.body(ProductResponse.from(product));
+        });
+    }
+
+    /**
+     * Returns a JSON array by default, or streams newline-delimited JSON when the client accepts
+     * {@code application/x-ndjson}.
+     */
+    @GetMapping(value = "/logs/get-all/{storeId}", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<LogModel> getLogs(@PathVariable("storeId") UUID storeId, @RequestParam LogPermissionEnum logPermission) {
+        return reactiveReadService.getLogs(storeId, logPermission);
+    }
+}
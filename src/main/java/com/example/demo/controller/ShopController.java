@@ -1,13 +1,16 @@
 package com.example.demo.controller;
 
-import java.util.Collection;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Map;
 import java.util.UUID;
-import java.util.stream.StreamSupport;
 
 import org.apache.catalina.connector.Response;
 import org.apache.coyote.BadRequestException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -16,31 +19,47 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import com.example.demo.config.JwtTokenProvider;
+import com.example.demo.dto.ResourceVersion;
+import com.example.demo.dto.ShopPageResponse;
+import com.example.demo.dto.ShopResponse;
 import com.example.demo.models.ShopModel;
+import com.example.demo.service.ShopAccessIndex;
+import com.example.demo.service.ShopResponseCache;
+import com.example.demo.service.ShopResponseCache.CachedResponse;
 import com.example.demo.service.ShopService;
 import com.example.demo.util.CustomLogger;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @RestController
 @RequestMapping("/api/shops")
 public class ShopController {
+    private static final int STREAM_FLUSH_INTERVAL = 500;
+
     private final ShopService shopService;
     private final CustomLogger logger;
-    private final JwtTokenProvider jwtTokenProvider;
+    private final ObjectMapper objectMapper;
+    private final ShopResponseCache shopResponseCache;
+    private final ShopAccessIndex shopAccessIndex;
     
-    public ShopController(ShopService shopService, CustomLogger logger, JwtTokenProvider jwtTokenProvider) {
+    public ShopController(ShopService shopService, CustomLogger logger,
+                          ObjectMapper objectMapper, ShopResponseCache shopResponseCache,
+                          ShopAccessIndex shopAccessIndex) {
         this.shopService = shopService;
         this.logger = logger;
-        this.jwtTokenProvider = jwtTokenProvider;
+        this.objectMapper = objectMapper;
+        this.shopResponseCache = shopResponseCache;
+        this.shopAccessIndex = shopAccessIndex;
     }
 
     @PostMapping("/create")
     public ResponseEntity<?> createShop(@RequestBody ShopModel shopModel, 
-                                        @RequestHeader("Authorization") String token) throws BadRequestException {
+                                        @AuthenticationPrincipal UUID requestOwner) throws BadRequestException {
         logger.logInfo("Attempting to create new shop: " + shopModel.getName());
         try {
-            UUID requestOwner = jwtTokenProvider.retrieveIdFromToken(token);
             UUID id = shopService.createShop(shopModel, requestOwner);
             logger.logInfo("Shop created successfully with ID: " + id);
             return ResponseEntity.status(201).body(Map.of(
@@ -54,30 +73,62 @@ public class ShopController {
     }
 
     @GetMapping("/list-all")
-    public ResponseEntity<?> listShops() {
+    public ResponseEntity<?> listShops(@RequestParam(name = "active", required = false) Boolean active,
+                                       @RequestParam(name = "responsibleId", required = false) UUID responsibleId,
+                                       @RequestParam(name = "cursor", required = false) String cursor,
+                                       @RequestParam(name = "size", required = false) Integer size) throws BadRequestException {
         logger.logDebug("Fetching list of all shops");
         try {
-            var shops = shopService.getAllShops();
-            long count = shops instanceof Collection
-                ? ((Collection<?>) shops).size()
-                : StreamSupport.stream(shops.spliterator(), false).count();
-            logger.logDebug("Successfully retrieved " + count + " shops");
-            return ResponseEntity.ok(shops);
+            String key = "list:" + active + ":" + responsibleId + ":" + cursor + ":" + size;
+            CachedResponse cached = shopResponseCache.get(key);
+            if (cached == null) {
+                long generation = shopResponseCache.generation();
+                ShopPageResponse page = shopService.getShopsPage(active, responsibleId, cursor, size);
+                logger.logDebug("Successfully retrieved " + page.size() + " shops");
+                cached = shopResponseCache.put(key, generation, page);
+            }
+            return cachedJson(cached);
+        } catch (BadRequestException e) {
+            logger.logError("Invalid shops list request", e);
+            throw e;
         } catch (Exception e) {
             logger.logError("Failed to retrieve shops list", e);
             return ResponseEntity.status(Response.SC_INTERNAL_SERVER_ERROR)
                 .body(Map.of("error", "Failed to retrieve shops"));
         }
     }   
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamShops(
+            @RequestParam(name = "active", required = false) Boolean active,
+            @RequestParam(name = "responsibleId", required = false) UUID responsibleId) {
+        logger.logDebug("Streaming shops");
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                long[] written = {0};
+                shopService.streamShops(active, responsibleId, shop -> {
+                    try {
+                        generator.writeObject(shop);
+                        generator.writeRaw('\n');
+                        if (++written[0] % STREAM_FLUSH_INTERVAL == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
     
     @PutMapping("/deactivate/{shopId}")
     public ResponseEntity<?> deactivateShop(
             @RequestParam(name = "shopId") UUID shopId,
-            @RequestHeader("Authorization") String token)
+            @AuthenticationPrincipal UUID requestOwner)
             throws BadRequestException, IllegalAccessException {
     
-        UUID requestOwner = jwtTokenProvider.retrieveIdFromToken(token);
-
         logger.logInfo(String.format(
             "Attempting to deactivate shop (ID: %s) by requisition owner: %s", 
             shopId, requestOwner));
@@ -102,12 +153,10 @@ public class ShopController {
     
     @PutMapping("/activate/{shopId}")
     public ResponseEntity<?> activateShop(
-            @RequestHeader("Authorization") String token, 
+            @AuthenticationPrincipal UUID requestOwner, 
             @RequestParam(name = "shopId") UUID shopId) 
             throws BadRequestException, IllegalAccessException {
         
-        UUID requestOwner = jwtTokenProvider.retrieveIdFromToken(token);
-
         logger.logInfo(String.format(
             "Attempting to activate shop (ID: %s) by requisition owner: %s", 
             shopId, requestOwner));
@@ -125,16 +174,58 @@ public class ShopController {
     }
 
     @GetMapping("/list/{shopId}")
-    public ResponseEntity<?> getShopById(@RequestHeader("shopId") UUID shopId) {
+    public ResponseEntity<?> getShopById(@RequestHeader("shopId") UUID shopId, WebRequest request) {
         logger.logDebug("Fetching shop by ID: " + shopId);
         try {
-            ShopModel shop = shopService.getShopById(shopId);
-            logger.logDebug("Successfully retrieved shop: " + shopId);
-            return ResponseEntity.ok(shop);
+            String key = "shop:" + shopId;
+            CachedResponse cached = shopResponseCache.get(key);
+            if (cached == null) {
+                long generation = shopResponseCache.generation();
+                if (hasValidators(request)) {
+                    ResourceVersion version = shopService.getShopVersion(shopId);
+                    if (request.checkNotModified(version.etag(), version.lastModified())) {
+                        logger.logDebug("Shop not modified: " + shopId);
+                        return null;
+                    }
+                }
+                ShopResponse shop = shopService.getShopById(shopId);
+                logger.logDebug("Successfully retrieved shop: " + shopId);
+                cached = shopResponseCache.put(key, generation, shop, new ResourceVersion(shop.version(), shop.updatedAt()));
+            }
+            return cachedJson(cached);
         } catch (Exception e) {
             logger.logError("Failed to retrieve shop: " + shopId, e);
             return ResponseEntity.status(Response.SC_INTERNAL_SERVER_ERROR)
                 .body(Map.of("error", "Failed to retrieve shop"));
         }
     }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<?> getCacheStats() {
+        return ResponseEntity.ok().body(shopResponseCache.stats());
+    }
+
+    @GetMapping("/access/cache/stats")
+    public ResponseEntity<?> getAccessCacheStats() {
+        return ResponseEntity.ok().body(shopAccessIndex.stats());
+    }
+
+    /**
+     * The body is written as raw bytes by the byte array converter. Because the validators are set
+     * on the entity, Spring answers a matching If-None-Match or If-Modified-Since with 304.
+     */
+    private ResponseEntity<byte[]> cachedJson(CachedResponse cached) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag(cached.etag())
+            .contentType(MediaType.APPLICATION_JSON);
+        if (cached.lastModified() >= 0) {
+            response.lastModified(cached.lastModified());
+        }
+        return response.body(cached.body());
+    }
+
+    private static boolean hasValidators(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+            || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
 }
\ No newline at end of file
@@ -2,18 +2,27 @@ package com.example.demo.controller;
 
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+import org.apache.coyote.BadRequestException;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.example.demo.config.JwtTokenProvider;
+import com.example.demo.dto.StorageTransferRequest;
+import com.example.demo.dto.StorageTransferResponse;
 import com.example.demo.exception.NotFoundException;
 import com.example.demo.models.StorageModel;
+import com.example.demo.models.StorageProductModel;
+import com.example.demo.service.InventoryReconciliationService;
 import com.example.demo.service.StorageService;
 import com.example.demo.util.CustomLogger;
 
@@ -23,22 +32,21 @@ public class StorageController {
 
     private final StorageService storageService;
     private final CustomLogger logger;
-    private final JwtTokenProvider jwtTokenProvider;
+    private final InventoryReconciliationService reconciliationService;
 
-    public StorageController(StorageService storageService, CustomLogger logger, JwtTokenProvider jwtTokenProvider) {
+    public StorageController(StorageService storageService, CustomLogger logger,
+                             InventoryReconciliationService reconciliationService) {
         this.storageService = storageService;
         this.logger = logger;
-        this.jwtTokenProvider = jwtTokenProvider;
+        this.reconciliationService = reconciliationService;
     }
 
     @PostMapping("/create/{storeId}")
     public ResponseEntity<?> createStorage(@RequestBody StorageModel storageModel,
-                                           @RequestHeader("Authorization") String token,
+                                           @AuthenticationPrincipal UUID requestOwner,
                                            @RequestParam(name = "storeId") UUID storeId) {
         logger.logInfo("Attempting to create new storage: " + storageModel.getName());
         try {
-            UUID requestOwner = jwtTokenProvider.retrieveIdFromToken(token);
-
             Long storageId = storageService.createNewStorage(requestOwner, storageModel, storeId);
             logger.logInfo("Storage created successfully with ID: " + storageId);
             return ResponseEntity.status(201).body(Map.of(
@@ -56,13 +64,12 @@ public class StorageController {
 
     @PostMapping("/update/{storeId}")
     public ResponseEntity<?> updateStorage(@RequestBody StorageModel storageModel,
-                                           @RequestHeader("Authorization") String token,
+                                           @AuthenticationPrincipal UUID requestOwner,
                                            @RequestParam(name = "storeId") UUID storeId) throws NotFoundException {
 
         logger.logInfo("Attempting to update storage ID: " + storageModel.getId());
         
         try {
-            UUID requestOwner = jwtTokenProvider.retrieveIdFromToken(token);
             Boolean isUpdated = storageService.updateStorage(requestOwner, storageModel, storeId);
             
             if (isUpdated) {
@@ -79,73 +86,121 @@ public class StorageController {
     }
 
     @PostMapping("/addProduct/{storeId}/{storageId}/{productId}")
-    public ResponseEntity<?> addProductToStorage(
+    public CompletableFuture<ResponseEntity<?>> addProductToStorage(
             @RequestParam(name = "storageId") Long storageId,
             @RequestParam(name = "productId") UUID productId,
             @RequestParam(name = "storeId") UUID storeId,
-            @RequestHeader("Authorization") String token) throws NotFoundException {
+            @AuthenticationPrincipal UUID requestOwner) {
         
         logger.logInfo(String.format(
             "Attempting to add product %s to storage %s", 
             productId, storageId));
         
-        try {
-            UUID requestOwner = jwtTokenProvider.retrieveIdFromToken(token);
-            Boolean isAdded = storageService.addProductToStorage(requestOwner, storageId, productId, storeId);
-            if (isAdded) {
-                logger.logInfo(String.format(
-                    "Product %s added to storage %s successfully", 
-                    productId, storageId));
-                return ResponseEntity.accepted().body(Map.of(
-                    "message", "Product added to storage successfully"));
-            } else {
+        return storageService.submitAddProductToStorage(requestOwner, storageId, productId, storeId)
+            .whenComplete((isAdded, error) -> {
+                if (error != null) {
+                    logger.logError(String.format(
+                        "Storage %s or product %s not found", 
+                        storageId, productId), unwrap(error));
+                }
+            })
+            .thenApply(isAdded -> {
+                if (isAdded) {
+                    logger.logInfo(String.format(
+                        "Product %s added to storage %s successfully", 
+                        productId, storageId));
+                    return ResponseEntity.accepted().body(Map.of(
+                        "message", "Product added to storage successfully"));
+                }
                 logger.logError(String.format(
                     "Failed to add product %s to storage %s", 
                     productId, storageId), new Exception("Add operation returned false"));
                 return ResponseEntity.status(400).body(Map.of(
                     "message", "Failed to add product to storage"));
-            }
-        } catch (NotFoundException e) {
-            logger.logError(String.format(
-                "Storage %s or product %s not found", 
-                storageId, productId), e);
-            throw e;
-        }
+            });
+    }
+
+    @GetMapping("/products/{storageId}")
+    public ResponseEntity<?> getStorageProducts(@PathVariable Long storageId,
+                                                @RequestParam(name = "page", defaultValue = "0") int page,
+                                                @RequestParam(name = "size", defaultValue = "50") int size)
+            throws NotFoundException, BadRequestException {
+        logger.logDebug("Listing products of storage " + storageId);
+        Page<StorageProductModel> products = storageService.getStorageProducts(storageId, page, size);
+        return ResponseEntity.ok(Map.of(
+            "products", products.getContent(),
+            "page", products.getNumber(),
+            "size", products.getSize(),
+            "totalElements", products.getTotalElements()
+        ));
     }
 
     @PostMapping("/removeProduct/{storeId}/{storageId}/{productId}")
-    public ResponseEntity<?> removeProductFromStorage(
+    public CompletableFuture<ResponseEntity<?>> removeProductFromStorage(
             @RequestParam(name = "storageId") Long storageId,
             @RequestParam(name = "productId") UUID productId,
             @RequestParam(name = "storeId") UUID storeId,
-            @RequestHeader("Authorization") String token) throws NotFoundException {
+            @AuthenticationPrincipal UUID requestOwner) {
         
         logger.logInfo(String.format(
             "Attempting to remove product %s from storage %s", 
             productId, storageId));
         
-        try {
-            UUID requestOwner = jwtTokenProvider.retrieveIdFromToken(token);
-            Boolean isRemoved = storageService.removeProductFromStorage(requestOwner, storageId, productId, storeId);
-
-            if (isRemoved) {
-                logger.logInfo(String.format(
-                    "Product %s removed from storage %s successfully", 
-                    productId, storageId));
-                return ResponseEntity.accepted().body(Map.of(
-                    "message", "Product removed from storage successfully"));
-            } else {
+        return storageService.submitRemoveProductFromStorage(requestOwner, storageId, productId, storeId)
+            .whenComplete((isRemoved, error) -> {
+                if (error != null) {
+                    logger.logError(String.format(
+                        "Storage %s or product %s not found", 
+                        storageId, productId), unwrap(error));
+                }
+            })
+            .thenApply(isRemoved -> {
+                if (isRemoved) {
+                    logger.logInfo(String.format(
+                        "Product %s removed from storage %s successfully", 
+                        productId, storageId));
+                    return ResponseEntity.accepted().body(Map.of(
+                        "message", "Product removed from storage successfully"));
+                }
                 logger.logError(String.format(
                     "Failed to remove product %s from storage %s", 
                     productId, storageId), new Exception("Remove operation returned false"));
                 return ResponseEntity.status(400).body(Map.of(
                     "message", "Failed to remove product from storage"));
-            }
-        } catch (Exception e) {
-            logger.logError(String.format(
-                "Storage %s or product %s not found", 
-                storageId, productId), e);
-            throw e;
+            });
+    }
+
+    @PostMapping("/transfer/{storeId}")
+    public ResponseEntity<?> transferProducts(@PathVariable UUID storeId,
+                                              @RequestBody StorageTransferRequest request,
+                                              @AuthenticationPrincipal UUID requestOwner)
+            throws NotFoundException, BadRequestException {
+        logger.logInfo(String.format(
+            "Attempting to transfer %d products from storage %s to storage %s",
+            request.items() == null ? 0 : request.items().size(), request.fromStorageId(), request.toStorageId()));
+        StorageTransferResponse response = storageService.transferProducts(requestOwner, request, storeId);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/reconcile")
+    public ResponseEntity<?> reconcileTotals() {
+        logger.logInfo("Starting on-demand storage reconciliation");
+        try {
+            return ResponseEntity.ok(reconciliationService.reconcile());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/reconcile/last")
+    public ResponseEntity<?> getLastReconciliation() {
+        return reconciliationService.getLastReport()
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    private static Exception unwrap(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof Exception exception ? exception : new Exception(cause);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk upsert. {@code failedAt} is the index of the item the request stream broke at,
+ * or null when the whole stream was read; the counts cover everything persisted before that.
+ */
+public record BulkProductResponse(int created, int updated, int rejected, List<String> errors, Integer failedAt) {
+
+    public BulkProductResponse(int created, int updated, int rejected, List<String> errors) {
+        this(created, updated, rejected, errors, null);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.dto;
+
+/**
+ * A change published on the inventory event bus. Events with the same key describe the same
+ * resource, so a subscriber that falls behind only needs the latest one.
+ */
+public interface InventoryEvent {
+
+    String key();
+
+    /**
+     * Combines this event with an older undelivered one for the same key. By default the newer
+     * event simply replaces it.
+     */
+    default InventoryEvent supersede(InventoryEvent previous) {
+        return this;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+import com.example.demo.models.LogModel;
+
+public record LogPageResponse(List<LogModel> logs, int size, String nextCursor) {
+}
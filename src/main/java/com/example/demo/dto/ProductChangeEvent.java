@@ -0,0 +1,45 @@
+package com.example.demo.dto;
+
+import java.util.UUID;
+
+import com.example.demo.models.ProductModel;
+
+/**
+ * Current stock, price and state of a product. Fields the change did not read are null and are
+ * filled from an older pending event when the two are conflated. A deleted product carries only
+ * its id, since nothing older is worth keeping.
+ */
+public record ProductChangeEvent(UUID productId, Long quantity, Double price, Boolean active, Long version,
+                                 boolean deleted) implements InventoryEvent {
+
+    public static ProductChangeEvent of(ProductModel product) {
+        return new ProductChangeEvent(product.getProductId(), product.getQuantity(), product.getPrice(),
+            product.getIsActive(), product.getVersion(), false);
+    }
+
+    public static ProductChangeEvent of(ProductStockResponse stock) {
+        return new ProductChangeEvent(stock.productId(), stock.quantity(), null, null, stock.version(), false);
+    }
+
+    public static ProductChangeEvent deleted(UUID productId) {
+        return new ProductChangeEvent(productId, null, null, null, null, true);
+    }
+
+    @Override
+    public String key() {
+        return "product:" + productId;
+    }
+
+    @Override
+    public InventoryEvent supersede(InventoryEvent previous) {
+        if (deleted || !(previous instanceof ProductChangeEvent older)) {
+            return this;
+        }
+        return new ProductChangeEvent(productId,
+            quantity != null ? quantity : older.quantity,
+            price != null ? price : older.price,
+            active != null ? active : older.active,
+            version != null ? version : older.version,
+            false);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.demo.dto;
+
+import java.util.UUID;
+
+import com.example.demo.models.ProductModel;
+
+public record ProductResponse(UUID id, UUID productId, Long quantity, Double price, Boolean isActive,
+                              String createdAt, String updatedAt, Long version) {
+
+    public static ProductResponse from(ProductModel product) {
+        return new ProductResponse(product.getId(), product.getProductId(), product.getQuantity(),
+            product.getPrice(), product.getIsActive(), product.getCreatedAt(), product.getUpdatedAt(),
+            product.getVersion());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.dto;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+import com.example.demo.models.ProductModel;
+
+/**
+ * The validators of a single resource, loaded without the resource itself so conditional reads
+ * can be answered from one narrow query.
+ */
+public record ResourceVersion(Long version, String updatedAt) {
+
+    private static final DateTimeFormatter DATE_TO_STRING =
+        DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss zzz yyyy", Locale.US);
+
+    public static ResourceVersion of(ProductModel product) {
+        return new ResourceVersion(product.getVersion(), product.getUpdatedAt());
+    }
+
+    public String etag() {
+        return "\"" + (version == null ? 0 : version) + "\"";
+    }
+
+    /**
+     * Products store epoch millis and shops store {@link java.util.Date#toString()}; both are
+     * accepted. Returns -1 when the timestamp is missing or unreadable.
+     */
+    public long lastModified() {
+        if (updatedAt == null || updatedAt.isBlank()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(updatedAt);
+        } catch (NumberFormatException e) {
+            try {
+                return ZonedDateTime.parse(updatedAt, DATE_TO_STRING).toInstant().toEpochMilli();
+            } catch (DateTimeParseException ignored) {
+                return -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.dto;
+
+import java.util.UUID;
+
+import com.example.demo.models.ShopModel;
+
+/**
+ * The only shop state a permission check needs.
+ */
+public record ShopAccess(UUID responsibleId, Boolean status) {
+
+    public static ShopAccess of(ShopModel shop) {
+        return new ShopAccess(shop.getResponsibleId(), shop.getStatus());
+    }
+
+    public boolean isActive() {
+        return Boolean.TRUE.equals(status);
+    }
+
+    public boolean isOwnedBy(UUID owner) {
+        return responsibleId != null && responsibleId.equals(owner);
+    }
+}
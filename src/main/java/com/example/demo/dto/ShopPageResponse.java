@@ -0,0 +1,6 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+public record ShopPageResponse(List<ShopSummary> shops, int size, String nextCursor) {
+}
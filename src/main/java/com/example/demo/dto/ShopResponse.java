@@ -0,0 +1,31 @@
+package com.example.demo.dto;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import com.example.demo.models.ShopModel;
+import com.example.demo.models.StorageModel;
+
+public record ShopResponse(UUID id, String name, String cnpj, String address, String phone, String email,
+                           String description, boolean active, Boolean status, UUID responsibleId,
+                           String imageUrl, String logoUrl, String bannerUrl, Date openingHours,
+                           Date closingHours, String createdAt, String updatedAt, Long version,
+                           Set<Long> storageIds) {
+
+    /**
+     * Expects {@code storages} to be initialized already; storages are exposed by id only so
+     * serialization never walks back into the entity graph.
+     */
+    public static ShopResponse from(ShopModel shop) {
+        return from(shop, shop.getStorages().stream().map(StorageModel::getId).collect(Collectors.toSet()));
+    }
+
+    public static ShopResponse from(ShopModel shop, Set<Long> storageIds) {
+        return new ShopResponse(shop.getId(), shop.getName(), shop.getCnpj(), shop.getAddress(), shop.getPhone(),
+            shop.getEmail(), shop.getDescription(), shop.isActive(), shop.getStatus(), shop.getResponsibleId(),
+            shop.getImageUrl(), shop.getLogoUrl(), shop.getBannerUrl(), shop.getOpeningHours(),
+            shop.getClosingHours(), shop.getCreatedAt(), shop.getUpdatedAt(), shop.getVersion(), storageIds);
+    }
+}
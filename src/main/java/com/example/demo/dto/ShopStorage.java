@@ -0,0 +1,11 @@
+package com.example.demo.dto;
+
+import java.util.UUID;
+
+import com.example.demo.models.StorageModel;
+
+/**
+ * One row of the shop_storages join, carrying the owning shop id next to the storage.
+ */
+public record ShopStorage(UUID shopId, StorageModel storage) {
+}
@@ -0,0 +1,27 @@
+package com.example.demo.dto;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * List view of a shop. Used as a Spring Data interface projection, so listing queries select only
+ * these columns.
+ */
+public interface ShopSummary {
+
+    UUID getId();
+
+    String getName();
+
+    String getAddress();
+
+    String getPhone();
+
+    Boolean getStatus();
+
+    UUID getResponsibleId();
+
+    Date getOpeningHours();
+
+    Date getClosingHours();
+}
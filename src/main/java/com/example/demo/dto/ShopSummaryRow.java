@@ -0,0 +1,52 @@
+package com.example.demo.dto;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * {@link ShopSummary} read without JPA, so reactive listings serialize to the same JSON as the
+ * projection.
+ */
+public record ShopSummaryRow(UUID id, String name, String address, String phone, Boolean status,
+                             UUID responsibleId, Date openingHours, Date closingHours) implements ShopSummary {
+
+    @Override
+    public UUID getId() {
+        return id;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getAddress() {
+        return address;
+    }
+
+    @Override
+    public String getPhone() {
+        return phone;
+    }
+
+    @Override
+    public Boolean getStatus() {
+        return status;
+    }
+
+    @Override
+    public UUID getResponsibleId() {
+        return responsibleId;
+    }
+
+    @Override
+    public Date getOpeningHours() {
+        return openingHours;
+    }
+
+    @Override
+    public Date getClosingHours() {
+        return closingHours;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.demo.dto;
+
+/**
+ * Stock totals of a storage as committed.
+ */
+public record StorageTotalsEvent(Long storageId, Long totalProductsQuantity, Double totalProductsValue)
+        implements InventoryEvent {
+
+    @Override
+    public String key() {
+        return "storage:" + storageId;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.demo.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Products to move between storages. A null quantity moves the product's whole stock; products left
+ * without stock are unlinked from the source storage.
+ */
+public record StorageTransferRequest(Long fromStorageId, Long toStorageId, List<Item> items) {
+
+    public record Item(UUID productId, Long quantity) {
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.demo.dto;
+
+public record StorageTransferResponse(Long fromStorageId, Long toStorageId, int products, long quantity, double value) {
+}
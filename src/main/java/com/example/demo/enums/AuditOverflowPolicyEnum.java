@@ -0,0 +1,9 @@
+package com.example.demo.enums;
+
+public enum AuditOverflowPolicyEnum {
+
+    BLOCK,
+    DROP_OLDEST,
+    SPILL;
+
+}
@@ -5,10 +5,12 @@ import java.util.UUID;
 
 import com.example.demo.enums.LogPermissionEnum;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -16,7 +18,10 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "logs")
+@Table(name = "logs", indexes = {
+    @Index(name = "idx_logs_store_permission_timestamp", columnList = "store_id, log_permission, timestamp, id"),
+    @Index(name = "idx_logs_timestamp", columnList = "timestamp")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -29,6 +34,7 @@ public class LogModel {
 
     private String message;
     private LogPermissionEnum logPermission;
+    @Column(nullable = false)
     private Date timestamp;
     private UUID storeId; 
     private String details; 
@@ -0,0 +1,35 @@
+package com.example.demo.models;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "log_daily_rollups", indexes = {
+    @Index(name = "idx_log_rollups_store_day", columnList = "store_id, bucket_day")
+})
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class LogRollupModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private UUID storeId;
+    private String logType;
+    private LocalDate bucketDay;
+    private Long logCount;
+}
@@ -5,10 +5,12 @@ import java.util.UUID;
 
 import com.example.demo.enums.LogPermissionEnum;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -16,7 +18,9 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "product_logs")
+@Table(name = "product_logs", indexes = {
+    @Index(name = "idx_product_logs_timestamp", columnList = "timestamp")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -29,6 +33,7 @@ public class ProductLogModel {
     private String message;
     private UUID productId;
     private LogPermissionEnum logPermission;
+    @Column(nullable = false)
     private Date timestamp;
     private String details; 
     private UUID logOwnerId; 
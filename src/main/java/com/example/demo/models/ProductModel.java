@@ -1,22 +1,25 @@
 package com.example.demo.models;
 
-import java.util.HashSet;
 import java.util.UUID;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinTable;
-import jakarta.persistence.ManyToMany;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_product_id", columnList = "product_id")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -33,11 +36,8 @@ public class ProductModel {
     private Boolean isActive;
     private String createdAt;
     private String updatedAt;
-    
-    @ManyToMany
-    @JoinTable(name = "product_storages",
-               joinColumns = @jakarta.persistence.JoinColumn(name = "product_id"),
-               inverseJoinColumns = @jakarta.persistence.JoinColumn(name = "storage_id"))
-    private HashSet<StorageModel> storages = new HashSet<>();
-    
+
+    @Version
+    @ColumnDefault("0")
+    private Long version;
 }
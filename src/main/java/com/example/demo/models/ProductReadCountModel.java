@@ -0,0 +1,34 @@
+package com.example.demo.models;
+
+import java.util.Date;
+import java.util.UUID;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "product_read_counts", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_product_read_counts_product_minute", columnNames = {"product_id", "minute_bucket"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductReadCountModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private UUID productId;
+    private Date minuteBucket;
+    private Long readCount;
+}
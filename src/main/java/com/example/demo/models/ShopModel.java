@@ -2,21 +2,29 @@ package com.example.demo.models;
 
 import java.util.Date;
 import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "shops")
+@Table(name = "shops", indexes = {
+    @Index(name = "idx_shops_status_id", columnList = "status, id"),
+    @Index(name = "idx_shops_responsible_id", columnList = "responsible_id, id")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -43,9 +51,13 @@ public class ShopModel {
     private Date openingHours;
     private Date closingHours;
 
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     @ManyToMany
     @jakarta.persistence.JoinTable(name = "shop_storages",
                joinColumns = @jakarta.persistence.JoinColumn(name = "shop_id"),
                inverseJoinColumns = @jakarta.persistence.JoinColumn(name = "storage_id"))
-    private HashSet<StorageModel> storages = new HashSet<>();
+    private Set<StorageModel> storages = new HashSet<>();
 }
@@ -2,8 +2,10 @@ package com.example.demo.models;
 
 import java.util.Date;
 import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -29,33 +31,16 @@ public class StorageModel {
 
     private String name;
     private String location;
+    @Column(updatable = false)
     private Long totalProductsQuantity = 0L;
+    @Column(updatable = false)
     private Double totalProductsValue = 0.0; 
     private boolean isActive;
     private String description;
     private Date createdAt;
     private Date updatedAt;
     private UUID responsibleId;
-    
-    private HashSet<ProductModel> productList = new HashSet<>();
 
     @ManyToMany
-    private HashSet<ShopModel> shops = new HashSet<>();
-
-    @ManyToMany
-    private HashSet<ProductModel> products = new HashSet<>();
-
-    public void addProduct(ProductModel product) {
-        if (product != null) {
-            productList.add(product);
-            totalProductsQuantity += product.getQuantity();
-            totalProductsValue += product.getPrice() * product.getQuantity();
-        }
-    }
-    public void removeProduct(ProductModel product) {
-        if (product != null && productList.remove(product)) {
-            totalProductsQuantity -= product.getQuantity();
-            totalProductsValue -= product.getPrice() * product.getQuantity();
-        }
-    }
+    private Set<ShopModel> shops = new HashSet<>();
 }
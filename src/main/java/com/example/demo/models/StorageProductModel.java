@@ -0,0 +1,46 @@
+package com.example.demo.models;
+
+import java.util.UUID;
+
+import org.hibernate.annotations.ColumnDefault;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Membership of a product in a storage together with the stock held there. The primary key
+ * (storage_id, product_id) serves storage listings; the reverse index serves product lookups.
+ * productId references products.id.
+ */
+@Entity
+@Table(name = "storage_products", indexes = {
+    @Index(name = "idx_storage_products_product_storage", columnList = "product_id, storage_id")
+})
+@IdClass(StorageProductId.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class StorageProductModel {
+
+    @Id
+    private Long storageId;
+
+    @Id
+    private UUID productId;
+
+    @ColumnDefault("0")
+    private Long quantity;
+
+    @Column(name = "stock_value")
+    @ColumnDefault("0")
+    private Double value;
+}
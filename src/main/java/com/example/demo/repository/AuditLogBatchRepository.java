@@ -0,0 +1,69 @@
+package com.example.demo.repository;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.enums.LogPermissionEnum;
+import com.example.demo.models.LogModel;
+import com.example.demo.models.ProductLogModel;
+
+@Repository
+public class AuditLogBatchRepository {
+
+    private static final String INSERT_STORE_LOG =
+        "INSERT INTO logs (message, log_permission, timestamp, store_id, details, log_owner_id, log_type) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PRODUCT_LOG =
+        "INSERT INTO product_logs (message, log_permission, timestamp, product_id, details, log_owner_id, log_type) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    public AuditLogBatchRepository(JdbcTemplate jdbcTemplate, DatabasePlatform databasePlatform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+    }
+
+    public int insertStoreLogs(List<LogModel> logs) {
+        if (logs.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_STORE_LOG, logs, logs.size(), (ps, log) -> {
+            ps.setString(1, log.getMessage());
+            ps.setObject(2, permissionOrdinal(log.getLogPermission()));
+            ps.setTimestamp(3, toTimestamp(log.getTimestamp()));
+            ps.setObject(4, databasePlatform.bindUuid(log.getStoreId()));
+            ps.setString(5, log.getDetails());
+            ps.setObject(6, databasePlatform.bindUuid(log.getLogOwnerId()));
+            ps.setString(7, log.getLogType());
+        });
+        return logs.size();
+    }
+
+    public int insertProductLogs(List<ProductLogModel> logs) {
+        if (logs.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT_LOG, logs, logs.size(), (ps, log) -> {
+            ps.setString(1, log.getMessage());
+            ps.setObject(2, permissionOrdinal(log.getLogPermission()));
+            ps.setTimestamp(3, toTimestamp(log.getTimestamp()));
+            ps.setObject(4, databasePlatform.bindUuid(log.getProductId()));
+            ps.setString(5, log.getDetails());
+            ps.setObject(6, databasePlatform.bindUuid(log.getLogOwnerId()));
+            ps.setString(7, log.getLogType());
+        });
+        return logs.size();
+    }
+
+    private Integer permissionOrdinal(LogPermissionEnum permission) {
+        return permission == null ? null : permission.ordinal();
+    }
+
+    private Timestamp toTimestamp(Date date) {
+        return date == null ? null : new Timestamp(date.getTime());
+    }
+}
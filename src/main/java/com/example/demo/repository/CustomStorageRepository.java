@@ -1,7 +1,26 @@
 package com.example.demo.repository;
 
+import java.util.List;
+
 import com.example.demo.models.ProductModel;
 
 public interface CustomStorageRepository {
-    void addProductToStorage(Long storageId, ProductModel product);
+
+    /**
+     * Links the product to the storage with its current stock and adds that stock to the storage
+     * totals, without loading the storage's products. Returns false if the product was already linked.
+     */
+    boolean addProductToStorage(Long storageId, ProductModel product);
+
+    /**
+     * Unlinks the product from the storage and subtracts the stock recorded on the link from the
+     * storage totals. Returns false if the product was not linked.
+     */
+    boolean removeProductFromStorage(Long storageId, ProductModel product);
+
+    /**
+     * Unlinks the product from every storage holding it, adjusting each storage's totals. Returns
+     * the ids of the storages that held it.
+     */
+    List<Long> removeProductFromAllStorages(ProductModel product);
 }
@@ -1,11 +1,15 @@
 package com.example.demo.repository;
 
+import java.util.List;
+
 import org.springframework.stereotype.Repository;
 
 import com.example.demo.models.ProductModel;
-import com.example.demo.models.StorageModel;
+import com.example.demo.models.StorageProductId;
+import com.example.demo.models.StorageProductModel;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 
@@ -13,15 +17,66 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class CustomStorageRepositoryImpl implements CustomStorageRepository {
 
+    private static final String INCREMENT_TOTALS = "UPDATE StorageModel s "
+        + "SET s.totalProductsQuantity = COALESCE(s.totalProductsQuantity, 0) + :quantity, "
+        + "s.totalProductsValue = COALESCE(s.totalProductsValue, 0) + :value WHERE s.id = :storageId";
+
     private final EntityManager entityManager;
 
     @Override
     @Transactional
-    public void addProductToStorage(Long storageId, ProductModel product) {
-        StorageModel storage = entityManager.find(StorageModel.class, storageId);
-        if (storage != null) {
-            storage.addProduct(product);
-            entityManager.merge(storage);
+    public boolean addProductToStorage(Long storageId, ProductModel product) {
+        StorageProductId key = new StorageProductId(storageId, product.getId());
+        if (entityManager.find(StorageProductModel.class, key) != null) {
+            return false;
+        }
+        long quantity = product.getQuantity() == null ? 0 : product.getQuantity();
+        double value = product.getPrice() == null ? 0 : quantity * product.getPrice();
+        entityManager.persist(new StorageProductModel(storageId, product.getId(), quantity, value));
+        incrementTotals(storageId, quantity, value);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public boolean removeProductFromStorage(Long storageId, ProductModel product) {
+        StorageProductModel link = entityManager.find(StorageProductModel.class, new StorageProductId(storageId, product.getId()),
+            LockModeType.PESSIMISTIC_WRITE);
+        if (link == null) {
+            return false;
         }
+        unlink(link);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public List<Long> removeProductFromAllStorages(ProductModel product) {
+        List<StorageProductModel> links = entityManager.createQuery(
+                "SELECT sp FROM StorageProductModel sp WHERE sp.productId = :productId", StorageProductModel.class)
+            .setParameter("productId", product.getId())
+            .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+            .getResultList();
+        links.forEach(this::unlink);
+        return links.stream().map(StorageProductModel::getStorageId).toList();
+    }
+
+    /**
+     * Callers read the link with a row lock, so the quantity taken off the totals is the quantity
+     * deleted even when a transfer deposits into the same link concurrently.
+     */
+    private void unlink(StorageProductModel link) {
+        entityManager.remove(link);
+        long quantity = link.getQuantity() == null ? 0 : link.getQuantity();
+        double value = link.getValue() == null ? 0 : link.getValue();
+        incrementTotals(link.getStorageId(), -quantity, -value);
+    }
+
+    private void incrementTotals(Long storageId, long quantity, double value) {
+        entityManager.createQuery(INCREMENT_TOTALS)
+            .setParameter("quantity", quantity)
+            .setParameter("value", value)
+            .setParameter("storageId", storageId)
+            .executeUpdate();
     }
-}
\ No newline at end of file
+}
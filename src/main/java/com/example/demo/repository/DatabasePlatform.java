@@ -0,0 +1,42 @@
+package com.example.demo.repository;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DatabasePlatform {
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean mySql;
+
+    public DatabasePlatform(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isMySql() {
+        Boolean result = mySql;
+        if (result == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                JdbcUtils.commonDatabaseName(connection.getMetaData().getDatabaseProductName()));
+            result = product != null && (product.contains("MySQL") || product.contains("MariaDB"));
+            mySql = result;
+        }
+        return result;
+    }
+
+    // Hibernate stores UUID columns as BINARY(16) on MySQL and as a native UUID elsewhere.
+    public Object bindUuid(UUID uuid) {
+        if (uuid == null || !isMySql()) {
+            return uuid;
+        }
+        return ByteBuffer.allocate(16)
+            .putLong(uuid.getMostSignificantBits())
+            .putLong(uuid.getLeastSignificantBits())
+            .array();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.demo.repository;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Maintains monthly RANGE partitions on MySQL log tables that have already been partitioned as
+ * {@code PARTITION BY RANGE (TO_DAYS(timestamp))} with a trailing {@code pmax} partition.
+ * Partition names encode the first day of the month they hold, e.g. {@code p202601}.
+ */
+@Repository
+public class LogPartitionRepository {
+
+    private static final String MAX_PARTITION = "pmax";
+    private static final Pattern TABLE_NAME = Pattern.compile("[a-z_]+");
+    private static final Pattern MONTH_PARTITION = Pattern.compile("p\\d{6}");
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    public LogPartitionRepository(JdbcTemplate jdbcTemplate, DatabasePlatform databasePlatform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+    }
+
+    public boolean isPartitioned(String table) {
+        if (!databasePlatform.isMySql()) {
+            return false;
+        }
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() "
+          + "AND TABLE_NAME = ? AND PARTITION_NAME = ?", Integer.class, table, MAX_PARTITION);
+        return count != null && count > 0;
+    }
+
+    public List<LocalDate> findMonthlyPartitions(String table) {
+        return jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() "
+              + "AND TABLE_NAME = ? ORDER BY PARTITION_ORDINAL_POSITION", String.class, table)
+            .stream()
+            .filter(name -> name != null && MONTH_PARTITION.matcher(name).matches())
+            .map(name -> LocalDate.of(Integer.parseInt(name.substring(1, 5)), Integer.parseInt(name.substring(5, 7)), 1))
+            .toList();
+    }
+
+    public void addMonthlyPartition(String table, LocalDate month) {
+        LocalDate start = month.withDayOfMonth(1);
+        jdbcTemplate.execute("ALTER TABLE " + checkedTable(table) + " REORGANIZE PARTITION " + MAX_PARTITION + " INTO ("
+            + "PARTITION " + start.format(PARTITION_FORMAT) + " VALUES LESS THAN (TO_DAYS('" + start.plusMonths(1) + "')), "
+            + "PARTITION " + MAX_PARTITION + " VALUES LESS THAN MAXVALUE)");
+    }
+
+    public void dropMonthlyPartitions(String table, List<LocalDate> months) {
+        if (months.isEmpty()) {
+            return;
+        }
+        String names = String.join(", ", months.stream().map(month -> month.format(PARTITION_FORMAT)).toList());
+        jdbcTemplate.execute("ALTER TABLE " + checkedTable(table) + " DROP PARTITION " + names);
+    }
+
+    private String checkedTable(String table) {
+        if (!TABLE_NAME.matcher(table).matches()) {
+            throw new IllegalArgumentException("Invalid table name: " + table);
+        }
+        return table;
+    }
+}
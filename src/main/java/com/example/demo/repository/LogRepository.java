@@ -1,14 +1,58 @@
 package com.example.demo.repository;
 
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.example.demo.enums.LogPermissionEnum;
 import com.example.demo.models.LogModel;
 
+import jakarta.persistence.QueryHint;
+
 public interface LogRepository extends JpaRepository<LogModel, Long> {
 
     List<LogModel> findAllByStoreIdAndLogPermission(UUID storeId, LogPermissionEnum logPermission);
+
+    @Query("SELECT l FROM LogModel l WHERE l.storeId = :storeId AND l.logPermission = :logPermission "
+         + "ORDER BY l.timestamp DESC, l.id DESC")
+    List<LogModel> findFirstPage(@Param("storeId") UUID storeId,
+                                 @Param("logPermission") LogPermissionEnum logPermission,
+                                 Limit limit);
+
+    @Query("SELECT l FROM LogModel l WHERE l.storeId = :storeId AND l.logPermission = :logPermission "
+         + "AND (l.timestamp < :timestamp OR (l.timestamp = :timestamp AND l.id < :id)) "
+         + "ORDER BY l.timestamp DESC, l.id DESC")
+    List<LogModel> findPageBefore(@Param("storeId") UUID storeId,
+                                  @Param("logPermission") LogPermissionEnum logPermission,
+                                  @Param("timestamp") Date timestamp,
+                                  @Param("id") Long id,
+                                  Limit limit);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT l FROM LogModel l WHERE l.storeId = :storeId AND l.logPermission = :logPermission "
+         + "ORDER BY l.timestamp DESC, l.id DESC")
+    Stream<LogModel> streamAll(@Param("storeId") UUID storeId,
+                               @Param("logPermission") LogPermissionEnum logPermission);
+
+    @Query("SELECT MIN(l.timestamp) FROM LogModel l")
+    Date findOldestTimestamp();
+
+    @Query("SELECT MIN(l.timestamp) FROM LogModel l WHERE l.timestamp >= :from")
+    Date findOldestTimestampFrom(@Param("from") Date from);
+
+    @Modifying
+    @Query("DELETE FROM LogModel l WHERE l.timestamp >= :from AND l.timestamp < :to")
+    int deleteByTimestampRange(@Param("from") Date from, @Param("to") Date to);
 }
@@ -0,0 +1,24 @@
+package com.example.demo.repository;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.demo.models.LogRollupModel;
+
+public interface LogRollupRepository extends JpaRepository<LogRollupModel, Long> {
+
+    @Query("SELECT MAX(r.bucketDay) FROM LogRollupModel r")
+    LocalDate findLastRolledUpDay();
+
+    @Modifying
+    @Query(value = "INSERT INTO log_daily_rollups (store_id, log_type, bucket_day, log_count) "
+                 + "SELECT store_id, log_type, :day, COUNT(*) FROM logs "
+                 + "WHERE timestamp >= :from AND timestamp < :to GROUP BY store_id, log_type",
+           nativeQuery = true)
+    int rollupDay(@Param("day") LocalDate day, @Param("from") Date from, @Param("to") Date to);
+}
@@ -0,0 +1,71 @@
+package com.example.demo.repository;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repairs audit rows written before the timestamp column was populated. Such rows are invisible to
+ * keyset paging and to the day-bucketed retention job, so they are given a fixed timestamp and the
+ * column is then made NOT NULL.
+ */
+@Repository
+public class LogTimestampRepository {
+
+    private static final Pattern TABLE_NAME = Pattern.compile("[a-z_]+");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    public LogTimestampRepository(JdbcTemplate jdbcTemplate, DatabasePlatform databasePlatform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+    }
+
+    /**
+     * Sets {@code timestamp} on rows where it is NULL, walking the id range in chunks so no single
+     * transaction touches more than {@code batchSize} ids. Returns the number of rows updated.
+     */
+    public long backfillNullTimestamps(String table, Date timestamp, int batchSize) {
+        String checked = checkedTable(table);
+        Map<String, Object> range = jdbcTemplate.queryForMap(
+            "SELECT MIN(id) AS low, MAX(id) AS high FROM " + checked + " WHERE timestamp IS NULL");
+        Number low = (Number) range.get("low");
+        Number high = (Number) range.get("high");
+        if (low == null || high == null) {
+            return 0;
+        }
+        long updated = 0;
+        for (long from = low.longValue(); from <= high.longValue(); from += batchSize) {
+            updated += jdbcTemplate.update("UPDATE " + checked + " SET timestamp = ? WHERE timestamp IS NULL AND id >= ? AND id < ?",
+                new Timestamp(timestamp.getTime()), from, from + batchSize);
+        }
+        return updated;
+    }
+
+    public boolean isTimestampNullable(String table) {
+        String schema = databasePlatform.isMySql() ? "DATABASE()" : "CURRENT_SCHEMA";
+        String nullable = jdbcTemplate.queryForObject(
+            "SELECT IS_NULLABLE FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = " + schema
+          + " AND UPPER(TABLE_NAME) = UPPER(?) AND UPPER(COLUMN_NAME) = 'TIMESTAMP'", String.class, checkedTable(table));
+        return "YES".equalsIgnoreCase(nullable);
+    }
+
+    public void requireTimestamp(String table) {
+        String checked = checkedTable(table);
+        jdbcTemplate.execute(databasePlatform.isMySql()
+            ? "ALTER TABLE " + checked + " MODIFY COLUMN timestamp DATETIME(6) NOT NULL"
+            : "ALTER TABLE " + checked + " ALTER COLUMN timestamp SET NOT NULL");
+    }
+
+    private String checkedTable(String table) {
+        if (!TABLE_NAME.matcher(table).matches()) {
+            throw new IllegalArgumentException("Invalid table name: " + table);
+        }
+        return table;
+    }
+}
@@ -1,9 +1,23 @@
 package com.example.demo.repository;
 
+import java.util.Date;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.demo.models.ProductLogModel;
 
 public interface ProductLogRepository extends JpaRepository<ProductLogModel, Long>{
-    
+
+    @Query("SELECT MIN(l.timestamp) FROM ProductLogModel l")
+    Date findOldestTimestamp();
+
+    @Query("SELECT MIN(l.timestamp) FROM ProductLogModel l WHERE l.timestamp >= :from")
+    Date findOldestTimestampFrom(@Param("from") Date from);
+
+    @Modifying
+    @Query("DELETE FROM ProductLogModel l WHERE l.timestamp >= :from AND l.timestamp < :to")
+    int deleteByTimestampRange(@Param("from") Date from, @Param("to") Date to);
 }
@@ -0,0 +1,24 @@
+package com.example.demo.repository;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.demo.models.ProductLogRollupModel;
+
+public interface ProductLogRollupRepository extends JpaRepository<ProductLogRollupModel, Long> {
+
+    @Query("SELECT MAX(r.bucketDay) FROM ProductLogRollupModel r")
+    LocalDate findLastRolledUpDay();
+
+    @Modifying
+    @Query(value = "INSERT INTO product_log_daily_rollups (product_id, log_type, bucket_day, log_count) "
+                 + "SELECT product_id, log_type, :day, COUNT(*) FROM product_logs "
+                 + "WHERE timestamp >= :from AND timestamp < :to GROUP BY product_id, log_type",
+           nativeQuery = true)
+    int rollupDay(@Param("day") LocalDate day, @Param("from") Date from, @Param("to") Date to);
+}
@@ -0,0 +1,71 @@
+package com.example.demo.repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public class ProductReadCountRepository {
+
+    private static final String MYSQL_UPSERT =
+        "INSERT INTO product_read_counts (product_id, minute_bucket, read_count) VALUES (?, ?, ?) "
+      + "ON DUPLICATE KEY UPDATE read_count = read_count + VALUES(read_count)";
+    private static final String UPDATE =
+        "UPDATE product_read_counts SET read_count = read_count + ? WHERE product_id = ? AND minute_bucket = ?";
+    private static final String INSERT =
+        "INSERT INTO product_read_counts (product_id, minute_bucket, read_count) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    public ProductReadCountRepository(JdbcTemplate jdbcTemplate, DatabasePlatform databasePlatform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+    }
+
+    @Transactional
+    public void addCounts(List<ReadCount> counts) {
+        if (counts.isEmpty()) {
+            return;
+        }
+        if (databasePlatform.isMySql()) {
+            jdbcTemplate.batchUpdate(MYSQL_UPSERT, counts, counts.size(), (ps, count) -> {
+                ps.setObject(1, databasePlatform.bindUuid(count.productId()));
+                ps.setTimestamp(2, new Timestamp(count.minuteBucket()));
+                ps.setLong(3, count.reads());
+            });
+            return;
+        }
+
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE, counts, counts.size(), (ps, count) -> {
+            ps.setLong(1, count.reads());
+            ps.setObject(2, databasePlatform.bindUuid(count.productId()));
+            ps.setTimestamp(3, new Timestamp(count.minuteBucket()));
+        });
+        List<ReadCount> missing = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : updated) {
+            for (int rows : batch) {
+                if (rows == 0) {
+                    missing.add(counts.get(index));
+                }
+                index++;
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, missing, missing.size(), (ps, count) -> {
+                ps.setObject(1, databasePlatform.bindUuid(count.productId()));
+                ps.setTimestamp(2, new Timestamp(count.minuteBucket()));
+                ps.setLong(3, count.reads());
+            });
+        }
+    }
+
+    public record ReadCount(UUID productId, long minuteBucket, long reads) {
+    }
+}
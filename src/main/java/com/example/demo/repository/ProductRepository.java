@@ -1,12 +1,43 @@
 package com.example.demo.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.example.demo.dto.ProductStockResponse;
+import com.example.demo.dto.ResourceVersion;
 import com.example.demo.models.ProductModel;
 
 public interface ProductRepository extends JpaRepository<ProductModel, UUID> {
     Optional<ProductModel> findByProductId(UUID productId);
+
+    List<ProductModel> findAllByProductIdIn(Collection<UUID> productIds);
+
+    @Query("SELECT new com.example.demo.dto.ProductStockResponse(p.productId, p.quantity, p.version) "
+         + "FROM ProductModel p WHERE p.productId = :productId")
+    Optional<ProductStockResponse> findStockByProductId(@Param("productId") UUID productId);
+
+    @Query("SELECT p.price FROM ProductModel p WHERE p.productId = :productId")
+    Optional<Double> findPriceByProductId(@Param("productId") UUID productId);
+
+    @Query("SELECT new com.example.demo.dto.ResourceVersion(p.version, p.updatedAt) "
+         + "FROM ProductModel p WHERE p.productId = :productId")
+    Optional<ResourceVersion> findVersionByProductId(@Param("productId") UUID productId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProductModel p SET p.quantity = p.quantity + :delta, p.version = p.version + 1, p.updatedAt = :updatedAt "
+         + "WHERE p.productId = :productId AND p.quantity + :delta >= 0")
+    int adjustQuantity(@Param("productId") UUID productId, @Param("delta") long delta, @Param("updatedAt") String updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProductModel p SET p.quantity = p.quantity + :delta, p.version = p.version + 1, p.updatedAt = :updatedAt "
+         + "WHERE p.productId = :productId AND p.version = :version AND p.quantity + :delta >= 0")
+    int adjustQuantityIfVersion(@Param("productId") UUID productId, @Param("delta") long delta,
+                                @Param("version") long version, @Param("updatedAt") String updatedAt);
 }
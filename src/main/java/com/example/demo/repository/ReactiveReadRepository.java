@@ -0,0 +1,225 @@
+package com.example.demo.repository;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.dto.ShopSummaryRow;
+import com.example.demo.enums.LogPermissionEnum;
+import com.example.demo.models.LogModel;
+import com.example.demo.models.ProductModel;
+import com.example.demo.models.ShopModel;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads over R2DBC against the tables JPA maintains. The pool is private to this
+ * repository rather than a {@code ConnectionFactory} bean, because such a bean would switch Spring
+ * Boot's JDBC data source off. Without an explicit {@code reactive-reads.url} the connection is
+ * derived from the JDBC one, so it follows docker compose and the test database.
+ */
+@Repository
+public class ReactiveReadRepository {
+
+    private static final String SHOP_SUMMARY_SELECT =
+        "SELECT id, name, address, phone, status, responsible_id, opening_hours, closing_hours FROM shops WHERE 1 = 1";
+
+    private final ConnectionPool pool;
+    private final DatabaseClient client;
+    private final boolean mySql;
+
+    public ReactiveReadRepository(JdbcConnectionDetails jdbcConnectionDetails,
+                                  @Value("${reactive-reads.url:}") String url,
+                                  @Value("${reactive-reads.pool.max-size:20}") int maxSize,
+                                  @Value("${reactive-reads.pool.max-idle-seconds:300}") long maxIdleSeconds) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Reactive read pool size must be positive");
+        }
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions
+            .parse(url == null || url.isBlank() ? toR2dbcUrl(jdbcConnectionDetails.getJdbcUrl()) : url)
+            .mutate();
+        if (jdbcConnectionDetails.getUsername() != null) {
+            options.option(ConnectionFactoryOptions.USER, jdbcConnectionDetails.getUsername());
+        }
+        if (jdbcConnectionDetails.getPassword() != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, jdbcConnectionDetails.getPassword());
+        }
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+            .maxSize(maxSize)
+            .maxIdleTime(Duration.ofSeconds(maxIdleSeconds))
+            .build());
+        this.client = DatabaseClient.create(pool);
+        this.mySql = pool.getMetadata().getName().contains("MySQL");
+    }
+
+    @PreDestroy
+    public void close() {
+        pool.dispose();
+    }
+
+    /**
+     * Maps the JDBC URLs this application runs with to their R2DBC equivalent. In-memory H2 keeps
+     * the database name so both drivers see the same tables.
+     */
+    static String toR2dbcUrl(String jdbcUrl) {
+        if (jdbcUrl != null && jdbcUrl.startsWith("jdbc:mysql:")) {
+            return "r2dbc:mysql:" + jdbcUrl.substring("jdbc:mysql:".length());
+        }
+        if (jdbcUrl != null && jdbcUrl.startsWith("jdbc:h2:mem:")) {
+            String name = jdbcUrl.substring("jdbc:h2:mem:".length());
+            int options = name.indexOf(';');
+            return "r2dbc:h2:mem:///" + (options < 0 ? name : name.substring(0, options));
+        }
+        throw new IllegalStateException("Cannot derive an R2DBC URL from " + jdbcUrl + "; set reactive-reads.url");
+    }
+
+    public Flux<ShopSummaryRow> findShopSummaries(Boolean active, UUID responsibleId, UUID afterId, int limit) {
+        StringBuilder sql = new StringBuilder(SHOP_SUMMARY_SELECT);
+        if (active != null) {
+            sql.append(" AND status = :active");
+        }
+        if (responsibleId != null) {
+            sql.append(" AND responsible_id = :responsibleId");
+        }
+        if (afterId != null) {
+            sql.append(" AND id > :afterId");
+        }
+        sql.append(" ORDER BY id");
+        if (limit > 0) {
+            sql.append(" LIMIT ").append(limit);
+        }
+        DatabaseClient.GenericExecuteSpec spec = client.sql(sql.toString());
+        if (active != null) {
+            spec = spec.bind("active", active);
+        }
+        if (responsibleId != null) {
+            spec = spec.bind("responsibleId", bindUuid(responsibleId));
+        }
+        if (afterId != null) {
+            spec = spec.bind("afterId", bindUuid(afterId));
+        }
+        return spec.map(row -> new ShopSummaryRow(uuid(row, "id"), row.get("name", String.class),
+                row.get("address", String.class), row.get("phone", String.class), row.get("status", Boolean.class),
+                uuid(row, "responsible_id"), date(row, "opening_hours"), date(row, "closing_hours")))
+            .all();
+    }
+
+    public Mono<ShopModel> findShopById(UUID shopId) {
+        return client.sql("SELECT id, name, cnpj, address, phone, email, description, is_active, responsible_id, "
+                + "created_at, updated_at, status, image_url, logo_url, banner_url, opening_hours, closing_hours, "
+                + "version FROM shops WHERE id = :id")
+            .bind("id", bindUuid(shopId))
+            .map(row -> {
+                ShopModel shop = new ShopModel();
+                shop.setId(uuid(row, "id"));
+                shop.setName(row.get("name", String.class));
+                shop.setCnpj(row.get("cnpj", String.class));
+                shop.setAddress(row.get("address", String.class));
+                shop.setPhone(row.get("phone", String.class));
+                shop.setEmail(row.get("email", String.class));
+                shop.setDescription(row.get("description", String.class));
+                shop.setActive(Boolean.TRUE.equals(row.get("is_active", Boolean.class)));
+                shop.setResponsibleId(uuid(row, "responsible_id"));
+                shop.setCreatedAt(row.get("created_at", String.class));
+                shop.setUpdatedAt(row.get("updated_at", String.class));
+                shop.setStatus(row.get("status", Boolean.class));
+                shop.setImageUrl(row.get("image_url", String.class));
+                shop.setLogoUrl(row.get("logo_url", String.class));
+                shop.setBannerUrl(row.get("banner_url", String.class));
+                shop.setOpeningHours(date(row, "opening_hours"));
+                shop.setClosingHours(date(row, "closing_hours"));
+                shop.setVersion(row.get("version", Long.class));
+                return shop;
+            })
+            .one();
+    }
+
+    public Flux<Long> findStorageIdsByShopId(UUID shopId) {
+        return client.sql("SELECT storage_id FROM shop_storages WHERE shop_id = :shopId")
+            .bind("shopId", bindUuid(shopId))
+            .map(row -> row.get("storage_id", Long.class))
+            .all();
+    }
+
+    public Mono<ProductModel> findProductByProductId(UUID productId) {
+        return client.sql("SELECT id, product_id, quantity, price, is_active, created_at, updated_at, version "
+                + "FROM products WHERE product_id = :productId")
+            .bind("productId", bindUuid(productId))
+            .map(row -> {
+                ProductModel product = new ProductModel();
+                product.setId(uuid(row, "id"));
+                product.setProductId(uuid(row, "product_id"));
+                product.setQuantity(row.get("quantity", Long.class));
+                product.setPrice(row.get("price", Double.class));
+                product.setIsActive(row.get("is_active", Boolean.class));
+                product.setCreatedAt(row.get("created_at", String.class));
+                product.setUpdatedAt(row.get("updated_at", String.class));
+                product.setVersion(row.get("version", Long.class));
+                return product;
+            })
+            .one();
+    }
+
+    public Flux<LogModel> findLogs(UUID storeId, LogPermissionEnum logPermission) {
+        return client.sql("SELECT id, message, log_permission, timestamp, store_id, details, log_owner_id, log_type "
+                + "FROM logs WHERE store_id = :storeId AND log_permission = :logPermission "
+                + "ORDER BY timestamp DESC, id DESC")
+            .bind("storeId", bindUuid(storeId))
+            .bind("logPermission", logPermission.ordinal())
+            .map(row -> {
+                LogModel log = new LogModel();
+                log.setId(row.get("id", Long.class));
+                log.setMessage(row.get("message", String.class));
+                Number permission = (Number) row.get("log_permission");
+                log.setLogPermission(permission == null ? null : LogPermissionEnum.values()[permission.intValue()]);
+                log.setTimestamp(date(row, "timestamp"));
+                log.setStoreId(uuid(row, "store_id"));
+                log.setDetails(row.get("details", String.class));
+                log.setLogOwnerId(uuid(row, "log_owner_id"));
+                log.setLogType(row.get("log_type", String.class));
+                return log;
+            })
+            .all();
+    }
+
+    // Same layout as DatabasePlatform#bindUuid: BINARY(16) on MySQL, a native UUID elsewhere.
+    private Object bindUuid(UUID uuid) {
+        if (!mySql) {
+            return uuid;
+        }
+        return ByteBuffer.allocate(16)
+            .putLong(uuid.getMostSignificantBits())
+            .putLong(uuid.getLeastSignificantBits())
+            .array();
+    }
+
+    private static UUID uuid(Readable row, String column) {
+        Object value = row.get(column);
+        if (value instanceof UUID uuid) {
+            return uuid;
+        }
+        ByteBuffer bytes = value instanceof byte[] array ? ByteBuffer.wrap(array)
+            : value instanceof ByteBuffer buffer ? buffer.duplicate() : null;
+        return bytes == null ? null : new UUID(bytes.getLong(), bytes.getLong());
+    }
+
+    private static Date date(Readable row, String column) {
+        LocalDateTime value = row.get(column, LocalDateTime.class);
+        return value == null ? null : Date.from(value.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -1,10 +1,57 @@
 package com.example.demo.repository;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.example.demo.dto.ResourceVersion;
+import com.example.demo.dto.ShopAccess;
+import com.example.demo.dto.ShopSummary;
 import com.example.demo.models.ShopModel;
 
+import jakarta.persistence.QueryHint;
+
 public interface ShopRepository extends JpaRepository<ShopModel,UUID> {
-    
+
+    String SUMMARY_SELECT = "SELECT s.id AS id, s.name AS name, s.address AS address, s.phone AS phone, "
+        + "s.status AS status, s.responsibleId AS responsibleId, s.openingHours AS openingHours, "
+        + "s.closingHours AS closingHours FROM ShopModel s "
+        + "WHERE (:active IS NULL OR s.status = :active) "
+        + "AND (:responsibleId IS NULL OR s.responsibleId = :responsibleId) ";
+
+    @Query("SELECT new com.example.demo.dto.ResourceVersion(s.version, s.updatedAt) FROM ShopModel s WHERE s.id = :id")
+    Optional<ResourceVersion> findVersionById(@Param("id") UUID id);
+
+    @Query("SELECT new com.example.demo.dto.ShopAccess(s.responsibleId, s.status) FROM ShopModel s WHERE s.id = :id")
+    Optional<ShopAccess> findAccessById(@Param("id") UUID id);
+
+    @EntityGraph(attributePaths = "storages")
+    Optional<ShopModel> findWithStoragesById(UUID id);
+
+    @Query(SUMMARY_SELECT + "ORDER BY s.id")
+    List<ShopSummary> findSummaries(@Param("active") Boolean active,
+                                    @Param("responsibleId") UUID responsibleId,
+                                    Limit limit);
+
+    @Query(SUMMARY_SELECT + "AND s.id > :afterId ORDER BY s.id")
+    List<ShopSummary> findSummariesAfter(@Param("active") Boolean active,
+                                         @Param("responsibleId") UUID responsibleId,
+                                         @Param("afterId") UUID afterId,
+                                         Limit limit);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SUMMARY_SELECT + "ORDER BY s.id")
+    Stream<ShopSummary> streamSummaries(@Param("active") Boolean active,
+                                        @Param("responsibleId") UUID responsibleId);
 }
@@ -0,0 +1,118 @@
+package com.example.demo.repository;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC batches over storage_products for multi-product stock moves. Each method issues one batch
+ * regardless of how many products are moved.
+ */
+@Repository
+public class StorageProductBatchRepository {
+
+    private static final String WITHDRAW =
+        "UPDATE storage_products SET quantity = COALESCE(quantity, 0) - ?, stock_value = COALESCE(stock_value, 0) - ? "
+      + "WHERE storage_id = ? AND product_id = ? AND COALESCE(quantity, 0) >= ?";
+    private static final String DELETE_LINK =
+        "DELETE FROM storage_products WHERE storage_id = ? AND product_id = ? AND COALESCE(quantity, 0) <= 0";
+    private static final String DEPOSIT =
+        "UPDATE storage_products SET quantity = COALESCE(quantity, 0) + ?, stock_value = COALESCE(stock_value, 0) + ? "
+      + "WHERE storage_id = ? AND product_id = ?";
+    private static final String INSERT_LINK =
+        "INSERT INTO storage_products (storage_id, product_id, quantity, stock_value) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    public StorageProductBatchRepository(JdbcTemplate jdbcTemplate, DatabasePlatform databasePlatform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+    }
+
+    /**
+     * Takes the moved stock off the storage's links, refusing to go below zero. Returns the number of
+     * links updated, which is less than the number of moves if stock changed concurrently.
+     */
+    public int withdraw(Long storageId, List<StockMove> moves) {
+        return sum(jdbcTemplate.batchUpdate(WITHDRAW, moves, moves.size(), (ps, move) -> {
+            ps.setLong(1, move.quantity());
+            ps.setDouble(2, move.value());
+            ps.setLong(3, storageId);
+            ps.setObject(4, databasePlatform.bindUuid(move.productId()));
+            ps.setLong(5, move.quantity());
+        }));
+    }
+
+    /**
+     * Deletes the storage's links to the given products that hold no stock; a link that was
+     * topped up in the meantime is kept.
+     */
+    public int deleteLinks(Long storageId, List<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+        return sum(jdbcTemplate.batchUpdate(DELETE_LINK, productIds, productIds.size(), (ps, productId) -> {
+            ps.setLong(1, storageId);
+            ps.setObject(2, databasePlatform.bindUuid(productId));
+        }));
+    }
+
+    /**
+     * Adds the moved stock to the storage's existing links and returns the moves whose link was not
+     * there, for example because it was deleted after the caller looked it up. Drivers that report
+     * {@link Statement#SUCCESS_NO_INFO} are taken at their word that the row was updated.
+     */
+    public List<StockMove> deposit(Long storageId, List<StockMove> moves) {
+        if (moves.isEmpty()) {
+            return List.of();
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(DEPOSIT, moves, moves.size(), (ps, move) -> {
+            ps.setLong(1, move.quantity());
+            ps.setDouble(2, move.value());
+            ps.setLong(3, storageId);
+            ps.setObject(4, databasePlatform.bindUuid(move.productId()));
+        });
+        List<StockMove> missing = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    missing.add(moves.get(index));
+                }
+                index++;
+            }
+        }
+        return missing;
+    }
+
+    public int insertLinks(Long storageId, List<StockMove> moves) {
+        if (moves.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_LINK, moves, moves.size(), (ps, move) -> {
+            ps.setLong(1, storageId);
+            ps.setObject(2, databasePlatform.bindUuid(move.productId()));
+            ps.setLong(3, move.quantity());
+            ps.setDouble(4, move.value());
+        });
+        return moves.size();
+    }
+
+    private int sum(int[][] counts) {
+        int total = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                total += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+            }
+        }
+        return total;
+    }
+
+    public record StockMove(UUID productId, long quantity, double value) {
+    }
+}
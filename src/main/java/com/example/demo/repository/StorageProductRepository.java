@@ -0,0 +1,54 @@
+package com.example.demo.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.demo.models.StorageProductId;
+import com.example.demo.models.StorageProductModel;
+
+import jakarta.persistence.LockModeType;
+
+public interface StorageProductRepository extends JpaRepository<StorageProductModel, StorageProductId> {
+
+    Page<StorageProductModel> findByStorageId(Long storageId, Pageable pageable);
+
+    List<StorageProductModel> findAllByStorageIdAndProductIdIn(Long storageId, Collection<UUID> productIds);
+
+    /**
+     * Same as {@link #findAllByStorageIdAndProductIdIn} but row-locks the links until the transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT sp FROM StorageProductModel sp WHERE sp.storageId = :storageId AND sp.productId IN :productIds")
+    List<StorageProductModel> lockAllByStorageIdAndProductIdIn(@Param("storageId") Long storageId,
+                                                               @Param("productIds") Collection<UUID> productIds);
+
+    List<StorageProductModel> findAllByProductId(UUID productId);
+
+    /**
+     * Row-locks every storage link of the product with the given public product id, in storage
+     * order, until the transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT sp FROM StorageProductModel sp, ProductModel p "
+         + "WHERE sp.productId = p.id AND p.productId = :productId ORDER BY sp.storageId")
+    List<StorageProductModel> lockAllForProduct(@Param("productId") UUID productId);
+
+    /**
+     * The first {@code limit} entries of each storage by product id, in one statement for all storages.
+     */
+    @Query(value = "SELECT storage_id, product_id, quantity, stock_value FROM ("
+                 + "SELECT sp.storage_id, sp.product_id, sp.quantity, sp.stock_value, "
+                 + "ROW_NUMBER() OVER (PARTITION BY sp.storage_id ORDER BY sp.product_id) AS row_rank "
+                 + "FROM storage_products sp WHERE sp.storage_id IN (:storageIds)) ranked "
+                 + "WHERE row_rank <= :limit ORDER BY storage_id, product_id",
+           nativeQuery = true)
+    List<StorageProductModel> findFirstByStorageIdIn(@Param("storageIds") Collection<Long> storageIds, @Param("limit") int limit);
+}
@@ -0,0 +1,93 @@
+package com.example.demo.repository;
+
+import java.sql.Statement;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class StorageReconciliationRepository {
+
+    private static final String FIND_ID_RANGE = "SELECT MIN(id), MAX(id) FROM storage";
+
+    // Recorded totals and the actual stock are read by one statement, so both sides come from the same snapshot.
+    // Stock is valued at the products' current prices rather than the stock_value kept on each link, so a
+    // link that missed a price change cannot carry its stale value into the corrected totals.
+    private static final String AGGREGATE_RANGE =
+        "SELECT s.id, COALESCE(s.total_products_quantity, 0), COALESCE(s.total_products_value, 0), "
+      + "COALESCE(a.quantity, 0), COALESCE(a.stock_value, 0) "
+      + "FROM storage s LEFT JOIN ("
+      + "SELECT sp.storage_id, SUM(sp.quantity) AS quantity, SUM(COALESCE(sp.quantity, 0) * COALESCE(p.price, 0)) AS stock_value "
+      + "FROM storage_products sp JOIN products p ON p.id = sp.product_id "
+      + "WHERE sp.storage_id BETWEEN ? AND ? GROUP BY sp.storage_id) a ON a.storage_id = s.id "
+      + "WHERE s.id BETWEEN ? AND ?";
+
+    // Only overwrite totals that still hold the values the aggregation saw; a concurrent increment wins.
+    private static final String APPLY_CORRECTION =
+        "UPDATE storage SET total_products_quantity = ?, total_products_value = ? "
+      + "WHERE id = ? AND COALESCE(total_products_quantity, 0) = ? AND COALESCE(total_products_value, 0) = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StorageReconciliationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<IdRange> findIdRange() {
+        return Optional.ofNullable(jdbcTemplate.query(FIND_ID_RANGE, rs -> {
+            if (!rs.next()) {
+                return null;
+            }
+            long min = rs.getLong(1);
+            return rs.wasNull() ? null : new IdRange(min, rs.getLong(2));
+        }));
+    }
+
+    public void streamTotals(long fromId, long toId, int fetchSize, Consumer<StorageTotals> consumer) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(AGGREGATE_RANGE);
+            statement.setFetchSize(fetchSize);
+            statement.setLong(1, fromId);
+            statement.setLong(2, toId);
+            statement.setLong(3, fromId);
+            statement.setLong(4, toId);
+            return statement;
+        }, rs -> {
+            consumer.accept(new StorageTotals(rs.getLong(1), rs.getLong(2), rs.getDouble(3), rs.getLong(4), rs.getDouble(5)));
+        });
+    }
+
+    /**
+     * Returns how many corrections were applied; the rest lost a race with a concurrent update.
+     */
+    public int applyCorrections(List<StorageTotals> corrections) {
+        if (corrections.isEmpty()) {
+            return 0;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(APPLY_CORRECTION, corrections, corrections.size(), (ps, totals) -> {
+            ps.setLong(1, totals.actualQuantity());
+            ps.setDouble(2, totals.actualValue());
+            ps.setLong(3, totals.storageId());
+            ps.setLong(4, totals.recordedQuantity());
+            ps.setDouble(5, totals.recordedValue());
+        });
+        int applied = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // Drivers that cannot report per-row counts return SUCCESS_NO_INFO (-2).
+                applied += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+            }
+        }
+        return applied;
+    }
+
+    public record IdRange(long minId, long maxId) {
+    }
+
+    public record StorageTotals(long storageId, long recordedQuantity, double recordedValue,
+                                long actualQuantity, double actualValue) {
+    }
+}
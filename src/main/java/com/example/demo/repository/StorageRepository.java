@@ -1,8 +1,29 @@
 package com.example.demo.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.example.demo.dto.ShopStorage;
+import com.example.demo.dto.StorageTotalsEvent;
 import com.example.demo.models.StorageModel;
 
 public interface StorageRepository extends JpaRepository<StorageModel, Long>, CustomStorageRepository {
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("UPDATE StorageModel s SET s.totalProductsQuantity = COALESCE(s.totalProductsQuantity, 0) + :quantity, "
+         + "s.totalProductsValue = COALESCE(s.totalProductsValue, 0) + :value WHERE s.id = :storageId")
+    int incrementTotals(@Param("storageId") Long storageId, @Param("quantity") long quantity, @Param("value") double value);
+
+    @Query("SELECT new com.example.demo.dto.ShopStorage(s.id, st) FROM ShopModel s JOIN s.storages st WHERE s.id IN :shopIds")
+    List<ShopStorage> findByShopIds(@Param("shopIds") Collection<UUID> shopIds);
+
+    @Query("SELECT new com.example.demo.dto.StorageTotalsEvent(s.id, s.totalProductsQuantity, s.totalProductsValue) "
+         + "FROM StorageModel s WHERE s.id IN :ids")
+    List<StorageTotalsEvent> findTotalsByIdIn(@Param("ids") Collection<Long> ids);
+}
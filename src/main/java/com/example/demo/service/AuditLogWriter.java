@@ -0,0 +1,232 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.enums.AuditOverflowPolicyEnum;
+import com.example.demo.models.LogModel;
+import com.example.demo.models.ProductLogModel;
+import com.example.demo.repository.AuditLogBatchRepository;
+import com.example.demo.util.CustomLogger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Buffers audit records in a bounded queue and writes them from a single background
+ * thread as JDBC batches, flushing whenever a batch fills up or the flush interval elapses.
+ */
+@Component
+public class AuditLogWriter {
+
+    private static final long POLL_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final AuditLogBatchRepository auditLogBatchRepository;
+    private final CustomLogger customLogger;
+    private final BlockingQueue<Object> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long shutdownTimeoutMillis;
+    private final AuditOverflowPolicyEnum overflowPolicy;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AuditLogWriter(AuditLogBatchRepository auditLogBatchRepository, CustomLogger customLogger,
+                          @Value("${audit.log.queue-capacity:10000}") int queueCapacity,
+                          @Value("${audit.log.batch-size:500}") int batchSize,
+                          @Value("${audit.log.flush-interval-ms:200}") long flushIntervalMillis,
+                          @Value("${audit.log.shutdown-timeout-ms:10000}") long shutdownTimeoutMillis,
+                          @Value("${audit.log.overflow-policy:BLOCK}") AuditOverflowPolicyEnum overflowPolicy) {
+        if (queueCapacity <= 0 || batchSize <= 0 || flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Audit log queue capacity, batch size and flush interval must be positive");
+        }
+        this.auditLogBatchRepository = auditLogBatchRepository;
+        this.customLogger = customLogger;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::runWorker, "audit-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Thread current;
+        synchronized (this) {
+            running = false;
+            current = worker;
+        }
+        if (current != null) {
+            try {
+                current.join(shutdownTimeoutMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (current.isAlive()) {
+                // The worker drains the queue before it exits; writing from here as well would race with it.
+                customLogger.logInfo("Audit log writer did not stop within " + shutdownTimeoutMillis + " ms, leaving "
+                    + queue.size() + " queued records to the worker");
+                return;
+            }
+            synchronized (this) {
+                if (worker == current) {
+                    worker = null;
+                }
+            }
+        }
+        List<Object> remaining = new ArrayList<>();
+        while (queue.drainTo(remaining, batchSize) > 0) {
+            flush(remaining);
+            remaining.clear();
+        }
+        customLogger.logInfo("Audit log writer stopped: " + written.get() + " written, "
+            + dropped.get() + " dropped, " + spilled.get() + " spilled, " + failed.get() + " failed");
+    }
+
+    public void enqueue(LogModel log) {
+        offer(log);
+    }
+
+    public void enqueue(ProductLogModel log) {
+        offer(log);
+    }
+
+    private void offer(Object record) {
+        enqueued.incrementAndGet();
+        if (queue.offer(record)) {
+            return;
+        }
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    queue.put(record);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.incrementAndGet();
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(record)) {
+                    if (queue.poll() != null) {
+                        dropped.incrementAndGet();
+                    }
+                }
+            }
+            case SPILL -> {
+                spilled.incrementAndGet();
+                flush(List.of(record));
+            }
+        }
+    }
+
+    private void runWorker() {
+        List<Object> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Object first = queue.poll(Math.min(TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis), POLL_SLICE_NANOS),
+                    TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0 || !running) {
+                        break;
+                    }
+                    Object next = queue.poll(Math.min(remaining, POLL_SLICE_NANOS), TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<Object> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<LogModel> storeLogs = new ArrayList<>();
+        List<ProductLogModel> productLogs = new ArrayList<>();
+        for (Object record : batch) {
+            if (record instanceof LogModel log) {
+                storeLogs.add(log);
+            } else if (record instanceof ProductLogModel log) {
+                productLogs.add(log);
+            }
+        }
+        write(storeLogs, () -> auditLogBatchRepository.insertStoreLogs(storeLogs));
+        write(productLogs, () -> auditLogBatchRepository.insertProductLogs(productLogs));
+    }
+
+    private void write(List<?> records, Runnable insert) {
+        if (records.isEmpty()) {
+            return;
+        }
+        try {
+            insert.run();
+            written.addAndGet(records.size());
+        } catch (Exception e) {
+            failed.addAndGet(records.size());
+            customLogger.logError("Error writing audit log batch of " + records.size() + " records", e);
+        }
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getEnqueuedCount() {
+        return enqueued.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getSpilledCount() {
+        return spilled.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+}
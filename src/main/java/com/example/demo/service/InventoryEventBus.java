@@ -0,0 +1,144 @@
+package com.example.demo.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dto.InventoryEvent;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+/**
+ * In-process fan-out of inventory changes to live subscribers. Each subscriber has its own
+ * pending map keyed by resource, so a slow subscriber holds at most one event per product or
+ * storage: a newer event replaces the undelivered one instead of queueing behind it. Events are
+ * only emitted on downstream demand, and a subscriber whose pending map is full drops events for
+ * new keys rather than growing without bound.
+ */
+@Component
+public class InventoryEventBus {
+
+    private final List<Subscriber<?>> subscribers = new CopyOnWriteArrayList<>();
+    private final int maxPendingPerSubscriber;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong conflated = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public InventoryEventBus(@Value("${inventory.events.max-pending-per-subscriber:1000}") int maxPendingPerSubscriber) {
+        if (maxPendingPerSubscriber <= 0) {
+            throw new IllegalArgumentException("Pending events per subscriber must be positive");
+        }
+        this.maxPendingPerSubscriber = maxPendingPerSubscriber;
+    }
+
+    public <T extends InventoryEvent> Flux<T> subscribe(Class<T> type, Predicate<? super T> filter) {
+        return Flux.create(sink -> {
+            Subscriber<T> subscriber = new Subscriber<>(type, filter, sink);
+            subscribers.add(subscriber);
+            sink.onRequest(requested -> subscriber.drain());
+            sink.onDispose(() -> subscribers.remove(subscriber));
+        });
+    }
+
+    public void publish(InventoryEvent event) {
+        published.incrementAndGet();
+        for (Subscriber<?> subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    public boolean hasSubscribers(Class<? extends InventoryEvent> type) {
+        for (Subscriber<?> subscriber : subscribers) {
+            if (subscriber.type == type) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("subscribers", subscribers.size());
+        result.put("published", published.get());
+        result.put("delivered", delivered.get());
+        result.put("conflated", conflated.get());
+        result.put("dropped", dropped.get());
+        return result;
+    }
+
+    private final class Subscriber<T extends InventoryEvent> {
+
+        private final Class<T> type;
+        private final Predicate<? super T> filter;
+        private final FluxSink<T> sink;
+        private final ConcurrentHashMap<String, InventoryEvent> pending = new ConcurrentHashMap<>();
+        private final ConcurrentLinkedQueue<String> order = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private Subscriber(Class<T> type, Predicate<? super T> filter, FluxSink<T> sink) {
+            this.type = type;
+            this.filter = filter;
+            this.sink = sink;
+        }
+
+        private void offer(InventoryEvent event) {
+            if (!type.isInstance(event) || !filter.test(type.cast(event))) {
+                return;
+            }
+            boolean[] added = {false};
+            pending.compute(event.key(), (key, previous) -> {
+                if (previous != null) {
+                    conflated.incrementAndGet();
+                    return event.supersede(previous);
+                }
+                if (pending.size() >= maxPendingPerSubscriber) {
+                    dropped.incrementAndGet();
+                    return null;
+                }
+                added[0] = true;
+                return event;
+            });
+            if (added[0]) {
+                order.offer(event.key());
+            }
+            drain();
+        }
+
+        /**
+         * Serialized drain: whichever thread wins the counter emits for everybody, and a signal
+         * arriving meanwhile makes it loop once more instead of being lost.
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (sink.requestedFromDownstream() > 0 && !sink.isCancelled()) {
+                    String key = order.poll();
+                    if (key == null) {
+                        break;
+                    }
+                    InventoryEvent event = pending.remove(key);
+                    if (event != null) {
+                        delivered.incrementAndGet();
+                        sink.next(type.cast(event));
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
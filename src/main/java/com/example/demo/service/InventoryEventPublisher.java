@@ -0,0 +1,94 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.demo.dto.InventoryEvent;
+import com.example.demo.dto.ProductChangeEvent;
+import com.example.demo.dto.StorageTotalsEvent;
+import com.example.demo.models.ProductModel;
+import com.example.demo.repository.StorageRepository;
+import com.example.demo.util.CustomLogger;
+
+/**
+ * Collects the changes made by a transaction and hands them to {@link InventoryEventBus} once
+ * it commits, so subscribers never see rolled-back stock. Storage totals are read after commit
+ * with a single query per transaction, and only while someone is subscribed to them.
+ */
+@Component
+public class InventoryEventPublisher {
+
+    private final InventoryEventBus eventBus;
+    private final StorageRepository storageRepository;
+    private final CustomLogger customLogger;
+
+    public InventoryEventPublisher(InventoryEventBus eventBus, StorageRepository storageRepository,
+                                   CustomLogger customLogger) {
+        this.eventBus = eventBus;
+        this.storageRepository = storageRepository;
+        this.customLogger = customLogger;
+    }
+
+    public void productChanged(ProductModel product) {
+        record(changes -> changes.events.add(ProductChangeEvent.of(product)));
+    }
+
+    public void productChanged(ProductChangeEvent event) {
+        record(changes -> changes.events.add(event));
+    }
+
+    public void storageTotalsChanged(Long... storageIds) {
+        record(changes -> Arrays.stream(storageIds).filter(Objects::nonNull).forEach(changes.storageIds::add));
+    }
+
+    private void record(Consumer<PendingChanges> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingChanges changes = new PendingChanges();
+            change.accept(changes);
+            publish(changes);
+            return;
+        }
+        PendingChanges changes = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            PendingChanges created = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(InventoryEventPublisher.this);
+                    if (status == STATUS_COMMITTED) {
+                        publish(created);
+                    }
+                }
+            });
+            changes = created;
+        }
+        change.accept(changes);
+    }
+
+    private void publish(PendingChanges changes) {
+        try {
+            List<InventoryEvent> events = new ArrayList<>(changes.events);
+            if (!changes.storageIds.isEmpty() && eventBus.hasSubscribers(StorageTotalsEvent.class)) {
+                events.addAll(storageRepository.findTotalsByIdIn(changes.storageIds));
+            }
+            events.forEach(eventBus::publish);
+        } catch (RuntimeException e) {
+            customLogger.logError("Failed to publish inventory events", e);
+        }
+    }
+
+    private static final class PendingChanges {
+        private final List<InventoryEvent> events = new ArrayList<>();
+        private final Set<Long> storageIds = new LinkedHashSet<>();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.dto.ShopStorage;
+import com.example.demo.models.ProductModel;
+import com.example.demo.models.ShopModel;
+import com.example.demo.models.StorageModel;
+import com.example.demo.models.StorageProductModel;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.ShopRepository;
+import com.example.demo.repository.StorageProductRepository;
+import com.example.demo.repository.StorageRepository;
+
+/**
+ * Read side of the GraphQL API. Child lookups take every parent id of one level at once and run
+ * a single IN query, so the number of statements grows with query depth, not with fan-out.
+ * Storage products are paged per storage and capped at {@code graphql.storage-products.max-first}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class InventoryGraphService {
+
+    private final ShopRepository shopRepository;
+    private final StorageRepository storageRepository;
+    private final StorageProductRepository storageProductRepository;
+    private final ProductRepository productRepository;
+    private final int maxStorageProducts;
+
+    public InventoryGraphService(ShopRepository shopRepository, StorageRepository storageRepository,
+                                 StorageProductRepository storageProductRepository, ProductRepository productRepository,
+                                 @Value("${graphql.storage-products.max-first:100}") int maxStorageProducts) {
+        if (maxStorageProducts <= 0) {
+            throw new IllegalArgumentException("Maximum storage products per storage must be positive");
+        }
+        this.shopRepository = shopRepository;
+        this.storageRepository = storageRepository;
+        this.storageProductRepository = storageProductRepository;
+        this.productRepository = productRepository;
+        this.maxStorageProducts = maxStorageProducts;
+    }
+
+    public ShopModel getShop(UUID shopId) {
+        return shopRepository.findById(shopId).orElse(null);
+    }
+
+    public List<ShopModel> getShops(Collection<UUID> shopIds) {
+        return shopRepository.findAllById(shopIds);
+    }
+
+    public StorageModel getStorage(Long storageId) {
+        return storageRepository.findById(storageId).orElse(null);
+    }
+
+    public ProductModel getProduct(UUID productId) {
+        return productRepository.findByProductId(productId).orElse(null);
+    }
+
+    public Map<UUID, List<StorageModel>> getStoragesByShop(Collection<UUID> shopIds) {
+        Map<UUID, List<StorageModel>> result = new HashMap<>();
+        for (ShopStorage row : storageRepository.findByShopIds(shopIds)) {
+            result.computeIfAbsent(row.shopId(), id -> new ArrayList<>()).add(row.storage());
+        }
+        return result;
+    }
+
+    /**
+     * Returns at most {@code first} entries per storage. Larger values are capped, zero or less
+     * returns nothing without querying.
+     */
+    public Map<Long, List<StorageProductModel>> getProductsByStorage(Collection<Long> storageIds, int first) {
+        Map<Long, List<StorageProductModel>> result = new HashMap<>();
+        int limit = Math.min(first, maxStorageProducts);
+        if (limit <= 0) {
+            return result;
+        }
+        for (StorageProductModel row : storageProductRepository.findFirstByStorageIdIn(storageIds, limit)) {
+            result.computeIfAbsent(row.getStorageId(), id -> new ArrayList<>()).add(row);
+        }
+        return result;
+    }
+
+    public Map<UUID, ProductModel> getProductsById(Collection<UUID> ids) {
+        Map<UUID, ProductModel> result = new HashMap<>();
+        for (ProductModel product : productRepository.findAllById(ids)) {
+            result.put(product.getId(), product);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.repository.StorageReconciliationRepository;
+import com.example.demo.repository.StorageReconciliationRepository.IdRange;
+import com.example.demo.repository.StorageReconciliationRepository.StorageTotals;
+import com.example.demo.util.CustomLogger;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Recomputes every storage's totals from its storage_products quantities, valued at the linked
+ * products' prices, and corrects the ones that drifted. The storage id space is split into ranges that a fork-join pool aggregates in parallel,
+ * each range with a single streaming GROUP BY query, and corrections are written in batches.
+ */
+@Service
+public class InventoryReconciliationService {
+
+    private final StorageReconciliationRepository reconciliationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CustomLogger customLogger;
+    private final ForkJoinPool pool;
+    private final boolean enabled;
+    private final long rangeSize;
+    private final int batchSize;
+    private final double valueTolerance;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile ReconciliationReport lastReport;
+
+    public InventoryReconciliationService(StorageReconciliationRepository reconciliationRepository,
+                                          PlatformTransactionManager transactionManager, CustomLogger customLogger,
+                                          @Value("${inventory.reconciliation.enabled:true}") boolean enabled,
+                                          @Value("${inventory.reconciliation.parallelism:4}") int parallelism,
+                                          @Value("${inventory.reconciliation.range-size:1000}") long rangeSize,
+                                          @Value("${inventory.reconciliation.batch-size:500}") int batchSize,
+                                          @Value("${inventory.reconciliation.value-tolerance:0.005}") double valueTolerance) {
+        if (parallelism <= 0 || rangeSize <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Reconciliation parallelism, range size and batch size must be positive");
+        }
+        this.reconciliationRepository = reconciliationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.customLogger = customLogger;
+        this.pool = new ForkJoinPool(parallelism);
+        this.enabled = enabled;
+        this.rangeSize = rangeSize;
+        this.batchSize = batchSize;
+        this.valueTolerance = valueTolerance;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Scheduled(cron = "${inventory.reconciliation.cron:0 0 4 * * *}")
+    public void runReconciliation() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            reconcile();
+        } catch (IllegalStateException e) {
+            customLogger.logInfo("Skipping scheduled reconciliation: " + e.getMessage());
+        } catch (Exception e) {
+            customLogger.logError("Error reconciling storage totals", e);
+        }
+    }
+
+    /**
+     * Runs a full reconciliation on the caller's thread plus the fork-join pool. Only one run may be
+     * active at a time; a second caller gets an IllegalStateException.
+     */
+    public ReconciliationReport reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Reconciliation already running");
+        }
+        try {
+            long started = System.nanoTime();
+            Optional<IdRange> range = reconciliationRepository.findIdRange();
+            DriftStats stats = range
+                .map(ids -> pool.invoke(new RangeTask(ids.minId(), ids.maxId())))
+                .orElseGet(DriftStats::new);
+            ReconciliationReport report = stats.toReport(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            lastReport = report;
+            customLogger.logInfo("Storage reconciliation: " + report.storagesScanned() + " scanned, "
+                + report.storagesCorrected() + " corrected, " + report.concurrentSkips() + " skipped, quantity drift "
+                + report.quantityDrift() + ", value drift " + report.valueDrift() + " in " + report.durationMillis() + " ms");
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Optional<ReconciliationReport> getLastReport() {
+        return Optional.ofNullable(lastReport);
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private DriftStats reconcileRange(long fromId, long toId) {
+        DriftStats stats = new DriftStats();
+        stats.ranges = 1;
+        List<StorageTotals> corrections = new ArrayList<>();
+        reconciliationRepository.streamTotals(fromId, toId, batchSize, totals -> {
+            stats.scanned++;
+            long quantityDrift = Math.abs(totals.actualQuantity() - totals.recordedQuantity());
+            double valueDrift = Math.abs(totals.actualValue() - totals.recordedValue());
+            if (quantityDrift == 0 && valueDrift <= valueTolerance) {
+                return;
+            }
+            stats.quantityDrift += quantityDrift;
+            stats.valueDrift += valueDrift;
+            stats.maxQuantityDrift = Math.max(stats.maxQuantityDrift, quantityDrift);
+            corrections.add(totals);
+        });
+
+        for (int i = 0; i < corrections.size(); i += batchSize) {
+            List<StorageTotals> batch = corrections.subList(i, Math.min(i + batchSize, corrections.size()));
+            Integer applied = transactionTemplate.execute(status -> reconciliationRepository.applyCorrections(batch));
+            int appliedCount = applied == null ? 0 : applied;
+            stats.corrected += appliedCount;
+            stats.skipped += batch.size() - appliedCount;
+        }
+        return stats;
+    }
+
+    private final class RangeTask extends RecursiveTask<DriftStats> {
+
+        private final long fromId;
+        private final long toId;
+
+        private RangeTask(long fromId, long toId) {
+            this.fromId = fromId;
+            this.toId = toId;
+        }
+
+        @Override
+        protected DriftStats compute() {
+            if (toId - fromId < rangeSize) {
+                return reconcileRange(fromId, toId);
+            }
+            long middle = fromId + (toId - fromId) / 2;
+            RangeTask left = new RangeTask(fromId, middle);
+            RangeTask right = new RangeTask(middle + 1, toId);
+            left.fork();
+            return right.compute().merge(left.join());
+        }
+    }
+
+    private static final class DriftStats {
+
+        private long ranges;
+        private long scanned;
+        private long corrected;
+        private long skipped;
+        private long quantityDrift;
+        private double valueDrift;
+        private long maxQuantityDrift;
+
+        private DriftStats merge(DriftStats other) {
+            ranges += other.ranges;
+            scanned += other.scanned;
+            corrected += other.corrected;
+            skipped += other.skipped;
+            quantityDrift += other.quantityDrift;
+            valueDrift += other.valueDrift;
+            maxQuantityDrift = Math.max(maxQuantityDrift, other.maxQuantityDrift);
+            return this;
+        }
+
+        private ReconciliationReport toReport(long durationMillis) {
+            return new ReconciliationReport(ranges, scanned, corrected, skipped, quantityDrift, valueDrift,
+                maxQuantityDrift, durationMillis);
+        }
+    }
+
+    public record ReconciliationReport(long ranges, long storagesScanned, long storagesCorrected, long concurrentSkips,
+                                       long quantityDrift, double valueDrift, long maxQuantityDrift, long durationMillis) {
+    }
+}
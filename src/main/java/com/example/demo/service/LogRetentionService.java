@@ -0,0 +1,162 @@
+package com.example.demo.service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.repository.LogPartitionRepository;
+import com.example.demo.repository.LogRepository;
+import com.example.demo.repository.LogRollupRepository;
+import com.example.demo.repository.ProductLogRepository;
+import com.example.demo.repository.ProductLogRollupRepository;
+import com.example.demo.util.CustomLogger;
+
+/**
+ * Rolls detailed audit rows older than the retention window up into per-day counts and then
+ * removes them, either by dropping whole monthly partitions (MySQL, partitioned tables) or by
+ * deleting one day bucket per transaction. Rows left without a timestamp by older versions are
+ * backfilled first so they land in the oldest bucket instead of being kept forever, and days with
+ * no rows are skipped rather than walked one by one.
+ */
+@Service
+public class LogRetentionService {
+
+    private static final String STORE_LOG_TABLE = "logs";
+    private static final String PRODUCT_LOG_TABLE = "product_logs";
+
+    private final LogRepository logRepository;
+    private final ProductLogRepository productLogRepository;
+    private final LogRollupRepository logRollupRepository;
+    private final ProductLogRollupRepository productLogRollupRepository;
+    private final LogPartitionRepository logPartitionRepository;
+    private final LogTimestampBackfill logTimestampBackfill;
+    private final TransactionTemplate transactionTemplate;
+    private final CustomLogger customLogger;
+    private final boolean enabled;
+    private final int detailDays;
+    private final int futurePartitions;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public LogRetentionService(LogRepository logRepository, ProductLogRepository productLogRepository,
+                               LogRollupRepository logRollupRepository, ProductLogRollupRepository productLogRollupRepository,
+                               LogPartitionRepository logPartitionRepository, LogTimestampBackfill logTimestampBackfill,
+                               PlatformTransactionManager transactionManager,
+                               CustomLogger customLogger,
+                               @Value("${logs.retention.enabled:true}") boolean enabled,
+                               @Value("${logs.retention.detail-days:30}") int detailDays,
+                               @Value("${logs.retention.future-partitions:2}") int futurePartitions) {
+        this.logRepository = logRepository;
+        this.productLogRepository = productLogRepository;
+        this.logRollupRepository = logRollupRepository;
+        this.productLogRollupRepository = productLogRollupRepository;
+        this.logPartitionRepository = logPartitionRepository;
+        this.logTimestampBackfill = logTimestampBackfill;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.customLogger = customLogger;
+        this.enabled = enabled;
+        this.detailDays = detailDays;
+        this.futurePartitions = futurePartitions;
+    }
+
+    @Scheduled(cron = "${logs.retention.cron:0 30 3 * * *}")
+    public void runRetention() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<RetentionReport> reports = applyRetention(LocalDate.now(zone));
+            reports.forEach(report -> customLogger.logInfo("Log retention for " + report.table() + ": "
+                + report.daysRolledUp() + " days rolled up, " + report.rowsDeleted() + " rows deleted, "
+                + report.partitionsDropped() + " partitions dropped"));
+        } catch (Exception e) {
+            customLogger.logError("Error applying log retention", e);
+        }
+    }
+
+    public List<RetentionReport> applyRetention(LocalDate today) {
+        LocalDate cutoff = today.minusDays(detailDays);
+        logTimestampBackfill.backfill();
+        RetentionReport storeLogs = applyRetention(STORE_LOG_TABLE, today, cutoff,
+            logRepository::findOldestTimestamp, logRepository::findOldestTimestampFrom, logRollupRepository::findLastRolledUpDay,
+            logRollupRepository::rollupDay, logRepository::deleteByTimestampRange);
+        RetentionReport productLogs = applyRetention(PRODUCT_LOG_TABLE, today, cutoff,
+            productLogRepository::findOldestTimestamp, productLogRepository::findOldestTimestampFrom, productLogRollupRepository::findLastRolledUpDay,
+            productLogRollupRepository::rollupDay, productLogRepository::deleteByTimestampRange);
+        return List.of(storeLogs, productLogs);
+    }
+
+    private RetentionReport applyRetention(String table, LocalDate today, LocalDate cutoff,
+                                           Supplier<Date> oldestTimestamp, Function<Date, Date> oldestTimestampFrom,
+                                           Supplier<LocalDate> lastRolledUpDay,
+                                           DayRollup rollup, BiFunction<Date, Date, Integer> delete) {
+        boolean partitioned = logPartitionRepository.isPartitioned(table);
+        if (partitioned) {
+            ensureFuturePartitions(table, today);
+        }
+
+        Date oldest = oldestTimestamp.get();
+        int daysRolledUp = 0;
+        long rowsDeleted = 0;
+        if (oldest != null) {
+            LocalDate day = oldest.toInstant().atZone(zone).toLocalDate();
+            LocalDate lastRolled = lastRolledUpDay.get();
+            // Partitioned tables keep rolled-up rows until their whole month expires, so resume after the watermark.
+            if (partitioned && lastRolled != null && !lastRolled.isBefore(day)) {
+                day = lastRolled.plusDays(1);
+            }
+            while (day != null && day.isBefore(cutoff)) {
+                Date from = toDate(day);
+                Date to = toDate(day.plusDays(1));
+                LocalDate bucket = day;
+                Integer deleted = transactionTemplate.execute(status -> {
+                    rollup.rollupDay(bucket, from, to);
+                    return partitioned ? 0 : delete.apply(from, to);
+                });
+                daysRolledUp++;
+                rowsDeleted += deleted == null ? 0 : deleted;
+                Date next = oldestTimestampFrom.apply(to);
+                day = next == null ? null : next.toInstant().atZone(zone).toLocalDate();
+            }
+        }
+
+        int partitionsDropped = 0;
+        if (partitioned) {
+            List<LocalDate> expired = logPartitionRepository.findMonthlyPartitions(table).stream()
+                .filter(month -> !month.plusMonths(1).isAfter(cutoff))
+                .toList();
+            logPartitionRepository.dropMonthlyPartitions(table, expired);
+            partitionsDropped = expired.size();
+        }
+        return new RetentionReport(table, daysRolledUp, rowsDeleted, partitionsDropped);
+    }
+
+    private void ensureFuturePartitions(String table, LocalDate today) {
+        List<LocalDate> existing = logPartitionRepository.findMonthlyPartitions(table);
+        LocalDate next = existing.isEmpty() ? today.withDayOfMonth(1) : existing.get(existing.size() - 1).plusMonths(1);
+        LocalDate horizon = today.withDayOfMonth(1).plusMonths(futurePartitions);
+        for (; !next.isAfter(horizon); next = next.plusMonths(1)) {
+            logPartitionRepository.addMonthlyPartition(table, next);
+        }
+    }
+
+    private Date toDate(LocalDate day) {
+        return Date.from(day.atStartOfDay(zone).toInstant());
+    }
+
+    private interface DayRollup {
+        void rollupDay(LocalDate day, Date from, Date to);
+    }
+
+    public record RetentionReport(String table, int daysRolledUp, long rowsDeleted, int partitionsDropped) {
+    }
+}
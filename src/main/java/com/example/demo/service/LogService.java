@@ -1,29 +1,51 @@
 package com.example.demo.service;
 
 
+import com.example.demo.dto.LogPageResponse;
 import com.example.demo.enums.LogPermissionEnum;
 import com.example.demo.models.LogModel;
 import com.example.demo.models.ProductLogModel;
 import com.example.demo.repository.LogRepository;
-import com.example.demo.repository.ProductLogRepository;
 import com.example.demo.util.CustomLogger;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.apache.coyote.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.EntityManager;
 
 @Service
 public class LogService {
     
     private final LogRepository logRepository;
     private final CustomLogger customLogger;
-    private final ProductLogRepository productLogRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final EntityManager entityManager;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
-    public LogService(LogRepository logRepository, CustomLogger customLogger, ProductLogRepository productLogRepository) {
+    public LogService(LogRepository logRepository, CustomLogger customLogger, AuditLogWriter auditLogWriter,
+                      EntityManager entityManager,
+                      @Value("${logs.page.default-size:50}") int defaultPageSize,
+                      @Value("${logs.page.max-size:500}") int maxPageSize) {
         this.logRepository = logRepository;
         this.customLogger = customLogger;
-        this.productLogRepository = productLogRepository;
+        this.auditLogWriter = auditLogWriter;
+        this.entityManager = entityManager;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     public void saveStoreLog(String message, LogPermissionEnum permission, UUID storeId, String details, UUID logOwnerId, String logType) {
@@ -35,8 +57,9 @@ public class LogService {
             logModel.setDetails(details);
             logModel.setLogOwnerId(logOwnerId);
             logModel.setLogType(logType);
-            logRepository.save(logModel);
-            customLogger.logInfo("Log saved successfully: " + logModel);
+            logModel.setTimestamp(new Date());
+            afterCommit(() -> auditLogWriter.enqueue(logModel));
+            customLogger.logDebug("Log queued: " + message);
         } catch (Exception e) {
             customLogger.logError("Error saving log: " + message, e);
         }
@@ -51,13 +74,31 @@ public class LogService {
             productLogModel.setDetails(details);
             productLogModel.setLogOwnerId(logOwnerId);
             productLogModel.setLogType(logType);
-            productLogRepository.save(productLogModel);
-            customLogger.logInfo("Product log saved successfully: " + productLogModel);
+            productLogModel.setTimestamp(new Date());
+            afterCommit(() -> auditLogWriter.enqueue(productLogModel));
+            customLogger.logDebug("Product log queued: " + message);
         } catch (Exception e) {
             customLogger.logError("Error saving product log: " + message, e);
         }
     }
 
+    /**
+     * Audit records written inside a transaction are only queued once it commits, so work that
+     * rolls back leaves no trace in the logs.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     public List<LogModel> getAllLogs(UUID storeId, LogPermissionEnum logPermission) {
         try {
             List<LogModel> logs = logRepository.findAllByStoreIdAndLogPermission(storeId, logPermission);
@@ -69,4 +110,70 @@ public class LogService {
         }
         
     }
+
+    public LogPageResponse getLogsPage(UUID storeId, LogPermissionEnum logPermission, String cursor, Integer size) throws BadRequestException {
+        int pageSize = resolvePageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        List<LogModel> logs;
+        if (cursor == null || cursor.isBlank()) {
+            logs = logRepository.findFirstPage(storeId, logPermission, limit);
+        } else {
+            LogCursor position = decodeCursor(cursor);
+            logs = logRepository.findPageBefore(storeId, logPermission, position.timestamp(), position.id(), limit);
+        }
+
+        String nextCursor = null;
+        if (logs.size() > pageSize) {
+            logs = logs.subList(0, pageSize);
+            nextCursor = encodeCursor(logs.get(pageSize - 1));
+        }
+        customLogger.logDebug("Retrieved page of " + logs.size() + " logs for store ID: " + storeId);
+        return new LogPageResponse(logs, logs.size(), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public long streamLogs(UUID storeId, LogPermissionEnum logPermission, Consumer<LogModel> consumer) {
+        long count = 0;
+        try (Stream<LogModel> logs = logRepository.streamAll(storeId, logPermission)) {
+            var iterator = logs.iterator();
+            while (iterator.hasNext()) {
+                LogModel log = iterator.next();
+                consumer.accept(log);
+                entityManager.detach(log);
+                count++;
+            }
+        }
+        customLogger.logDebug("Streamed " + count + " logs for store ID: " + storeId);
+        return count;
+    }
+
+    private int resolvePageSize(Integer size) throws BadRequestException {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size <= 0) {
+            throw new BadRequestException("Page size must be positive");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    private String encodeCursor(LogModel last) {
+        long timestamp = last.getTimestamp() == null ? 0L : last.getTimestamp().getTime();
+        String raw = timestamp + ":" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private LogCursor decodeCursor(String cursor) throws BadRequestException {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new LogCursor(new Date(Long.parseLong(raw.substring(0, separator))),
+                                 Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    private record LogCursor(Date timestamp, Long id) {
+    }
 }
@@ -0,0 +1,77 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.repository.LogTimestampRepository;
+import com.example.demo.util.CustomLogger;
+
+/**
+ * Gives audit rows written before timestamps were recorded the epoch as their timestamp, so they
+ * sort after every dated row in keyset pages and fall into the oldest retention bucket. Retention
+ * runs the backfill before each pass; making the column NOT NULL on a database created before
+ * timestamps were required is a one-off admin task, see {@link #migrate()}.
+ */
+@Component
+public class LogTimestampBackfill {
+
+    static final Date LEGACY_TIMESTAMP = new Date(0);
+    private static final List<String> TABLES = List.of("logs", "product_logs");
+
+    private final LogTimestampRepository logTimestampRepository;
+    private final CustomLogger customLogger;
+    private final int batchSize;
+
+    public LogTimestampBackfill(LogTimestampRepository logTimestampRepository, CustomLogger customLogger,
+                                @Value("${logs.timestamp-backfill.batch-size:10000}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Timestamp backfill batch size must be positive");
+        }
+        this.logTimestampRepository = logTimestampRepository;
+        this.customLogger = customLogger;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Backfills every log table and then makes its timestamp column NOT NULL where it still allows
+     * nulls. The ALTER rewrites the table on MySQL, so this only runs when an operator asks for it.
+     */
+    public Map<String, Object> migrate() {
+        long backfilled = 0;
+        List<String> altered = new ArrayList<>();
+        for (String table : TABLES) {
+            backfilled += backfill(table);
+            if (logTimestampRepository.isTimestampNullable(table)) {
+                logTimestampRepository.requireTimestamp(table);
+                customLogger.logInfo("Made " + table + ".timestamp NOT NULL");
+                altered.add(table);
+            }
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("backfilledRows", backfilled);
+        result.put("tablesMadeNotNull", altered);
+        return result;
+    }
+
+    public long backfill() {
+        long updated = 0;
+        for (String table : TABLES) {
+            updated += backfill(table);
+        }
+        return updated;
+    }
+
+    private long backfill(String table) {
+        long updated = logTimestampRepository.backfillNullTimestamps(table, LEGACY_TIMESTAMP, batchSize);
+        if (updated > 0) {
+            customLogger.logInfo("Backfilled timestamp on " + updated + " legacy rows in " + table);
+        }
+        return updated;
+    }
+}
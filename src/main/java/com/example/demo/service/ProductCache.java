@@ -0,0 +1,61 @@
+package com.example.demo.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.models.ProductModel;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+@Component
+public class ProductCache {
+
+    private final Cache<UUID, ProductModel> cache;
+
+    public ProductCache(@Value("${products.cache.max-size:10000}") long maxSize,
+                        @Value("${products.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+    }
+
+    public ProductModel get(UUID productId) {
+        return productId == null ? null : cache.getIfPresent(productId);
+    }
+
+    public void put(ProductModel product) {
+        if (product != null && product.getProductId() != null) {
+            cache.put(product.getProductId(), product);
+        }
+    }
+
+    public void invalidate(UUID productId) {
+        if (productId != null) {
+            cache.invalidate(productId);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public Map<String, Object> stats() {
+        cache.cleanUp();
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.enums.LogPermissionEnum;
+import com.example.demo.repository.ProductReadCountRepository;
+import com.example.demo.repository.ProductReadCountRepository.ReadCount;
+import com.example.demo.util.CustomLogger;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Aggregates product reads in memory as per-product, per-minute counters and periodically
+ * flushes them as one batched upsert, optionally sampling a detailed audit record.
+ */
+@Component
+public class ProductReadCounter {
+
+    private static final long MINUTE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final ProductReadCountRepository productReadCountRepository;
+    private final LogService logService;
+    private final CustomLogger customLogger;
+    private final double sampleRate;
+    private final Map<ReadKey, ReadTally> counters = new ConcurrentHashMap<>();
+
+    public ProductReadCounter(ProductReadCountRepository productReadCountRepository, LogService logService,
+                              CustomLogger customLogger,
+                              @Value("${audit.product-read.sample-rate:0.0}") double sampleRate) {
+        if (sampleRate < 0.0 || sampleRate > 1.0) {
+            throw new IllegalArgumentException("Product read sample rate must be between 0 and 1");
+        }
+        this.productReadCountRepository = productReadCountRepository;
+        this.logService = logService;
+        this.customLogger = customLogger;
+        this.sampleRate = sampleRate;
+    }
+
+    public void recordRead(UUID productId) {
+        long minute = currentMinute();
+        counters.computeIfAbsent(new ReadKey(productId, minute), key -> new ReadTally()).reads.increment();
+
+        if (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            logService.saveProductLog(
+                "Product retrieved: " + productId,
+                LogPermissionEnum.MANAGER,
+                productId,
+                "Retrieved product with ID: " + productId,
+                null,
+                "RETRIEVE"
+            );
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${audit.product-read.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        long minute = currentMinute();
+        List<ReadCount> pending = new ArrayList<>();
+        for (Map.Entry<ReadKey, ReadTally> entry : counters.entrySet()) {
+            ReadKey key = entry.getKey();
+            ReadTally tally = entry.getValue();
+            // Buckets older than the previous minute are unlinked before they are summed, so no reader can
+            // pick them up again; the previous minute stays one more round for readers that started before it ended.
+            if (key.minuteBucket() < minute - MINUTE_MILLIS) {
+                counters.remove(key, tally);
+            }
+            long reads = tally.takeUnflushed();
+            if (reads > 0) {
+                pending.add(new ReadCount(key.productId(), key.minuteBucket(), reads));
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            productReadCountRepository.addCounts(pending);
+            customLogger.logDebug("Flushed read counters for " + pending.size() + " product minutes");
+        } catch (Exception e) {
+            pending.forEach(count -> counters
+                .computeIfAbsent(new ReadKey(count.productId(), count.minuteBucket()), key -> new ReadTally())
+                .reads.add(count.reads()));
+            customLogger.logError("Error flushing product read counters", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public long getPendingReads(UUID productId) {
+        return counters.entrySet().stream()
+            .filter(entry -> entry.getKey().productId().equals(productId))
+            .mapToLong(entry -> entry.getValue().unflushed())
+            .sum();
+    }
+
+    private long currentMinute() {
+        long now = System.currentTimeMillis();
+        return now - (now % MINUTE_MILLIS);
+    }
+
+    private record ReadKey(UUID productId, long minuteBucket) {
+    }
+
+    /**
+     * Reads are only ever added, never reset, so an increment racing with a flush is picked up by
+     * the next one instead of being lost. Only {@link #flush()} advances {@code flushed}.
+     */
+    private static final class ReadTally {
+
+        private final LongAdder reads = new LongAdder();
+        private volatile long flushed;
+
+        private long takeUnflushed() {
+            long total = reads.sum();
+            long unflushed = total - flushed;
+            flushed = total;
+            return unflushed;
+        }
+
+        private long unflushed() {
+            return reads.sum() - flushed;
+        }
+    }
+}
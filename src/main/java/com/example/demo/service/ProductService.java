@@ -1,42 +1,88 @@
 package com.example.demo.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
+import org.apache.coyote.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.demo.dto.BulkProductResponse;
+import com.example.demo.dto.ProductChangeEvent;
+import com.example.demo.dto.ProductStockResponse;
+import com.example.demo.dto.ResourceVersion;
 import com.example.demo.enums.LogPermissionEnum;
 import com.example.demo.exception.NotFoundException;
 import com.example.demo.models.ProductModel;
-import com.example.demo.models.StorageModel;
+import com.example.demo.models.StorageProductModel;
 import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.StorageProductRepository;
 import com.example.demo.repository.StorageRepository;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+
+import jakarta.persistence.EntityManager;
 
 @Service
 public class ProductService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
     
     private final ProductRepository productRepository;
     private final StorageRepository storageRepository;
+    private final StorageProductRepository storageProductRepository;
     private final LogService logService;
+    private final ProductReadCounter productReadCounter;
+    private final ProductCache productCache;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final InventoryEventPublisher inventoryEventPublisher;
+    private final int bulkChunkSize;
 
 
-    public ProductService(ProductRepository productRepository, StorageRepository storageRepository, LogService logService) {
+    public ProductService(ProductRepository productRepository, StorageRepository storageRepository,
+                          StorageProductRepository storageProductRepository, LogService logService,
+                          ProductReadCounter productReadCounter, ProductCache productCache, EntityManager entityManager,
+                          PlatformTransactionManager transactionManager, InventoryEventPublisher inventoryEventPublisher,
+                          @Value("${products.bulk.chunk-size:500}") int bulkChunkSize) {
         this.productRepository = productRepository;
         this.storageRepository = storageRepository;
+        this.storageProductRepository = storageProductRepository;
         this.logService = logService;
+        this.productReadCounter = productReadCounter;
+        this.productCache = productCache;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.inventoryEventPublisher = inventoryEventPublisher;
+        this.bulkChunkSize = bulkChunkSize > 0 ? bulkChunkSize : 500;
     }
 
+    @Transactional
     public UUID createProduct(ProductModel product, Long storageId, UUID requestOwner)  throws NotFoundException {
         validateProductData(product);
-        StorageModel storage = storageRepository.findById(storageId)
-                .orElseThrow(() -> new NotFoundException("Storage not found"));
+        if (!storageRepository.existsById(storageId)) {
+            throw new NotFoundException("Storage not found");
+        }
         
         product.setCreatedAt(String.valueOf(System.currentTimeMillis()));
         product.setUpdatedAt(String.valueOf(System.currentTimeMillis()));
         product.setIsActive(true);
         
         ProductModel savedProduct = productRepository.save(product);
-        storage.addProduct(savedProduct);
-        storageRepository.save(storage);
+        storageRepository.addProductToStorage(storageId, savedProduct);
+        productCache.put(savedProduct);
+        inventoryEventPublisher.productChanged(savedProduct);
+        inventoryEventPublisher.storageTotalsChanged(storageId);
         
         logService.saveProductLog(
             "Product created: " + savedProduct.getProductId(),
@@ -51,23 +97,46 @@ public class ProductService {
     }
     
     public ProductModel getProductById(UUID productId) throws NotFoundException {
-        ProductModel product =  productRepository.findByProductId(productId)
-                .orElseThrow(() -> new NotFoundException("Product not found"));
+        ProductModel product = productCache.get(productId);
+        if (product == null) {
+            product = productRepository.findByProductId(productId)
+                    .orElseThrow(() -> new NotFoundException("Product not found"));
+            productCache.put(product);
+        }
     
-        logService.saveProductLog(
-            "Product retrieved: " + product.getProductId(),
-            LogPermissionEnum.MANAGER,
-            product.getProductId(),
-            "Retrieved product with ID: " + product.getProductId(),
-            null,
-            "RETRIEVE"
-        );
+        productReadCounter.recordRead(product.getProductId());
         return product;
     }
 
+    /**
+     * Resolves the validators for a conditional read from the product cache when possible, and
+     * otherwise with a query that selects only the version and timestamp. Does not count as a
+     * read; see {@link #recordRead}.
+     */
+    public ResourceVersion getProductVersion(UUID productId) throws NotFoundException {
+        ProductModel cached = productCache.get(productId);
+        ResourceVersion version = cached != null
+            ? ResourceVersion.of(cached)
+            : productRepository.findVersionByProductId(productId)
+                .orElseThrow(() -> new NotFoundException("Product not found"));
+        return version;
+    }
+
+    /**
+     * Counts a read that was answered without loading the product, such as a 304.
+     */
+    public void recordRead(UUID productId) {
+        productReadCounter.recordRead(productId);
+    }
+
+    @Transactional
     public void updateProduct(ProductModel product, UUID requestOwner) throws NotFoundException {
         ProductModel existingProduct = productRepository.findByProductId(product.getProductId())
                 .orElseThrow(() -> new NotFoundException("Product not found"));
+        if (product.getVersion() != null && !product.getVersion().equals(existingProduct.getVersion())) {
+            throw new OptimisticLockingFailureException("Product was modified by another request");
+        }
+        long quantityDelta = quantityOf(product) - quantityOf(existingProduct);
         existingProduct.setQuantity(product.getQuantity());
         existingProduct.setPrice(product.getPrice());
         existingProduct.setUpdatedAt(String.valueOf(System.currentTimeMillis()));
@@ -79,7 +148,79 @@ public class ProductService {
             requestOwner,
             "UPDATE"
         );
-        productRepository.save(existingProduct);
+        ProductModel saved = productRepository.save(existingProduct);
+        applyStockChange(saved.getProductId(), quantityDelta, saved.getPrice());
+        productCache.put(saved);
+        inventoryEventPublisher.productChanged(saved);
+    }
+
+    @Transactional
+    public ProductStockResponse adjustQuantity(UUID productId, long delta, Long expectedVersion, UUID requestOwner)
+            throws NotFoundException, BadRequestException {
+        String updatedAt = String.valueOf(System.currentTimeMillis());
+        int updated = expectedVersion == null
+                ? productRepository.adjustQuantity(productId, delta, updatedAt)
+                : productRepository.adjustQuantityIfVersion(productId, delta, expectedVersion, updatedAt);
+
+        ProductStockResponse stock = productRepository.findStockByProductId(productId)
+                .orElseThrow(() -> new NotFoundException("Product not found"));
+        if (updated == 0) {
+            if (expectedVersion != null && !expectedVersion.equals(stock.version())) {
+                throw new OptimisticLockingFailureException("Product was modified by another request");
+            }
+            throw new BadRequestException("Insufficient quantity for product: " + productId);
+        }
+        applyStockChange(productId, delta, productRepository.findPriceByProductId(productId).orElse(null));
+
+        productCache.invalidate(productId);
+        inventoryEventPublisher.productChanged(ProductChangeEvent.of(stock));
+        logService.saveProductLog(
+            "Product quantity adjusted: " + productId,
+            LogPermissionEnum.MANAGER,
+            productId,
+            "Adjusted quantity of product with ID: " + productId + " by " + delta,
+            requestOwner,
+            "ADJUST_QUANTITY"
+        );
+        return stock;
+    }
+
+    /**
+     * Carries a stock change made on the product row over to its storage links and the storage
+     * totals, so storages keep adding up to the products they hold. Added stock goes to the first
+     * storage holding the product and removed stock is taken from the storages in order; every
+     * link is revalued at the product's current price.
+     */
+    private void applyStockChange(UUID productId, long quantityDelta, Double price) {
+        List<StorageProductModel> links = storageProductRepository.lockAllForProduct(productId);
+        if (links.isEmpty()) {
+            return;
+        }
+        double unitPrice = price == null ? 0 : price;
+        long remaining = quantityDelta;
+        List<Long> changedStorageIds = new ArrayList<>(links.size());
+        for (StorageProductModel link : links) {
+            long oldQuantity = link.getQuantity() == null ? 0 : link.getQuantity();
+            double oldValue = link.getValue() == null ? 0 : link.getValue();
+            long change = remaining >= 0 ? remaining : Math.max(remaining, -oldQuantity);
+            remaining -= change;
+            long quantity = oldQuantity + change;
+            double value = quantity * unitPrice;
+            if (change == 0 && value == oldValue) {
+                continue;
+            }
+            link.setQuantity(quantity);
+            link.setValue(value);
+            storageRepository.incrementTotals(link.getStorageId(), change, value - oldValue);
+            changedStorageIds.add(link.getStorageId());
+        }
+        if (!changedStorageIds.isEmpty()) {
+            inventoryEventPublisher.storageTotalsChanged(changedStorageIds.toArray(Long[]::new));
+        }
+    }
+
+    private static long quantityOf(ProductModel product) {
+        return product.getQuantity() == null ? 0 : product.getQuantity();
     }
 
     public void deactivateProduct(UUID productId, UUID requestOwner) throws NotFoundException {
@@ -89,6 +230,7 @@ public class ProductService {
             throw new IllegalArgumentException("Product is already deactivated");
         }
         product.setIsActive(false);
+        product.setUpdatedAt(String.valueOf(System.currentTimeMillis()));
         logService.saveProductLog(
             "Product deactivated: " + product.getProductId(),
             LogPermissionEnum.MANAGER,
@@ -97,7 +239,9 @@ public class ProductService {
             requestOwner,
             "DEACTIVATE"
         );
-        productRepository.save(product);
+        ProductModel saved = productRepository.save(product);
+        productCache.put(saved);
+        inventoryEventPublisher.productChanged(saved);
     }
     
     public void activateProduct(UUID productId, UUID requestOwner) throws NotFoundException {
@@ -118,7 +262,150 @@ public class ProductService {
         );
 
         product.setIsActive(true);
-        productRepository.save(product);
+        ProductModel saved = productRepository.save(product);
+        productCache.put(saved);
+        inventoryEventPublisher.productChanged(saved);
+    }
+
+    public BulkProductResponse bulkUpsertProducts(Iterator<ProductModel> products, Long storageId, UUID requestOwner) throws NotFoundException {
+        if (!storageRepository.existsById(storageId)) {
+            throw new NotFoundException("Storage not found");
+        }
+
+        int created = 0;
+        int updated = 0;
+        int rejected = 0;
+        List<String> errors = new ArrayList<>();
+        List<ProductModel> chunk = new ArrayList<>(bulkChunkSize);
+        int index = 0;
+        Integer failedAt = null;
+        while (true) {
+            ProductModel product;
+            try {
+                if (!products.hasNext()) {
+                    break;
+                }
+                product = products.next();
+            } catch (RuntimeJsonMappingException e) {
+                // Well-formed JSON that does not map to a product; the iterator skips past it.
+                product = null;
+            } catch (RuntimeException e) {
+                // Malformed JSON leaves the parser at an unknown position, so nothing after it can be read.
+                failedAt = index;
+                errors.add("Item " + index + ": unreadable, stopped processing the request");
+                break;
+            }
+            try {
+                if (product == null) {
+                    throw new IllegalArgumentException("Not a valid product");
+                }
+                validateProductData(product);
+                chunk.add(product);
+            } catch (IllegalArgumentException e) {
+                rejected++;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add("Item " + index + ": " + e.getMessage());
+                }
+            }
+            index++;
+            if (chunk.size() == bulkChunkSize) {
+                int[] counts = persistChunk(chunk, storageId, requestOwner);
+                created += counts[0];
+                updated += counts[1];
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            int[] counts = persistChunk(chunk, storageId, requestOwner);
+            created += counts[0];
+            updated += counts[1];
+        }
+        return new BulkProductResponse(created, updated, rejected, errors, failedAt);
+    }
+
+    private int[] persistChunk(List<ProductModel> chunk, Long storageId, UUID requestOwner) {
+        int[] counts = transactionTemplate.execute(status -> {
+            List<UUID> productIds = chunk.stream().map(ProductModel::getProductId).filter(Objects::nonNull).toList();
+            Map<UUID, ProductModel> existing = new HashMap<>();
+            if (!productIds.isEmpty()) {
+                productRepository.findAllByProductIdIn(productIds)
+                    .forEach(product -> existing.putIfAbsent(product.getProductId(), product));
+            }
+
+            String now = String.valueOf(System.currentTimeMillis());
+            Set<ProductModel> toSave = new LinkedHashSet<>();
+            List<UUID> updatedIds = new ArrayList<>();
+            int createdCount = 0;
+            int updatedCount = 0;
+            for (ProductModel product : chunk) {
+                ProductModel current = product.getProductId() == null ? null : existing.get(product.getProductId());
+                if (current == null) {
+                    if (product.getProductId() == null) {
+                        product.setProductId(UUID.randomUUID());
+                    }
+                    product.setCreatedAt(now);
+                    product.setUpdatedAt(now);
+                    product.setIsActive(true);
+                    existing.put(product.getProductId(), product);
+                    toSave.add(product);
+                    createdCount++;
+                } else {
+                    current.setQuantity(product.getQuantity());
+                    current.setPrice(product.getPrice());
+                    current.setUpdatedAt(now);
+                    if (toSave.add(current)) {
+                        if (current.getId() != null) {
+                            updatedIds.add(current.getId());
+                        }
+                        updatedCount++;
+                    }
+                }
+            }
+
+            productRepository.saveAll(toSave);
+
+            Map<UUID, StorageProductModel> links = new HashMap<>();
+            if (!updatedIds.isEmpty()) {
+                storageProductRepository.findAllByStorageIdAndProductIdIn(storageId, updatedIds)
+                    .forEach(link -> links.put(link.getProductId(), link));
+            }
+            long quantityDelta = 0;
+            double valueDelta = 0;
+            for (ProductModel product : toSave) {
+                long quantity = product.getQuantity();
+                double value = quantity * product.getPrice();
+                StorageProductModel link = links.get(product.getId());
+                if (link == null) {
+                    entityManager.persist(new StorageProductModel(storageId, product.getId(), quantity, value));
+                    quantityDelta += quantity;
+                    valueDelta += value;
+                } else {
+                    quantityDelta += quantity - (link.getQuantity() == null ? 0 : link.getQuantity());
+                    valueDelta += value - (link.getValue() == null ? 0 : link.getValue());
+                    link.setQuantity(quantity);
+                    link.setValue(value);
+                }
+            }
+            storageRepository.incrementTotals(storageId, quantityDelta, valueDelta);
+            entityManager.flush();
+            toSave.forEach(inventoryEventPublisher::productChanged);
+            inventoryEventPublisher.storageTotalsChanged(storageId);
+            entityManager.clear();
+            return new int[] {createdCount, updatedCount};
+        });
+
+        for (ProductModel product : chunk) {
+            productCache.invalidate(product.getProductId());
+        }
+        logService.saveProductLog(
+            "Products bulk upserted in storage: " + storageId,
+            LogPermissionEnum.MANAGER,
+            null,
+            "Created " + counts[0] + " and updated " + counts[1] + " products in storage ID: " + storageId,
+            requestOwner,
+            "BULK_UPSERT"
+        );
+        return counts;
     }
 
     private void validateProductData(ProductModel product) {
@@ -129,13 +416,18 @@ public class ProductService {
             throw new IllegalArgumentException("Invalid price");
         }
     }
+    @Transactional
     public boolean deleteProduct(UUID productId, Long storageId, UUID requestOwner) throws NotFoundException {
         ProductModel product = productRepository.findByProductId(productId)
                 .orElseThrow(() -> new NotFoundException("Product not found"));
+        if (!storageRepository.existsById(storageId)) {
+            throw new NotFoundException("Storage not found");
+        }
+        List<Long> storageIds = storageRepository.removeProductFromAllStorages(product);
         productRepository.delete(product);
-        StorageModel storage =storageRepository.findById(storageId)
-                .orElseThrow(() -> new NotFoundException("Storage not found"));
-        storage.removeProduct(product);
+        productCache.invalidate(productId);
+        inventoryEventPublisher.productChanged(ProductChangeEvent.deleted(productId));
+        inventoryEventPublisher.storageTotalsChanged(storageIds.toArray(Long[]::new));
         logService.saveProductLog(
             "Product deleted: " + product.getProductId(),
             LogPermissionEnum.MANAGER,
@@ -144,7 +436,6 @@ public class ProductService {
             requestOwner,
             "DELETE"
         );
-        storageRepository.save(storage);
         return true;
     }
 }
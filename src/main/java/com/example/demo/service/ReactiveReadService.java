@@ -0,0 +1,113 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.apache.coyote.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.dto.ShopPageResponse;
+import com.example.demo.dto.ShopResponse;
+import com.example.demo.dto.ShopSummary;
+import com.example.demo.dto.ShopSummaryRow;
+import com.example.demo.enums.LogPermissionEnum;
+import com.example.demo.exception.NotFoundException;
+import com.example.demo.models.LogModel;
+import com.example.demo.models.ProductModel;
+import com.example.demo.repository.ReactiveReadRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only counterparts of the shop, product and log lookups that never block a thread on the
+ * database. Responses have the same shape as the JPA path. Streams request rows from the driver
+ * in batches of {@code reactive-reads.stream.prefetch} as the client consumes them, so a slow
+ * reader holds back the query instead of buffering the result set.
+ */
+@Service
+public class ReactiveReadService {
+
+    private final ReactiveReadRepository reactiveReadRepository;
+    private final ProductCache productCache;
+    private final ProductReadCounter productReadCounter;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int prefetch;
+
+    public ReactiveReadService(ReactiveReadRepository reactiveReadRepository, ProductCache productCache,
+                               ProductReadCounter productReadCounter,
+                               @Value("${shops.page.default-size:50}") int defaultPageSize,
+                               @Value("${shops.page.max-size:500}") int maxPageSize,
+                               @Value("${reactive-reads.stream.prefetch:256}") int prefetch) {
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("Reactive read prefetch must be positive");
+        }
+        this.reactiveReadRepository = reactiveReadRepository;
+        this.productCache = productCache;
+        this.productReadCounter = productReadCounter;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.prefetch = prefetch;
+    }
+
+    public Mono<ShopPageResponse> getShopsPage(Boolean active, UUID responsibleId, String cursor, Integer size)
+            throws BadRequestException {
+        int pageSize = resolvePageSize(size);
+        UUID afterId = cursor == null || cursor.isBlank() ? null : ShopService.decodeCursor(cursor);
+        return reactiveReadRepository.findShopSummaries(active, responsibleId, afterId, pageSize + 1)
+            .collectList()
+            .map(rows -> {
+                List<ShopSummary> shops = new ArrayList<>(rows);
+                String nextCursor = null;
+                if (shops.size() > pageSize) {
+                    shops = shops.subList(0, pageSize);
+                    nextCursor = ShopService.encodeCursor(shops.get(pageSize - 1).getId());
+                }
+                return new ShopPageResponse(shops, shops.size(), nextCursor);
+            });
+    }
+
+    public Flux<ShopSummaryRow> streamShops(Boolean active, UUID responsibleId) {
+        return reactiveReadRepository.findShopSummaries(active, responsibleId, null, 0).limitRate(prefetch);
+    }
+
+    public Mono<ShopResponse> getShopById(UUID shopId) {
+        return reactiveReadRepository.findShopById(shopId)
+            .switchIfEmpty(Mono.error(() -> new NotFoundException("Shop not found")))
+            .flatMap(shop -> reactiveReadRepository.findStorageIdsByShopId(shopId)
+                .collect(Collectors.toSet())
+                .map(storageIds -> ShopResponse.from(shop, storageIds)));
+    }
+
+    /**
+     * Serves from the product cache when possible and fills it on a miss, like
+     * {@link ProductService#getProductById}.
+     */
+    public Mono<ProductModel> getProductById(UUID productId) {
+        ProductModel cached = productCache.get(productId);
+        Mono<ProductModel> product = cached != null
+            ? Mono.just(cached)
+            : reactiveReadRepository.findProductByProductId(productId).doOnNext(productCache::put);
+        return product
+            .switchIfEmpty(Mono.error(() -> new NotFoundException("Product not found")))
+            .doOnNext(found -> productReadCounter.recordRead(found.getProductId()));
+    }
+
+    public Flux<LogModel> getLogs(UUID storeId, LogPermissionEnum logPermission) {
+        return reactiveReadRepository.findLogs(storeId, logPermission).limitRate(prefetch);
+    }
+
+    private int resolvePageSize(Integer size) throws BadRequestException {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size <= 0) {
+            throw new BadRequestException("Page size must be positive");
+        }
+        return Math.min(size, maxPageSize);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dto.ShopAccess;
+import com.example.demo.models.ShopModel;
+import com.example.demo.repository.ShopRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * In-memory index of shop owner and status used to reject unauthorized or redundant mutations
+ * without a database round trip. ShopService refreshes an entry whenever it writes the shop; the
+ * TTL bounds staleness from writes made elsewhere, and the authorized path always re-checks
+ * against the row it loads.
+ */
+@Component
+public class ShopAccessIndex {
+
+    private final ShopRepository shopRepository;
+    private final Cache<UUID, ShopAccess> cache;
+
+    public ShopAccessIndex(ShopRepository shopRepository,
+                           @Value("${shops.access-index.max-size:100000}") long maxSize,
+                           @Value("${shops.access-index.ttl-seconds:600}") long ttlSeconds) {
+        this.shopRepository = shopRepository;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Returns the indexed access entry, loading only owner and status on a miss, or null when
+     * the shop does not exist. The load runs outside the cache's compute so the query never
+     * holds a map bin lock, which would pin the carrier when requests run on virtual threads;
+     * two concurrent misses for one shop may both query, and the last one wins.
+     */
+    public ShopAccess get(UUID shopId) {
+        if (shopId == null) {
+            return null;
+        }
+        ShopAccess access = cache.getIfPresent(shopId);
+        if (access == null) {
+            access = shopRepository.findAccessById(shopId).orElse(null);
+            if (access != null) {
+                cache.put(shopId, access);
+            }
+        }
+        return access;
+    }
+
+    public void put(ShopModel shop) {
+        if (shop != null && shop.getId() != null) {
+            cache.put(shop.getId(), ShopAccess.of(shop));
+        }
+    }
+
+    public void invalidate(UUID shopId) {
+        if (shopId != null) {
+            cache.invalidate(shopId);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        cache.cleanUp();
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import com.example.demo.dto.ResourceVersion;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Holds shop catalog responses already encoded as UTF-8 JSON, so a hit is served without touching
+ * the database or Jackson. Any shop mutation drops every entry; a generation counter keeps a read
+ * that started before the mutation from re-populating the cache with what it loaded.
+ */
+@Component
+public class ShopResponseCache {
+
+    public record CachedResponse(byte[] body, String etag, long lastModified) {
+    }
+
+    private final Cache<String, CachedResponse> cache;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ShopResponseCache(ObjectMapper objectMapper,
+                             @Value("${shops.response-cache.max-size:1000}") long maxSize,
+                             @Value("${shops.response-cache.ttl-seconds:600}") long ttlSeconds) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Must be read before loading the value that is later passed to {@link #put}.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Encodes the value and caches it unless the cache was invalidated after {@code loadedAt}.
+     * The encoded response is returned either way; its ETag is a digest of the body.
+     */
+    public CachedResponse put(String key, long loadedAt, Object value) throws JsonProcessingException {
+        byte[] body = objectMapper.writeValueAsBytes(value);
+        return store(key, loadedAt, new CachedResponse(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"", -1));
+    }
+
+    /**
+     * Same as {@link #put(String, long, Object)} for resources that carry their own validators, so
+     * cached and uncached responses agree with the version lookup used for conditional reads.
+     */
+    public CachedResponse put(String key, long loadedAt, Object value, ResourceVersion validators) throws JsonProcessingException {
+        byte[] body = objectMapper.writeValueAsBytes(value);
+        return store(key, loadedAt, new CachedResponse(body, validators.etag(), validators.lastModified()));
+    }
+
+    private CachedResponse store(String key, long loadedAt, CachedResponse response) {
+        if (generation.get() == loadedAt) {
+            cache.put(key, response);
+            if (generation.get() != loadedAt) {
+                cache.invalidate(key);
+            }
+        }
+        return response;
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public Map<String, Object> stats() {
+        cache.cleanUp();
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("generation", generation.get());
+        return result;
+    }
+}
@@ -1,10 +1,24 @@
 package com.example.demo.service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.apache.coyote.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.demo.dto.ResourceVersion;
+import com.example.demo.dto.ShopAccess;
+import com.example.demo.dto.ShopPageResponse;
+import com.example.demo.dto.ShopResponse;
+import com.example.demo.dto.ShopSummary;
 import com.example.demo.enums.LogPermissionEnum;
 import com.example.demo.exception.NotFoundException;
 import com.example.demo.models.ShopModel;
@@ -15,18 +29,60 @@ public class ShopService {
     
     private final ShopRepository shopRepository;
     private final LogService logService;
+    private final ShopResponseCache shopResponseCache;
+    private final ShopAccessIndex shopAccessIndex;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
-    public ShopService(ShopRepository shopRepository, LogService logService) {
+    public ShopService(ShopRepository shopRepository, LogService logService, ShopResponseCache shopResponseCache,
+                       ShopAccessIndex shopAccessIndex,
+                       @Value("${shops.page.default-size:50}") int defaultPageSize,
+                       @Value("${shops.page.max-size:500}") int maxPageSize) {
         this.shopRepository = shopRepository;
         this.logService = logService;
+        this.shopResponseCache = shopResponseCache;
+        this.shopAccessIndex = shopAccessIndex;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
-    public Iterable<ShopModel> getAllShops() {
-        return shopRepository.findAll();
+    public ShopPageResponse getShopsPage(Boolean active, UUID responsibleId, String cursor, Integer size) throws BadRequestException {
+        int pageSize = resolvePageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        List<ShopSummary> shops = cursor == null || cursor.isBlank()
+            ? shopRepository.findSummaries(active, responsibleId, limit)
+            : shopRepository.findSummariesAfter(active, responsibleId, decodeCursor(cursor), limit);
+
+        String nextCursor = null;
+        if (shops.size() > pageSize) {
+            shops = shops.subList(0, pageSize);
+            nextCursor = encodeCursor(shops.get(pageSize - 1).getId());
+        }
+        return new ShopPageResponse(shops, shops.size(), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public long streamShops(Boolean active, UUID responsibleId, Consumer<ShopSummary> consumer) {
+        long count = 0;
+        try (Stream<ShopSummary> shops = shopRepository.streamSummaries(active, responsibleId)) {
+            var iterator = shops.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                count++;
+            }
+        }
+        return count;
     }
 
-    public ShopModel getShopById(UUID shopId) throws NotFoundException{
-        return shopRepository.findById(shopId)
+    @Transactional(readOnly = true)
+    public ShopResponse getShopById(UUID shopId) throws NotFoundException{
+        return shopRepository.findWithStoragesById(shopId)
+            .map(ShopResponse::from)
+            .orElseThrow(() -> new NotFoundException("Shop not found"));
+    }
+
+    public ResourceVersion getShopVersion(UUID shopId) throws NotFoundException {
+        return shopRepository.findVersionById(shopId)
             .orElseThrow(() -> new NotFoundException("Shop not found"));
     }
 
@@ -43,23 +99,19 @@ public class ShopService {
             requestOwner,
             "CREATE"
         );
-        return shopRepository.save(shopModel).getId();
+        ShopModel savedShop = shopRepository.save(shopModel);
+        shopAccessIndex.put(savedShop);
+        shopResponseCache.invalidateAll();
+        return savedShop.getId();
     }
 
     public Boolean deactivateShop(UUID shopId, UUID requestOwner) throws BadRequestException, IllegalAccessException{
-        ShopModel shopModel = shopRepository.findById(shopId)
-            .orElseThrow(() -> new BadRequestException("Shop not found"));
-        
-        if (!shopModel.getStatus()) {
-            throw new BadRequestException("Shop is already deactivated");
-        }
-        
-        if (shopModel.getResponsibleId() == null || !shopModel.getResponsibleId().equals(requestOwner)) {
-            throw new IllegalAccessException("You do not have permission to deactivate this shop");
-        }
+        ShopModel shopModel = authorize(shopId, requestOwner, true, "Shop is already deactivated", "deactivate");
         
         shopModel.setStatus(false);
-        shopRepository.save(shopModel);
+        shopModel.setUpdatedAt(new java.util.Date().toString());
+        shopAccessIndex.put(shopRepository.save(shopModel));
+        shopResponseCache.invalidateAll();
         logService.saveStoreLog(
             "Shop deactivated: " + shopModel.getId(),
             LogPermissionEnum.ADMIN,
@@ -72,19 +124,12 @@ public class ShopService {
     }
 
     public boolean activateShop(UUID shopId, UUID requestOwner) throws BadRequestException, IllegalAccessException {
-        ShopModel shopModel = shopRepository.findById(shopId)
-            .orElseThrow(() -> new BadRequestException("Shop not found"));
-        
-        if (shopModel.getStatus()) {
-            throw new BadRequestException("Shop is already active");
-        }
-        
-        if (shopModel.getResponsibleId() == null || !shopModel.getResponsibleId().equals(requestOwner)) {
-            throw new IllegalAccessException("You do not have permission to activate this shop");
-        }
+        ShopModel shopModel = authorize(shopId, requestOwner, false, "Shop is already active", "activate");
         
         shopModel.setStatus(true);
-        shopRepository.save(shopModel);
+        shopModel.setUpdatedAt(new java.util.Date().toString());
+        shopAccessIndex.put(shopRepository.save(shopModel));
+        shopResponseCache.invalidateAll();
         logService.saveStoreLog(
             "Shop activated: " + shopModel.getId(),
             LogPermissionEnum.ADMIN,
@@ -97,22 +142,14 @@ public class ShopService {
     }
 
     public Boolean updateShop(UUID shopId, ShopModel updatedShopModel, UUID requestOwner) throws BadRequestException, IllegalAccessException {
-        ShopModel existingShop = shopRepository.findById(shopId)
-            .orElseThrow(() -> new BadRequestException("Shop not found"));
-        
-        if (!existingShop.getStatus()) {
-            throw new BadRequestException("Cannot update a deactivated shop");
-        }
-        
-        if (existingShop.getResponsibleId() == null || !existingShop.getResponsibleId().equals(requestOwner)) {
-            throw new IllegalAccessException("You do not have permission to update this shop");
-        }
+        ShopModel existingShop = authorize(shopId, requestOwner, true, "Cannot update a deactivated shop", "update");
         
         validateShopData(updatedShopModel);
         
         updatedShopModel.setId(existingShop.getId());
         updatedShopModel.setUpdatedAt(new java.util.Date().toString());
         updatedShopModel.setStatus(existingShop.getStatus());
+        updatedShopModel.setVersion(existingShop.getVersion());
         
         logService.saveStoreLog(
             "Shop updated: " + updatedShopModel.getId(),
@@ -123,11 +160,69 @@ public class ShopService {
             "UPDATE"
         );
 
-        shopRepository.save(updatedShopModel);
+        shopAccessIndex.put(shopRepository.save(updatedShopModel));
+        shopResponseCache.invalidateAll();
 
         return true;
     }
 
+    /**
+     * Rejects the mutation from the access index when it can, and only then loads the shop. The
+     * loaded row is checked again in case the index entry was stale.
+     */
+    private ShopModel authorize(UUID shopId, UUID requestOwner, boolean requireActive, String statusMessage, String action)
+            throws BadRequestException, IllegalAccessException {
+        ShopAccess indexed = shopAccessIndex.get(shopId);
+        checkAccess(indexed, requestOwner, requireActive, statusMessage, action);
+
+        ShopModel shopModel = shopRepository.findById(shopId).orElse(null);
+        ShopAccess current = shopModel == null ? null : ShopAccess.of(shopModel);
+        if (!Objects.equals(current, indexed)) {
+            if (shopModel == null) {
+                shopAccessIndex.invalidate(shopId);
+            } else {
+                shopAccessIndex.put(shopModel);
+            }
+            checkAccess(current, requestOwner, requireActive, statusMessage, action);
+        }
+        return shopModel;
+    }
+
+    private void checkAccess(ShopAccess access, UUID requestOwner, boolean requireActive, String statusMessage, String action)
+            throws BadRequestException, IllegalAccessException {
+        if (access == null) {
+            throw new BadRequestException("Shop not found");
+        }
+        if (access.isActive() != requireActive) {
+            throw new BadRequestException(statusMessage);
+        }
+        if (!access.isOwnedBy(requestOwner)) {
+            throw new IllegalAccessException("You do not have permission to " + action + " this shop");
+        }
+    }
+
+
+    private int resolvePageSize(Integer size) throws BadRequestException {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size <= 0) {
+            throw new BadRequestException("Page size must be positive");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    static String encodeCursor(UUID lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static UUID decodeCursor(String cursor) throws BadRequestException {
+        try {
+            return UUID.fromString(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
 
     private void validateShopData(ShopModel shopModel) throws BadRequestException{
         
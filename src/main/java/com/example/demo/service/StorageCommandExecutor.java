@@ -0,0 +1,268 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.util.CustomLogger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Serializes mutations per storage without database locks. Every storage id hashes to one lane,
+ * and each lane is drained by a single thread, so commands for the same storage never run
+ * concurrently. Consecutive commands for the same storage are committed in one transaction; if
+ * that transaction fails they are retried one by one so a bad command only fails its own future.
+ */
+@Component
+public class StorageCommandExecutor {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @FunctionalInterface
+    public interface StorageCommand<T> {
+        T execute() throws Exception;
+    }
+
+    private final TransactionTemplate transactionTemplate;
+    private final CustomLogger customLogger;
+    private final Lane[] lanes;
+    private final int batchSize;
+    private final int laneCapacity;
+    private final long shutdownTimeoutMillis;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+
+    private volatile boolean running;
+
+    public StorageCommandExecutor(PlatformTransactionManager transactionManager, CustomLogger customLogger,
+                                  @Value("${storage.commands.lanes:4}") int laneCount,
+                                  @Value("${storage.commands.batch-size:64}") int batchSize,
+                                  @Value("${storage.commands.lane-capacity:10000}") int laneCapacity,
+                                  @Value("${storage.commands.shutdown-timeout-ms:10000}") long shutdownTimeoutMillis) {
+        if (laneCount <= 0 || batchSize <= 0 || laneCapacity <= 0) {
+            throw new IllegalArgumentException("Storage command lanes, batch size and lane capacity must be positive");
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.customLogger = customLogger;
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane();
+        }
+        this.batchSize = batchSize;
+        this.laneCapacity = laneCapacity;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < lanes.length; i++) {
+            Thread thread = new Thread(lanes[i]::drain, "storage-commands-" + i);
+            thread.setDaemon(true);
+            lanes[i].thread = thread;
+            thread.start();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMillis);
+        for (Lane lane : lanes) {
+            Thread thread = lane.thread;
+            if (thread == null) {
+                continue;
+            }
+            LockSupport.unpark(thread);
+            try {
+                thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (Lane lane : lanes) {
+            PendingCommand<?> command;
+            while ((command = lane.queue.poll()) != null) {
+                lane.size.decrementAndGet();
+                command.future.completeExceptionally(new RejectedExecutionException("Storage command executor stopped"));
+            }
+        }
+        customLogger.logInfo("Storage command executor stopped: " + submitted.get() + " submitted, "
+            + batches.get() + " batches, " + retried.get() + " retried, " + rejected.get() + " rejected");
+    }
+
+    /**
+     * Queues the command on the lane owning the storage. The future completes once the command's
+     * transaction has committed, or exceptionally with whatever the command threw.
+     */
+    public <T> CompletableFuture<T> submit(Long storageId, StorageCommand<T> command) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Lane lane = lanes[Math.floorMod(Objects.hashCode(storageId), lanes.length)];
+        if (!running) {
+            rejected.incrementAndGet();
+            future.completeExceptionally(new RejectedExecutionException("Storage command executor is not running"));
+            return future;
+        }
+        if (lane.size.incrementAndGet() > laneCapacity) {
+            lane.size.decrementAndGet();
+            rejected.incrementAndGet();
+            future.completeExceptionally(new RejectedExecutionException("Storage command lane is full"));
+            return future;
+        }
+        submitted.incrementAndGet();
+        lane.queue.offer(new PendingCommand<>(storageId, command, future));
+        LockSupport.unpark(lane.thread);
+        return future;
+    }
+
+    private void execute(List<PendingCommand<?>> group) {
+        if (group.size() > 1) {
+            try {
+                Boolean committed = transactionTemplate.execute(status -> {
+                    for (PendingCommand<?> command : group) {
+                        if (!command.run()) {
+                            status.setRollbackOnly();
+                            return false;
+                        }
+                    }
+                    return true;
+                });
+                if (Boolean.TRUE.equals(committed)) {
+                    batches.incrementAndGet();
+                    group.forEach(PendingCommand::complete);
+                    return;
+                }
+            } catch (RuntimeException e) {
+                customLogger.logDebug("Storage command batch of " + group.size() + " failed, retrying individually: " + e.getMessage());
+            }
+            retried.addAndGet(group.size());
+        }
+        for (PendingCommand<?> command : group) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!command.run()) {
+                        status.setRollbackOnly();
+                    }
+                });
+            } catch (RuntimeException e) {
+                command.error = e;
+            }
+            batches.incrementAndGet();
+            command.complete();
+        }
+    }
+
+    public int getPendingCount() {
+        int pending = 0;
+        for (Lane lane : lanes) {
+            pending += lane.size.get();
+        }
+        return pending;
+    }
+
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    public long getRetriedCount() {
+        return retried.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    private final class Lane {
+
+        private final ConcurrentLinkedQueue<PendingCommand<?>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private volatile Thread thread;
+
+        private void drain() {
+            List<PendingCommand<?>> batch = new ArrayList<>(batchSize);
+            while (running || !queue.isEmpty()) {
+                PendingCommand<?> command;
+                while (batch.size() < batchSize && (command = queue.poll()) != null) {
+                    batch.add(command);
+                }
+                if (batch.isEmpty()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    continue;
+                }
+                size.addAndGet(-batch.size());
+                int start = 0;
+                for (int i = 1; i <= batch.size(); i++) {
+                    if (i == batch.size() || !Objects.equals(batch.get(i).storageId, batch.get(start).storageId)) {
+                        execute(new ArrayList<>(batch.subList(start, i)));
+                        start = i;
+                    }
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    private static final class PendingCommand<T> {
+
+        private final Long storageId;
+        private final StorageCommand<T> command;
+        private final CompletableFuture<T> future;
+        private T result;
+        private Throwable error;
+
+        private PendingCommand(Long storageId, StorageCommand<T> command, CompletableFuture<T> future) {
+            this.storageId = storageId;
+            this.command = command;
+            this.future = future;
+        }
+
+        private boolean run() {
+            result = null;
+            error = null;
+            try {
+                result = command.execute();
+                return true;
+            } catch (Exception e) {
+                error = e;
+                return false;
+            }
+        }
+
+        private void complete() {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+}
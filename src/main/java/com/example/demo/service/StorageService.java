@@ -1,28 +1,62 @@
 package com.example.demo.service;
 
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
+import org.apache.coyote.BadRequestException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.demo.dto.StorageTransferRequest;
+import com.example.demo.dto.StorageTransferResponse;
 import com.example.demo.enums.LogPermissionEnum;
 import com.example.demo.exception.NotFoundException;
 import com.example.demo.models.ProductModel;
 import com.example.demo.models.StorageModel;
+import com.example.demo.models.StorageProductModel;
 import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.StorageProductBatchRepository;
+import com.example.demo.repository.StorageProductBatchRepository.StockMove;
+import com.example.demo.repository.StorageProductRepository;
 import com.example.demo.repository.StorageRepository;
 
 @Service
 public class StorageService {
+
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_TRANSFER_ITEMS = 10_000;
     
     private final StorageRepository storageRepository;
     private final ProductRepository productRepository;
+    private final StorageProductRepository storageProductRepository;
     private final LogService logService;
+    private final StorageProductBatchRepository storageProductBatchRepository;
+    private final StorageCommandExecutor storageCommandExecutor;
+    private final InventoryEventPublisher inventoryEventPublisher;
 
-    public StorageService(StorageRepository storageRepository, ProductRepository productRepository, LogService logService) {
+    public StorageService(StorageRepository storageRepository, ProductRepository productRepository,
+                          StorageProductRepository storageProductRepository, LogService logService,
+                          StorageProductBatchRepository storageProductBatchRepository,
+                          StorageCommandExecutor storageCommandExecutor,
+                          InventoryEventPublisher inventoryEventPublisher) {
         this.storageRepository = storageRepository;
         this.productRepository = productRepository;
+        this.storageProductRepository = storageProductRepository;
         this.logService = logService;
+        this.storageProductBatchRepository = storageProductBatchRepository;
+        this.storageCommandExecutor = storageCommandExecutor;
+        this.inventoryEventPublisher = inventoryEventPublisher;
     }
 
 
@@ -69,11 +103,26 @@ public class StorageService {
         return id;
     }
     
+    public CompletableFuture<Boolean> submitAddProductToStorage(UUID requestOwner, Long storageId, UUID productId, UUID storeId) {
+        return storageCommandExecutor.submit(storageId,
+            () -> addProductToStorage(requestOwner, storageId, productId, storeId));
+    }
+
+    public CompletableFuture<Boolean> submitRemoveProductFromStorage(UUID requestOwner, Long storageId, UUID productId, UUID storeId) {
+        return storageCommandExecutor.submit(storageId,
+            () -> removeProductFromStorage(requestOwner, storageId, productId, storeId));
+    }
+
+    @Transactional
     public boolean addProductToStorage(UUID requestOwner, Long storageId, UUID productId, UUID storeId) throws NotFoundException {
-        StorageModel storage = storageRepository.findById(storageId).orElseThrow(() -> new NotFoundException("Storage not found"));
+        if (!storageRepository.existsById(storageId)) {
+            throw new NotFoundException("Storage not found");
+        }
         ProductModel product = productRepository.findById(productId).orElseThrow(() -> new NotFoundException("Product not found"));
-        storage.addProduct(product);
-        storageRepository.save(storage);
+        if (!storageRepository.addProductToStorage(storageId, product)) {
+            return true;
+        }
+        inventoryEventPublisher.storageTotalsChanged(storageId);
     
         logService.saveStoreLog(
             "Product added to storage: " + storageId,
@@ -86,11 +135,28 @@ public class StorageService {
         return true;   
     }
     
+    public Page<StorageProductModel> getStorageProducts(Long storageId, int page, int size)
+            throws NotFoundException, BadRequestException {
+        if (page < 0 || size <= 0) {
+            throw new BadRequestException("Page must not be negative and size must be positive");
+        }
+        if (!storageRepository.existsById(storageId)) {
+            throw new NotFoundException("Storage not found");
+        }
+        return storageProductRepository.findByStorageId(storageId,
+            PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE), Sort.by("productId")));
+    }
+
+    @Transactional
     public boolean removeProductFromStorage(UUID requestOwner, Long storageId, UUID productId, UUID storeId) throws NotFoundException {
-        StorageModel storage = storageRepository.findById(storageId).orElseThrow(() -> new NotFoundException("Storage not found"));
+        if (!storageRepository.existsById(storageId)) {
+            throw new NotFoundException("Storage not found");
+        }
         ProductModel product = productRepository.findById(productId).orElseThrow(() -> new NotFoundException("Product not found"));
-        storage.removeProduct(product);
-        storageRepository.save(storage);
+        if (!storageRepository.removeProductFromStorage(storageId, product)) {
+            return true;
+        }
+        inventoryEventPublisher.storageTotalsChanged(storageId);
 
         logService.saveStoreLog(
             "Product removed from storage: " + storageId,
@@ -103,6 +169,95 @@ public class StorageService {
         return true;    
     }
 
+    /**
+     * Moves stock of many products from one storage to another in a single transaction: one lookup
+     * per storage, one JDBC batch per kind of change, one totals update per storage and one audit record.
+     * Transfers do not go through the per-storage lanes: every statement is guarded at row level (the
+     * withdraw refuses to go below zero, a deposit whose link has since disappeared recreates it, an
+     * emptied link is only deleted while it still holds nothing) and the source links are locked
+     * when they are read, so concurrent lane commands cannot lose or duplicate stock.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public StorageTransferResponse transferProducts(UUID requestOwner, StorageTransferRequest request, UUID storeId)
+            throws NotFoundException, BadRequestException {
+        Long fromStorageId = request.fromStorageId();
+        Long toStorageId = request.toStorageId();
+        List<StorageTransferRequest.Item> items = request.items();
+        if (fromStorageId == null || toStorageId == null || fromStorageId.equals(toStorageId)) {
+            throw new BadRequestException("Source and destination storages must be different");
+        }
+        if (items == null || items.isEmpty() || items.size() > MAX_TRANSFER_ITEMS) {
+            throw new BadRequestException("A transfer must move between 1 and " + MAX_TRANSFER_ITEMS + " products");
+        }
+        if (!storageRepository.existsById(fromStorageId) || !storageRepository.existsById(toStorageId)) {
+            throw new NotFoundException("Storage not found");
+        }
+
+        Set<UUID> productIds = new HashSet<>();
+        for (StorageTransferRequest.Item item : items) {
+            if (item.productId() == null || !productIds.add(item.productId())) {
+                throw new BadRequestException("Each product may appear once in a transfer");
+            }
+            if (item.quantity() != null && item.quantity() <= 0) {
+                throw new BadRequestException("Invalid quantity for product: " + item.productId());
+            }
+        }
+
+        Map<UUID, StorageProductModel> sourceLinks = new HashMap<>();
+        storageProductRepository.lockAllByStorageIdAndProductIdIn(fromStorageId, productIds)
+            .forEach(link -> sourceLinks.put(link.getProductId(), link));
+        Set<UUID> destinationIds = new HashSet<>();
+        storageProductRepository.findAllByStorageIdAndProductIdIn(toStorageId, productIds)
+            .forEach(link -> destinationIds.add(link.getProductId()));
+
+        List<StockMove> moves = new ArrayList<>(items.size());
+        List<UUID> emptied = new ArrayList<>();
+        long totalQuantity = 0;
+        double totalValue = 0;
+        for (StorageTransferRequest.Item item : items) {
+            StorageProductModel link = sourceLinks.get(item.productId());
+            if (link == null) {
+                throw new BadRequestException("Product " + item.productId() + " is not in storage " + fromStorageId);
+            }
+            long available = link.getQuantity() == null ? 0 : link.getQuantity();
+            double availableValue = link.getValue() == null ? 0 : link.getValue();
+            long quantity = item.quantity() == null ? available : item.quantity();
+            if (quantity > available) {
+                throw new BadRequestException("Insufficient quantity of product " + item.productId() + " in storage " + fromStorageId);
+            }
+            double value = quantity == available ? availableValue : availableValue * quantity / available;
+            moves.add(new StockMove(item.productId(), quantity, value));
+            if (quantity == available) {
+                emptied.add(item.productId());
+            }
+            totalQuantity += quantity;
+            totalValue += value;
+        }
+
+        if (storageProductBatchRepository.withdraw(fromStorageId, moves) != moves.size()) {
+            throw new OptimisticLockingFailureException("Stock in storage " + fromStorageId + " changed during the transfer");
+        }
+        storageProductBatchRepository.deleteLinks(fromStorageId, emptied);
+        List<StockMove> newLinks = new ArrayList<>(storageProductBatchRepository.deposit(toStorageId,
+            moves.stream().filter(move -> destinationIds.contains(move.productId())).toList()));
+        moves.stream().filter(move -> !destinationIds.contains(move.productId())).forEach(newLinks::add);
+        storageProductBatchRepository.insertLinks(toStorageId, newLinks);
+        storageRepository.incrementTotals(fromStorageId, -totalQuantity, -totalValue);
+        storageRepository.incrementTotals(toStorageId, totalQuantity, totalValue);
+        inventoryEventPublisher.storageTotalsChanged(fromStorageId, toStorageId);
+
+        logService.saveStoreLog(
+            "Products transferred from storage " + fromStorageId + " to storage " + toStorageId,
+            LogPermissionEnum.MANAGER,
+            storeId,
+            "Moved " + moves.size() + " products (" + totalQuantity + " units, value " + totalValue + ") from storage "
+                + fromStorageId + " to storage " + toStorageId,
+            requestOwner,
+            "TRANSFER"
+        );
+        return new StorageTransferResponse(fromStorageId, toStorageId, moves.size(), totalQuantity, totalValue);
+    }
+
     public boolean deactivateStorage(UUID requestOwner, Long storageId, UUID storeId) throws NotFoundException {
         StorageModel storage = storageRepository.findById(storageId).orElseThrow(() -> new NotFoundException("Storage not found"));
         storage.setActive(false);
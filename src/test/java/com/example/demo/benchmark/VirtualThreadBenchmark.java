@@ -0,0 +1,155 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.config.VirtualThreadPinningMonitor;
+import com.example.demo.models.StorageModel;
+import com.example.demo.repository.StorageRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares request throughput on Tomcat's platform pool against virtual threads. Every connection
+ * checkout is held for an extra {@code benchmark.latency-ms} to stand in for a MySQL round trip, so
+ * the run is dominated by blocking I/O the way production is. Both runs cap Tomcat at the same
+ * number of platform threads; the virtual run ignores that cap and is bounded by the pool instead.
+ *
+ * <pre>
+ * mvn test -Dtest=VirtualThreadBenchmark -Dbenchmark=true [-Dbenchmark.concurrency=200]
+ *     [-Dbenchmark.requests=4000] [-Dbenchmark.latency-ms=20]
+ * </pre>
+ *
+ * The virtual-thread run is skipped on runtimes older than Java 21.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 200);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 4000);
+    private static final long LATENCY_MILLIS = Long.getLong("benchmark.latency-ms", 20);
+    private static final int TOMCAT_THREADS = 20;
+    private static final int POOL_SIZE = 64;
+
+    @Test
+    void platformThreads() throws Exception {
+        run(false);
+    }
+
+    @Test
+    void virtualThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads need Java 21");
+        run(true);
+    }
+
+    private void run(boolean virtual) throws Exception {
+        String mode = virtual ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .profiles("test")
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new LatencyInjector()))
+                .properties(
+                    "server.port=0",
+                    "spring.threads.virtual.enabled=" + virtual,
+                    "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                    "spring.datasource.url=jdbc:h2:mem:benchmark-" + mode + ";DB_CLOSE_DELAY=-1",
+                    "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                    "virtual-threads.pinning.threshold-ms=5",
+                    "logging.level.root=WARN")
+                .run()) {
+            StorageModel storage = new StorageModel();
+            storage.setName("Benchmark storage");
+            Long storageId = context.getBean(StorageRepository.class).save(storage).getId();
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/api/storage/products/" + storageId);
+
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+            fire(client, uri, Math.min(REQUESTS, 500));
+            Run result = fire(client, uri, REQUESTS);
+
+            System.out.printf("%-8s threads: %d requests, concurrency %d, latency %d ms -> %.0f req/s, p50 %d ms, p99 %d ms%n",
+                mode, REQUESTS, CONCURRENCY, LATENCY_MILLIS, REQUESTS / (result.elapsedNanos() / 1e9),
+                result.percentileMillis(0.50), result.percentileMillis(0.99));
+            if (virtual) {
+                System.out.println("pinning: " + context.getBean(VirtualThreadPinningMonitor.class).stats());
+            }
+        }
+    }
+
+    /** Sends the requests with at most {@link #CONCURRENCY} in flight. */
+    private Run fire(HttpClient client, URI uri, int requests) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        AtomicInteger failures = new AtomicInteger();
+        long[] durations = new long[requests];
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[requests];
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            futures[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    durations[index] = System.nanoTime() - sent;
+                    if (error != null || response.statusCode() != 200) {
+                        failures.incrementAndGet();
+                    }
+                    inFlight.release();
+                });
+        }
+        CompletableFuture.allOf(futures).join();
+        long elapsed = System.nanoTime() - start;
+        assertEquals(0, failures.get(), "failed requests");
+        Arrays.sort(durations);
+        return new Run(elapsed, durations);
+    }
+
+    private record Run(long elapsedNanos, long[] sortedDurations) {
+
+        long percentileMillis(double percentile) {
+            int index = (int) Math.ceil(percentile * sortedDurations.length) - 1;
+            return TimeUnit.NANOSECONDS.toMillis(sortedDurations[Math.max(0, index)]);
+        }
+    }
+
+    private static final class LatencyInjector implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource) {
+                return new DelegatingDataSource(dataSource) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        Connection connection = super.getConnection();
+                        try {
+                            Thread.sleep(LATENCY_MILLIS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return connection;
+                    }
+                };
+            }
+            return bean;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.demo.config;
+
+import com.example.demo.config.JwtTokenProvider.VerifiedToken;
+import com.example.demo.exception.InvalidTokenException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Mock
+    private OwnerRateLimiter rateLimiter;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final UUID owner = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthenticationFilter(jwtTokenProvider, rateLimiter);
+        request = new MockHttpServletRequest("POST", "/api/shops/create");
+        response = new MockHttpServletResponse();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_ValidToken_SetsOwnerAsPrincipal() throws Exception {
+        // Arrange
+        request.addHeader("Authorization", "Bearer token");
+        when(jwtTokenProvider.verify("Bearer token")).thenReturn(new VerifiedToken(owner, Long.MAX_VALUE));
+        when(rateLimiter.acquire(owner)).thenReturn(0L);
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                seen.set(SecurityContextHolder.getContext().getAuthentication());
+            }
+        });
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertNotNull(seen.get());
+        assertEquals(owner, seen.get().getPrincipal());
+        assertTrue(seen.get().isAuthenticated());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void doFilter_NoToken_PassesThroughUnauthenticated() throws Exception {
+        // Arrange
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertNotNull(chain.getRequest());
+        verifyNoInteractions(jwtTokenProvider, rateLimiter);
+    }
+
+    @Test
+    void doFilter_InvalidToken_Returns401() throws Exception {
+        // Arrange
+        request.addHeader("Authorization", "Bearer forged");
+        when(jwtTokenProvider.verify("Bearer forged")).thenThrow(new InvalidTokenException("Invalid token signature"));
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals(401, response.getStatus());
+        assertEquals("Invalid token signature", response.getContentAsString());
+        assertNull(chain.getRequest());
+        verify(rateLimiter, never()).acquire(any());
+    }
+
+    @Test
+    void doFilter_RateLimited_Returns429WithRetryAfter() throws Exception {
+        // Arrange
+        request.addHeader("Authorization", "Bearer token");
+        when(jwtTokenProvider.verify("Bearer token")).thenReturn(new VerifiedToken(owner, Long.MAX_VALUE));
+        when(rateLimiter.acquire(owner)).thenReturn(TimeUnit.MILLISECONDS.toNanos(1500));
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals(429, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertNull(chain.getRequest());
+    }
+}
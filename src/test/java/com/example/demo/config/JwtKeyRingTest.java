@@ -0,0 +1,159 @@
+package com.example.demo.config;
+
+import com.example.demo.config.JwtKeyRing.KeyEntry;
+import com.example.demo.util.CustomLogger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtKeyRingTest {
+
+    private static PublicKey firstKey;
+    private static PublicKey secondKey;
+
+    @Mock
+    private CustomLogger customLogger;
+
+    @TempDir
+    Path keyDirectory;
+
+    private JwtKeyRing keyRing;
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        firstKey = generator.generateKeyPair().getPublic();
+        secondKey = generator.generateKeyPair().getPublic();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (keyRing != null) {
+            keyRing.shutdown();
+        }
+    }
+
+    private void writeKey(String fileName, PublicKey key) throws Exception {
+        String pem = "-----BEGIN PUBLIC KEY-----\n"
+            + Base64.getMimeEncoder().encodeToString(key.getEncoded())
+            + "\n-----END PUBLIC KEY-----\n";
+        Path temp = keyDirectory.resolve(fileName + ".tmp");
+        Files.writeString(temp, pem);
+        Files.move(temp, keyDirectory.resolve(fileName), java.nio.file.StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Test
+    void start_LoadsKeysByFileName() throws Exception {
+        // Arrange
+        writeKey("k1.pem", firstKey);
+        writeKey("k2.pub", secondKey);
+        keyRing = new JwtKeyRing(customLogger, keyDirectory.toString(), "", 60);
+
+        // Act
+        keyRing.start();
+
+        // Assert
+        assertEquals(2, keyRing.getActiveKeyCount());
+        assertEquals(List.of(new KeyEntry("k1", firstKey)), keyRing.candidates("k1"));
+        assertEquals(2, keyRing.candidates(null).size());
+        assertTrue(keyRing.candidates("unknown").isEmpty());
+    }
+
+    @Test
+    void reload_KeepsReplacedKeyDuringGraceWindow() throws Exception {
+        // Arrange
+        writeKey("k1.pem", firstKey);
+        keyRing = new JwtKeyRing(customLogger, keyDirectory.toString(), "", 60);
+        keyRing.reload();
+        KeyEntry original = keyRing.candidates("k1").get(0);
+
+        // Act
+        writeKey("k1.pem", secondKey);
+        keyRing.reload();
+
+        // Assert
+        assertEquals(List.of(new KeyEntry("k1", secondKey), new KeyEntry("k1", firstKey)), keyRing.candidates("k1"));
+        assertTrue(keyRing.isTrusted(original));
+    }
+
+    @Test
+    void candidates_IncludesGraceKeysForTokenWithoutKeyId() throws Exception {
+        // Arrange
+        writeKey("k1.pem", firstKey);
+        keyRing = new JwtKeyRing(customLogger, keyDirectory.toString(), "", 60);
+        keyRing.reload();
+
+        // Act
+        Files.delete(keyDirectory.resolve("k1.pem"));
+        writeKey("k2.pem", secondKey);
+        keyRing.reload();
+
+        // Assert
+        assertEquals(List.of(new KeyEntry("k2", secondKey), new KeyEntry("k1", firstKey)), keyRing.candidates(null));
+    }
+
+    @Test
+    void reload_DropsRemovedKeyWithoutGraceWindow() throws Exception {
+        // Arrange
+        writeKey("k1.pem", firstKey);
+        keyRing = new JwtKeyRing(customLogger, keyDirectory.toString(), "", 0);
+        keyRing.reload();
+        KeyEntry original = keyRing.candidates("k1").get(0);
+
+        // Act
+        Files.delete(keyDirectory.resolve("k1.pem"));
+        keyRing.reload();
+
+        // Assert
+        assertTrue(keyRing.candidates("k1").isEmpty());
+        assertFalse(keyRing.isTrusted(original));
+    }
+
+    @Test
+    void reload_KeepsPreviousKeyWhenFileIsUnreadable() throws Exception {
+        // Arrange
+        writeKey("k1.pem", firstKey);
+        keyRing = new JwtKeyRing(customLogger, keyDirectory.toString(), "", 60);
+        keyRing.reload();
+
+        // Act
+        Files.writeString(keyDirectory.resolve("k1.pem"), "-----BEGIN PUBLIC KEY-----\nnot a key");
+        keyRing.reload();
+
+        // Assert
+        assertEquals(List.of(new KeyEntry("k1", firstKey)), keyRing.candidates("k1"));
+    }
+
+    @Test
+    void watcher_PicksUpNewKeyFiles() throws Exception {
+        // Arrange
+        writeKey("k1.pem", firstKey);
+        keyRing = new JwtKeyRing(customLogger, keyDirectory.toString(), "", 60);
+        keyRing.start();
+
+        // Act
+        writeKey("k2.pem", secondKey);
+
+        // Assert
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (keyRing.candidates("k2").isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(List.of(new KeyEntry("k2", secondKey)), keyRing.candidates("k2"));
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.demo.config;
+
+import com.example.demo.exception.InvalidTokenException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    private static KeyPair keyPair;
+    private static KeyPair otherKeyPair;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final UUID subject = UUID.randomUUID();
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+        otherKeyPair = generator.generateKeyPair();
+    }
+
+    private JwtTokenProvider provider(String issuer, String audience) {
+        return new JwtTokenProvider(JwtKeyRing.of(Map.of("current", keyPair.getPublic())), objectMapper, issuer, audience, 0, 100);
+    }
+
+    private String token(PrivateKey key, Map<String, Object> header, Map<String, Object> claims) throws Exception {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String signingInput = encoder.encodeToString(objectMapper.writeValueAsBytes(header)) + "."
+            + encoder.encodeToString(objectMapper.writeValueAsBytes(claims));
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(key);
+        signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + "." + encoder.encodeToString(signature.sign());
+    }
+
+    private String validToken(long expiresInSeconds) throws Exception {
+        return token(keyPair.getPrivate(), Map.of("alg", "RS256", "typ", "JWT"),
+            Map.of("sub", subject.toString(), "exp", System.currentTimeMillis() / 1000 + expiresInSeconds,
+                "iss", "auth", "aud", java.util.List.of("shop-api")));
+    }
+
+    @Test
+    void retrieveIdFromToken_ReturnsSubjectOfValidToken() throws Exception {
+        // Arrange
+        JwtTokenProvider provider = provider("auth", "shop-api");
+
+        // Act
+        UUID result = provider.retrieveIdFromToken("Bearer " + validToken(300));
+
+        // Assert
+        assertEquals(subject, result);
+    }
+
+    @Test
+    void verify_CachesVerifiedTokens() throws Exception {
+        // Arrange
+        JwtTokenProvider provider = provider("", "");
+        String token = "Bearer " + validToken(300);
+
+        // Act
+        provider.verify(token);
+        provider.verify(token);
+        provider.verify(token);
+
+        // Assert
+        Map<String, Object> stats = provider.stats();
+        assertEquals(1L, stats.get("verifications"));
+        assertEquals(2L, stats.get("cacheHits"));
+        assertEquals(1L, stats.get("cacheSize"));
+    }
+
+    @Test
+    void verify_RejectsTokenSignedWithAnotherKey() throws Exception {
+        // Arrange
+        JwtTokenProvider provider = provider("", "");
+        String forged = token(otherKeyPair.getPrivate(), Map.of("alg", "RS256"),
+            Map.of("sub", subject.toString(), "exp", System.currentTimeMillis() / 1000 + 300));
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> provider.verify(forged));
+        assertEquals(1L, provider.stats().get("failures"));
+        assertEquals(0L, provider.stats().get("cacheSize"));
+    }
+
+    @Test
+    void verify_RejectsExpiredTokens() throws Exception {
+        // Arrange
+        JwtTokenProvider provider = provider("", "");
+
+        // Act & Assert
+        InvalidTokenException exception = assertThrows(InvalidTokenException.class, () -> provider.verify(validToken(-60)));
+        assertEquals("Token has expired", exception.getMessage());
+    }
+
+    @Test
+    void verify_RejectsUnsignedAndMalformedTokens() throws Exception {
+        // Arrange
+        JwtTokenProvider provider = provider("", "");
+        String valid = validToken(300);
+        String unsigned = token(keyPair.getPrivate(), Map.of("alg", "none"),
+            Map.of("sub", subject.toString(), "exp", System.currentTimeMillis() / 1000 + 300));
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> provider.verify(unsigned));
+        assertThrows(InvalidTokenException.class, () -> provider.verify("Bearer token"));
+        assertThrows(InvalidTokenException.class, () -> provider.verify(null));
+        assertThrows(InvalidTokenException.class, () -> provider.verify(valid.substring(0, valid.length() - 4) + "AAAA"));
+    }
+
+    @Test
+    void verify_ChecksIssuerAndAudience() throws Exception {
+        // Arrange
+        String token = validToken(300);
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> provider("other", "").verify(token));
+        assertThrows(InvalidTokenException.class, () -> provider("", "other-api").verify(token));
+        assertEquals(subject, provider("auth", "shop-api").verify(token).subject());
+    }
+
+    @Test
+    void verify_SelectsKeyByKeyId() throws Exception {
+        // Arrange
+        JwtTokenProvider provider = new JwtTokenProvider(
+            JwtKeyRing.of(Map.of("old", otherKeyPair.getPublic(), "new", keyPair.getPublic())), objectMapper, "", "", 0, 100);
+        Map<String, Object> claims = Map.of("sub", subject.toString(), "exp", System.currentTimeMillis() / 1000 + 300);
+        String oldToken = token(otherKeyPair.getPrivate(), Map.of("alg", "RS256", "kid", "old"), claims);
+        String mislabelled = token(otherKeyPair.getPrivate(), Map.of("alg", "RS256", "kid", "new"), claims);
+        String unknown = token(keyPair.getPrivate(), Map.of("alg", "RS256", "kid", "missing"), claims);
+
+        // Act & Assert
+        assertEquals(subject, provider.verify(oldToken).subject());
+        assertThrows(InvalidTokenException.class, () -> provider.verify(mislabelled));
+        assertThrows(InvalidTokenException.class, () -> provider.verify(unknown));
+    }
+
+    @Test
+    void verify_RejectsEverythingWithoutPublicKey() throws Exception {
+        // Arrange
+        JwtTokenProvider provider = new JwtTokenProvider(JwtKeyRing.of(Map.of()), objectMapper, "", "", 0, 100);
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> provider.verify(validToken(300)));
+    }
+}
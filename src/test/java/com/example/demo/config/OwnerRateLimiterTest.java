@@ -0,0 +1,107 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OwnerRateLimiterTest {
+
+    private final UUID owner = UUID.randomUUID();
+
+    @Test
+    void acquire_AllowsBurstThenRejects() {
+        // Arrange
+        OwnerRateLimiter limiter = new OwnerRateLimiter(true, 1, 3, 100, 60);
+
+        // Act
+        long first = limiter.acquire(owner);
+        long second = limiter.acquire(owner);
+        long third = limiter.acquire(owner);
+        long fourth = limiter.acquire(owner);
+
+        // Assert
+        assertEquals(0, first);
+        assertEquals(0, second);
+        assertEquals(0, third);
+        assertTrue(fourth > 0);
+        assertTrue(fourth <= TimeUnit.SECONDS.toNanos(1));
+        assertEquals(3L, limiter.stats().get("allowed"));
+        assertEquals(1L, limiter.stats().get("rejected"));
+    }
+
+    @Test
+    void acquire_KeepsSeparateBucketsPerOwner() {
+        // Arrange
+        OwnerRateLimiter limiter = new OwnerRateLimiter(true, 1, 1, 100, 60);
+        limiter.acquire(owner);
+
+        // Act
+        long sameOwner = limiter.acquire(owner);
+        long otherOwner = limiter.acquire(UUID.randomUUID());
+
+        // Assert
+        assertTrue(sameOwner > 0);
+        assertEquals(0, otherOwner);
+    }
+
+    @Test
+    void acquire_RefillsOverTime() throws InterruptedException {
+        // Arrange
+        OwnerRateLimiter limiter = new OwnerRateLimiter(true, 50, 1, 100, 60);
+        limiter.acquire(owner);
+        assertTrue(limiter.acquire(owner) > 0);
+
+        // Act
+        Thread.sleep(40);
+
+        // Assert
+        assertEquals(0, limiter.acquire(owner));
+    }
+
+    @Test
+    void acquire_Disabled_AlwaysAllows() {
+        // Arrange
+        OwnerRateLimiter limiter = new OwnerRateLimiter(false, 1, 1, 100, 60);
+
+        // Act & Assert
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.acquire(owner));
+        }
+    }
+
+    @Test
+    void acquire_ConcurrentCallersNeverExceedBurst() throws InterruptedException {
+        // Arrange
+        OwnerRateLimiter limiter = new OwnerRateLimiter(true, 1, 100, 100, 60);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+
+        // Act
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < 50; j++) {
+                    if (limiter.acquire(owner) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Assert
+        assertTrue(granted.get() >= 100);
+        assertTrue(granted.get() <= 101);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.demo.config;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.language.Document;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistedDocumentProviderTest {
+
+    private static final String QUERY = "{ greeting }";
+
+    private final AtomicInteger parses = new AtomicInteger();
+    private PersistedDocumentProvider provider;
+    private GraphQL graphQL;
+
+    @BeforeEach
+    void setUp() {
+        provider = new PersistedDocumentProvider(100);
+        graphQL = GraphQL.newGraphQL(new SchemaGenerator().makeExecutableSchema(
+                new SchemaParser().parse("type Query { greeting: String }"),
+                RuntimeWiring.newRuntimeWiring()
+                    .type("Query", type -> type.dataFetcher("greeting", env -> "hello"))
+                    .build()))
+            .preparsedDocumentProvider(provider)
+            .instrumentation(new SimplePerformantInstrumentation() {
+                @Override
+                public InstrumentationContext<Document> beginParse(InstrumentationExecutionParameters parameters,
+                                                                   InstrumentationState state) {
+                    parses.incrementAndGet();
+                    return super.beginParse(parameters, state);
+                }
+            })
+            .build();
+    }
+
+    private ExecutionResult execute(String query, Map<String, Object> extensions) {
+        return graphQL.execute(ExecutionInput.newExecutionInput(query).extensions(extensions).build());
+    }
+
+    private static Map<String, Object> persistedQuery(String hash) {
+        return Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash));
+    }
+
+    @Test
+    void execute_ParsesRepeatedQueryOnce() {
+        // Act
+        ExecutionResult first = execute(QUERY, Map.of());
+        ExecutionResult second = execute(QUERY, Map.of());
+
+        // Assert
+        assertEquals(Map.of("greeting", "hello"), first.getData());
+        assertEquals(Map.of("greeting", "hello"), second.getData());
+        assertEquals(1, parses.get());
+        assertEquals(1L, provider.stats().get("hits"));
+    }
+
+    @Test
+    void execute_HashOnlyRequest_ReportsNotFoundUntilRegistered() {
+        // Arrange
+        String hash = PersistedDocumentProvider.sha256(QUERY);
+
+        // Act
+        ExecutionResult unknown = execute("PersistedQueryMarker", persistedQuery(hash));
+        ExecutionResult registered = execute(QUERY, persistedQuery(hash));
+        ExecutionResult hashOnly = execute("PersistedQueryMarker", persistedQuery(hash));
+
+        // Assert
+        assertEquals("PersistedQueryNotFound", unknown.getErrors().get(0).getMessage());
+        assertTrue(registered.getErrors().isEmpty());
+        assertEquals(Map.of("greeting", "hello"), hashOnly.getData());
+        assertEquals(1, parses.get());
+    }
+
+    @Test
+    void execute_SharesEntriesBetweenPlainAndPersistedRequests() {
+        // Arrange
+        execute(QUERY, Map.of());
+
+        // Act
+        ExecutionResult hashOnly = execute("PersistedQueryMarker", persistedQuery(PersistedDocumentProvider.sha256(QUERY)));
+
+        // Assert
+        assertEquals(Map.of("greeting", "hello"), hashOnly.getData());
+        assertEquals(1, parses.get());
+    }
+
+    @Test
+    void execute_DoesNotCacheInvalidDocuments() {
+        // Act
+        ExecutionResult first = execute("{ missing }", Map.of());
+        ExecutionResult second = execute("{ missing }", Map.of());
+
+        // Assert
+        assertFalse(first.getErrors().isEmpty());
+        assertFalse(second.getErrors().isEmpty());
+        assertEquals(2, parses.get());
+        assertEquals(0L, provider.stats().get("size"));
+    }
+
+    @Test
+    void execute_RejectsHashThatDoesNotMatchQuery() {
+        // Act
+        ExecutionResult result = execute(QUERY, persistedQuery(PersistedDocumentProvider.sha256("{ other }")));
+
+        // Assert
+        assertEquals("PersistedQueryIdInvalid", result.getErrors().get(0).getMessage());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.demo.config;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryLimitsInstrumentationTest {
+
+    private static final GraphQLSchema SCHEMA = new SchemaGenerator().makeExecutableSchema(
+        new SchemaParser().parse("""
+            type Query { shop(id: ID!): Shop shops(ids: [ID!]!): [Shop] }
+            type Shop { id: ID! name: String storages: [Storage!]! }
+            type Storage { id: ID! name: String products(first: Int = 20): [Product!]! shop: Shop }
+            type Product { id: ID! price: Float }
+            """),
+        RuntimeWiring.newRuntimeWiring().build());
+
+    private ExecutionResult execute(QueryLimitsInstrumentation instrumentation, String query) {
+        return GraphQL.newGraphQL(SCHEMA).instrumentation(instrumentation).build().execute(query);
+    }
+
+    private static String firstError(ExecutionResult result) {
+        assertFalse(result.getErrors().isEmpty());
+        return result.getErrors().get(0).getMessage();
+    }
+
+    @Test
+    void execute_AllowsQueryWithinLimits() {
+        // Arrange
+        QueryLimitsInstrumentation instrumentation = new QueryLimitsInstrumentation(5, 10, 1000, 10);
+
+        // Act
+        ExecutionResult result = execute(instrumentation, "{ shop(id: 1) { id storages { id products { price } } } }");
+
+        // Assert
+        assertTrue(result.getErrors().isEmpty());
+        assertEquals(0, instrumentation.getRejectedCount());
+    }
+
+    @Test
+    void execute_RejectsQueryDeeperThanLimit() {
+        // Arrange
+        QueryLimitsInstrumentation instrumentation = new QueryLimitsInstrumentation(3, 10, 1000, 10);
+
+        // Act
+        ExecutionResult result = execute(instrumentation,
+            "{ shop(id: 1) { storages { shop { storages { id } } } } }");
+
+        // Assert
+        assertEquals("Query depth 5 exceeds the limit of 3", firstError(result));
+        assertEquals(1, instrumentation.getRejectedCount());
+    }
+
+    @Test
+    void execute_CountsAliasesTowardsBreadth() {
+        // Arrange
+        QueryLimitsInstrumentation instrumentation = new QueryLimitsInstrumentation(5, 3, 1000, 10);
+
+        // Act
+        ExecutionResult result = execute(instrumentation,
+            "{ a: shop(id: 1) { id } b: shop(id: 2) { id } c: shop(id: 3) { id } d: shop(id: 4) { id } }");
+
+        // Assert
+        assertEquals("Query selects 4 fields in one selection set, the limit is 3", firstError(result));
+    }
+
+    @Test
+    void execute_MultipliesCostByListArgumentAndDefaultListSize() {
+        // Arrange
+        QueryLimitsInstrumentation instrumentation = new QueryLimitsInstrumentation(5, 10, 50, 10);
+
+        // Act
+        ExecutionResult cheap = execute(instrumentation, "{ shops(ids: [1, 2]) { id storages { id } } }");
+        ExecutionResult expensive = execute(instrumentation, "{ shops(ids: [1, 2, 3, 4, 5]) { id storages { id } } }");
+
+        // Assert
+        assertTrue(cheap.getErrors().isEmpty());
+        assertEquals("Query cost 61 exceeds the limit of 50", firstError(expensive));
+    }
+
+    @Test
+    void execute_MultipliesCostByFirstArgument() {
+        // Arrange
+        QueryLimitsInstrumentation instrumentation = new QueryLimitsInstrumentation(5, 10, 250, 10);
+
+        // Act
+        ExecutionResult small = execute(instrumentation, "{ shop(id: 1) { storages { products(first: 2) { id } } } }");
+        ExecutionResult defaulted = execute(instrumentation, "{ shop(id: 1) { storages { products { id } } } }");
+        ExecutionResult large = execute(instrumentation, "{ shop(id: 1) { storages { products(first: 100) { id } } } }");
+
+        // Assert
+        assertTrue(small.getErrors().isEmpty());
+        assertTrue(defaulted.getErrors().isEmpty());
+        assertEquals("Query cost 1012 exceeds the limit of 250", firstError(large));
+    }
+
+    @Test
+    void execute_ExpandsFragmentsBeforeCounting() {
+        // Arrange
+        QueryLimitsInstrumentation instrumentation = new QueryLimitsInstrumentation(2, 10, 1000, 10);
+
+        // Act
+        ExecutionResult result = execute(instrumentation,
+            "{ shop(id: 1) { ...storages } } fragment storages on Shop { storages { products { id } } }");
+
+        // Assert
+        assertEquals("Query depth 4 exceeds the limit of 2", firstError(result));
+    }
+
+    @Test
+    void constructor_RejectsNonPositiveLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new QueryLimitsInstrumentation(0, 10, 100, 10));
+    }
+}
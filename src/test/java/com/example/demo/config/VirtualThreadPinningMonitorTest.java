@@ -0,0 +1,77 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import com.example.demo.util.CustomLogger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final CustomLogger customLogger = mock(CustomLogger.class);
+
+    @Test
+    void start_DoesNothingWhenVirtualThreadsDisabled() {
+        // Arrange
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(customLogger, false, 20, 10);
+
+        // Act
+        monitor.start();
+
+        // Assert
+        assertFalse(monitor.isActive());
+        verifyNoInteractions(customLogger);
+        monitor.stop();
+    }
+
+    @Test
+    void record_CountsPerSiteAndLogsFirstOccurrence() {
+        // Arrange
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(customLogger, false, 20, 10);
+
+        // Act
+        monitor.record("com.example.demo.service.ShopAccessIndex.get:50", Duration.ofMillis(30));
+        monitor.record("com.example.demo.service.ShopAccessIndex.get:50", Duration.ofMillis(40));
+        monitor.record("com.example.demo.service.LogService.save:12", Duration.ofMillis(25));
+
+        // Assert
+        Map<String, Object> stats = monitor.stats();
+        assertEquals(3L, stats.get("pinned"));
+        assertEquals(95L, stats.get("pinnedMillis"));
+        @SuppressWarnings("unchecked")
+        Map<String, Long> sites = (Map<String, Long>) stats.get("sites");
+        assertEquals(Map.of("com.example.demo.service.ShopAccessIndex.get:50", 2L,
+            "com.example.demo.service.LogService.save:12", 1L), sites);
+        assertEquals("com.example.demo.service.ShopAccessIndex.get:50", sites.keySet().iterator().next());
+        verify(customLogger, times(1)).logInfo(contains("ShopAccessIndex.get:50"));
+        verify(customLogger, times(1)).logInfo(contains("LogService.save:12"));
+    }
+
+    @Test
+    void record_FoldsSitesBeyondLimit() {
+        // Arrange
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(customLogger, false, 20, 1);
+
+        // Act
+        monitor.record("first", Duration.ofMillis(30));
+        monitor.record("second", Duration.ofMillis(30));
+        monitor.record("third", Duration.ofMillis(30));
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        Map<String, Long> sites = (Map<String, Long>) monitor.stats().get("sites");
+        assertEquals(1L, sites.get("first"));
+        assertEquals(2L, sites.get("(other)"));
+    }
+
+    @Test
+    void constructor_RejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new VirtualThreadPinningMonitor(customLogger, true, -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> new VirtualThreadPinningMonitor(customLogger, true, 20, 0));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.controller;
+
+import com.example.demo.config.JwtTokenProvider;
+import com.example.demo.config.PersistedDocumentProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CacheStatsControllerTest {
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Mock
+    private PersistedDocumentProvider persistedDocumentProvider;
+
+    @InjectMocks
+    private CacheStatsController cacheStatsController;
+
+    @Test
+    void getTokenCacheStats_ReturnsTokenCacheStatistics() {
+        // Arrange
+        Map<String, Object> stats = Map.of("cacheHits", 3L, "verifications", 1L);
+        when(jwtTokenProvider.stats()).thenReturn(stats);
+
+        // Act
+        ResponseEntity<?> response = cacheStatsController.getTokenCacheStats();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(stats, response.getBody());
+    }
+
+    @Test
+    void getDocumentCacheStats_ReturnsDocumentCacheStatistics() {
+        // Arrange
+        Map<String, Object> stats = Map.of("size", 2L, "hits", 5L);
+        when(persistedDocumentProvider.stats()).thenReturn(stats);
+
+        // Act
+        ResponseEntity<?> response = cacheStatsController.getDocumentCacheStats();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(stats, response.getBody());
+    }
+}
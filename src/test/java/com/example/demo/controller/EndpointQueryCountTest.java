@@ -0,0 +1,187 @@
+package com.example.demo.controller;
+
+import com.example.demo.models.ProductModel;
+import com.example.demo.models.ShopModel;
+import com.example.demo.models.StorageModel;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.ShopRepository;
+import com.example.demo.repository.StorageRepository;
+import com.example.demo.service.ProductReadCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the fetch plan of each read endpoint: serializing a response must not trigger lazy loads,
+ * so the number of JDBC statements stays fixed regardless of how many associations a row has.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "audit.product-read.flush-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser
+class EndpointQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private StorageRepository storageRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductReadCounter productReadCounter;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private ShopModel shopWithStorages(int storages) {
+        ShopModel shop = new ShopModel();
+        shop.setName("Shop");
+        shop.setStatus(true);
+        for (int i = 0; i < storages; i++) {
+            StorageModel storage = new StorageModel();
+            storage.setName("Storage " + i);
+            shop.getStorages().add(storageRepository.save(storage));
+        }
+        return shopRepository.save(shop);
+    }
+
+    @Test
+    void getShopById_LoadsShopAndStoragesInOneStatement() throws Exception {
+        // Arrange
+        ShopModel shop = shopWithStorages(3);
+        statistics.clear();
+
+        // Act
+        mockMvc.perform(get("/api/shops/list/{shopId}", shop.getId()).header("shopId", shop.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.storageIds.length()").value(3));
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getShopById_ServesRepeatedReadsFromResponseCache() throws Exception {
+        // Arrange
+        ShopModel shop = shopWithStorages(1);
+        String etag = mockMvc.perform(get("/api/shops/list/{shopId}", shop.getId()).header("shopId", shop.getId()))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader("ETag");
+        statistics.clear();
+
+        // Act & Assert
+        mockMvc.perform(get("/api/shops/list/{shopId}", shop.getId()).header("shopId", shop.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", etag))
+            .andExpect(jsonPath("$.id").value(shop.getId().toString()));
+        mockMvc.perform(get("/api/shops/list/{shopId}", shop.getId()).header("shopId", shop.getId())
+                .header("If-None-Match", etag))
+            .andExpect(status().isNotModified());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listShops_UsesOneStatementPerPage() throws Exception {
+        // Arrange
+        shopWithStorages(2);
+        shopWithStorages(2);
+        statistics.clear();
+
+        // Act
+        mockMvc.perform(get("/api/shops/list-all").param("size", "10"))
+            .andExpect(status().isOk());
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getProductById_UsesOneStatementOnCacheMiss() throws Exception {
+        // Arrange
+        ProductModel product = new ProductModel();
+        product.setProductId(UUID.randomUUID());
+        product.setQuantity(1L);
+        product.setPrice(2.0);
+        productRepository.save(product);
+        statistics.clear();
+
+        // Act
+        mockMvc.perform(post("/api/products/get/{productId}", product.getProductId()).with(csrf()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.productId").value(product.getProductId().toString()));
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getProductById_AnswersMatchingEtagWithoutLoadingProduct() throws Exception {
+        // Arrange
+        ProductModel product = new ProductModel();
+        product.setProductId(UUID.randomUUID());
+        product.setQuantity(1L);
+        product.setPrice(2.0);
+        product = productRepository.save(product);
+        statistics.clear();
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products/get/{productId}", product.getProductId())
+                .header("If-None-Match", "\"" + product.getVersion() + "\""))
+            .andExpect(status().isNotModified());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void getProductById_CountsStaleConditionalGetAsOneRead() throws Exception {
+        // Arrange
+        ProductModel product = new ProductModel();
+        product.setProductId(UUID.randomUUID());
+        product.setQuantity(1L);
+        product.setPrice(2.0);
+        product = productRepository.save(product);
+        long before = productReadCounter.getPendingReads(product.getProductId());
+
+        // Act
+        mockMvc.perform(get("/api/products/get/{productId}", product.getProductId())
+                .header("If-None-Match", "\"" + (product.getVersion() + 1) + "\""))
+            .andExpect(status().isOk());
+
+        // Assert
+        assertEquals(before + 1, productReadCounter.getPendingReads(product.getProductId()));
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.ProductChangeEvent;
+import com.example.demo.dto.StorageTotalsEvent;
+import com.example.demo.models.ProductModel;
+import com.example.demo.models.ShopModel;
+import com.example.demo.models.StorageModel;
+import com.example.demo.models.StorageProductModel;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.ShopRepository;
+import com.example.demo.repository.StorageProductRepository;
+import com.example.demo.repository.StorageRepository;
+import com.example.demo.service.InventoryEventBus;
+import com.example.demo.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureGraphQlTester;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A nested shop, storages and products query must cost one statement per level, however many
+ * storages and products each shop has.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "graphql.storage-products.max-first=4"
+})
+@AutoConfigureGraphQlTester
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class InventoryGraphControllerTest {
+
+    private static final String NESTED_QUERY = """
+        query($ids: [ID!]!) {
+          shops(ids: $ids) {
+            id
+            name
+            storages {
+              id
+              name
+              products {
+                quantity
+                product { productId price active }
+              }
+            }
+          }
+        }
+        """;
+
+    @Autowired
+    private GraphQlTester graphQlTester;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private StorageRepository storageRepository;
+
+    @Autowired
+    private StorageProductRepository storageProductRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private InventoryEventBus inventoryEventBus;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private ShopModel shopWithInventory(int storages, int productsPerStorage) {
+        ShopModel shop = new ShopModel();
+        shop.setName("Shop");
+        shop.setStatus(true);
+        for (int i = 0; i < storages; i++) {
+            StorageModel storage = new StorageModel();
+            storage.setName("Storage " + i);
+            storage = storageRepository.save(storage);
+            for (int j = 0; j < productsPerStorage; j++) {
+                ProductModel product = new ProductModel();
+                product.setProductId(UUID.randomUUID());
+                product.setQuantity(5L);
+                product.setPrice(2.5);
+                product.setIsActive(true);
+                product = productRepository.save(product);
+                storageProductRepository.save(new StorageProductModel(storage.getId(), product.getId(), 5L, 12.5));
+            }
+            shop.getStorages().add(storage);
+        }
+        return shopRepository.save(shop);
+    }
+
+    private long nestedQueryStatements(List<UUID> shopIds) {
+        statistics.clear();
+        graphQlTester.document(NESTED_QUERY)
+            .variable("ids", shopIds)
+            .execute()
+            .errors().verify()
+            .path("shops").entityList(Object.class).hasSize(shopIds.size());
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void shops_NestedQueryCostsOneStatementPerLevel() {
+        // Arrange
+        ShopModel small = shopWithInventory(1, 1);
+        ShopModel first = shopWithInventory(3, 4);
+        ShopModel second = shopWithInventory(2, 6);
+
+        // Act
+        long smallStatements = nestedQueryStatements(List.of(small.getId()));
+        long largeStatements = nestedQueryStatements(List.of(first.getId(), second.getId()));
+
+        // Assert
+        assertEquals(4, smallStatements);
+        assertEquals(4, largeStatements);
+    }
+
+    @Test
+    void shops_ResolvesStoragesAndProducts() {
+        // Arrange
+        ShopModel shop = shopWithInventory(2, 3);
+
+        // Act & Assert
+        graphQlTester.document(NESTED_QUERY)
+            .variable("ids", List.of(shop.getId()))
+            .execute()
+            .path("shops[0].storages").entityList(Object.class).hasSize(2)
+            .path("shops[0].storages[0].products").entityList(Object.class).hasSize(3)
+            .path("shops[0].storages[0].products[0].product.price").entity(Double.class).isEqualTo(2.5)
+            .path("shops[0].storages[0].products[0].product.active").entity(Boolean.class).isEqualTo(true);
+    }
+
+    @Test
+    void storage_ProductsHonourFirstAndServerCap() {
+        // Arrange
+        ShopModel shop = shopWithInventory(1, 6);
+        Long storageId = shop.getStorages().iterator().next().getId();
+
+        // Act & Assert
+        graphQlTester.document("query($id: ID!) { storage(id: $id) { two: products(first: 2) { quantity } "
+                + "capped: products(first: 50) { quantity } none: products(first: 0) { quantity } } }")
+            .variable("id", storageId)
+            .execute()
+            .path("storage.two").entityList(Object.class).hasSize(2)
+            .path("storage.capped").entityList(Object.class).hasSize(4)
+            .path("storage.none").entityList(Object.class).hasSize(0);
+    }
+
+    @Test
+    void productChanges_StreamsCommittedAdjustments() throws Exception {
+        // Arrange
+        ProductModel product = new ProductModel();
+        product.setProductId(UUID.randomUUID());
+        product.setQuantity(5L);
+        product.setPrice(2.0);
+        productRepository.save(product);
+        CompletableFuture<Long> quantity = graphQlTester
+            .document("subscription($ids: [ID!]) { productChanges(productIds: $ids) { quantity } }")
+            .variable("ids", List.of(product.getProductId()))
+            .executeSubscription()
+            .toFlux("productChanges.quantity", Long.class)
+            .next()
+            .toFuture();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!inventoryEventBus.hasSubscribers(ProductChangeEvent.class) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Act
+        productService.adjustQuantity(product.getProductId(), 3L, null, UUID.randomUUID());
+
+        // Assert
+        assertEquals(8L, quantity.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void storageTotals_StreamsTotalsWhenProductIsDeleted() throws Exception {
+        // Arrange
+        ShopModel shop = shopWithInventory(1, 2);
+        StorageModel storage = shop.getStorages().iterator().next();
+        UUID productId = storageProductRepository.findByStorageId(storage.getId(), PageRequest.of(0, 1))
+            .getContent().get(0).getProductId();
+        ProductModel product = productRepository.findById(productId).orElseThrow();
+        CompletableFuture<Long> quantity = graphQlTester
+            .document("subscription($ids: [ID!]) { storageTotals(storageIds: $ids) { totalProductsQuantity } }")
+            .variable("ids", List.of(storage.getId()))
+            .executeSubscription()
+            .toFlux("storageTotals.totalProductsQuantity", Long.class)
+            .next()
+            .toFuture();
+        CompletableFuture<Boolean> deleted = graphQlTester
+            .document("subscription($ids: [ID!]) { productChanges(productIds: $ids) { deleted } }")
+            .variable("ids", List.of(product.getProductId()))
+            .executeSubscription()
+            .toFlux("productChanges.deleted", Boolean.class)
+            .next()
+            .toFuture();
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((!inventoryEventBus.hasSubscribers(StorageTotalsEvent.class)
+                || !inventoryEventBus.hasSubscribers(ProductChangeEvent.class)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Act
+        productService.deleteProduct(product.getProductId(), storage.getId(), UUID.randomUUID());
+
+        // Assert
+        assertEquals(storageRepository.findById(storage.getId()).orElseThrow().getTotalProductsQuantity(),
+            quantity.get(5, TimeUnit.SECONDS));
+        assertTrue(deleted.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void storageTotals_StreamsTotalsWhenQuantityIsAdjusted() throws Exception {
+        // Arrange
+        ShopModel shop = shopWithInventory(1, 1);
+        StorageModel storage = shop.getStorages().iterator().next();
+        StorageProductModel link = storageProductRepository.findByStorageId(storage.getId(), PageRequest.of(0, 1))
+            .getContent().get(0);
+        ProductModel product = productRepository.findById(link.getProductId()).orElseThrow();
+        CompletableFuture<Long> quantity = graphQlTester
+            .document("subscription($ids: [ID!]) { storageTotals(storageIds: $ids) { totalProductsQuantity } }")
+            .variable("ids", List.of(storage.getId()))
+            .executeSubscription()
+            .toFlux("storageTotals.totalProductsQuantity", Long.class)
+            .next()
+            .toFuture();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!inventoryEventBus.hasSubscribers(StorageTotalsEvent.class) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Act
+        productService.adjustQuantity(product.getProductId(), 4L, null, UUID.randomUUID());
+
+        // Assert
+        assertEquals(4L, quantity.get(5, TimeUnit.SECONDS));
+        StorageProductModel adjusted = storageProductRepository.findAllByProductId(product.getId()).get(0);
+        assertEquals(9L, adjusted.getQuantity());
+        assertEquals(22.5, adjusted.getValue());
+    }
+
+    @Test
+    void shop_ReturnsNullForUnknownId() {
+        // Act & Assert
+        graphQlTester.document("query($id: ID!) { shop(id: $id) { id } }")
+            .variable("id", UUID.randomUUID())
+            .execute()
+            .path("shop").valueIsNull();
+    }
+
+    @Test
+    void graphqlEndpoint_AnswersAnonymousQueries() throws Exception {
+        mockMvc.perform(post("/graphql")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"query\": \"{ shop(id: \\\"" + UUID.randomUUID() + "\\\") { id } }\"}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.shop").doesNotExist());
+    }
+
+    @Test
+    void graphqlEndpoint_RejectsInvalidBearerToken() throws Exception {
+        mockMvc.perform(post("/graphql")
+                .header("Authorization", "Bearer not-a-token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"query\": \"{ shops(ids: []) { id } }\"}"))
+            .andExpect(status().isUnauthorized());
+    }
+}
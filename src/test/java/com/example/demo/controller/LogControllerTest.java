@@ -1,8 +1,12 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.LogPageResponse;
 import com.example.demo.enums.LogPermissionEnum;
 import com.example.demo.models.LogModel;
 import com.example.demo.service.LogService;
+import com.example.demo.service.LogTimestampBackfill;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.coyote.BadRequestException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,15 +14,24 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +40,9 @@ class LogControllerTest {
     @Mock
     private LogService logService;
 
+    @Mock
+    private LogTimestampBackfill logTimestampBackfill;
+
     @InjectMocks
     private LogController logController;
 
@@ -82,4 +98,72 @@ class LogControllerTest {
         // The Mockito extension with @Mock and @InjectMocks handles verification
         // that the service was called with the correct parameters
     }
-}
\ No newline at end of file
+
+    @Test
+    void getLogsPage_shouldReturnPageFromService() throws BadRequestException {
+        // Arrange
+        LogPageResponse page = new LogPageResponse(List.of(new LogModel()), 1, "next");
+        when(logService.getLogsPage(eq(testStoreId), eq(testPermission), isNull(), eq(10)))
+                .thenReturn(page);
+
+        // Act
+        ResponseEntity<?> response = logController.getLogsPage(testStoreId, testPermission, null, 10);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    void getLogsPage_shouldPropagateInvalidCursor() throws BadRequestException {
+        // Arrange
+        when(logService.getLogsPage(testStoreId, testPermission, "bad", null))
+                .thenThrow(new BadRequestException("Invalid cursor"));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class,
+                () -> logController.getLogsPage(testStoreId, testPermission, "bad", null));
+    }
+
+    @Test
+    void streamLogs_shouldWriteOneJsonDocumentPerLine() throws IOException {
+        // Arrange
+        LogController streamingController = new LogController(logService, new ObjectMapper(), logTimestampBackfill);
+        LogModel first = new LogModel();
+        first.setId(1L);
+        LogModel second = new LogModel();
+        second.setId(2L);
+        doAnswer(invocation -> {
+            Consumer<LogModel> consumer = invocation.getArgument(2);
+            consumer.accept(first);
+            consumer.accept(second);
+            return 2L;
+        }).when(logService).streamLogs(eq(testStoreId), eq(testPermission), any());
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = streamingController.streamLogs(testStoreId, testPermission);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        // Assert
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"id\":1"));
+        assertTrue(lines[1].contains("\"id\":2"));
+    }
+
+    @Test
+    void migrateTimestamps_shouldReturnMigrationResult() {
+        // Arrange
+        Map<String, Object> result = Map.of("backfilledRows", 3L, "tablesMadeNotNull", List.of("logs"));
+        when(logTimestampBackfill.migrate()).thenReturn(result);
+
+        // Act
+        ResponseEntity<?> response = logController.migrateTimestamps();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(result, response.getBody());
+    }
+}
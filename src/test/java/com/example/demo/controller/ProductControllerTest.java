@@ -1,10 +1,15 @@
 package com.example.demo.controller;
 
-import com.example.demo.config.JwtTokenProvider;
+import com.example.demo.dto.BulkProductResponse;
+import com.example.demo.dto.ProductResponse;
+import com.example.demo.dto.ProductStockResponse;
+import com.example.demo.dto.ResourceVersion;
 import com.example.demo.exception.NotFoundException;
 import com.example.demo.models.ProductModel;
+import com.example.demo.service.ProductCache;
 import com.example.demo.service.ProductService;
 import com.example.demo.util.CustomLogger;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,12 +18,21 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,8 +44,9 @@ class ProductControllerTest {
     @Mock
     private CustomLogger logger;
 
+
     @Mock
-    private JwtTokenProvider jwtTokenProvider;
+    private ProductCache productCache;
 
     @InjectMocks
     private ProductController productController;
@@ -39,25 +54,27 @@ class ProductControllerTest {
     private final UUID testUserId = UUID.randomUUID();
     private final UUID testProductId = UUID.randomUUID();
     private final Long testStorageId = 1L;
-    private final String authToken = "Bearer token";
 
     private ProductModel testProduct;
+    private MockHttpServletRequest httpRequest;
+    private ServletWebRequest webRequest;
 
     @BeforeEach
     void setUp() {
         testProduct = new ProductModel();
         testProduct.setId(testProductId);
+        httpRequest = new MockHttpServletRequest("GET", "/api/products/get/" + testProductId);
+        webRequest = new ServletWebRequest(httpRequest, new MockHttpServletResponse());
     }
 
     @SuppressWarnings("null")
     @Test
     void createProduct_Success() throws NotFoundException {
         // Arrange
-        when(jwtTokenProvider.retrieveIdFromToken(anyString())).thenReturn(testUserId);
         when(productService.createProduct(any(ProductModel.class), anyLong(), any(UUID.class))).thenReturn(testProductId);
 
         // Act
-        ResponseEntity<?> response = productController.createProduct(testProduct, testStorageId, authToken);
+        ResponseEntity<?> response = productController.createProduct(testProduct, testStorageId, testUserId);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -80,25 +97,75 @@ class ProductControllerTest {
         when(productService.getProductById(testProductId)).thenReturn(testProduct);
 
         // Act
-        ResponseEntity<?> response = productController.getProductById(testProductId);
+        ResponseEntity<?> response = productController.getProductById(testProductId, webRequest);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(testProduct, response.getBody());
+        assertEquals(ProductResponse.from(testProduct), response.getBody());
+        assertEquals("\"0\"", response.getHeaders().getETag());
 
         verify(logger, times(1)).logDebug("Fetching product with ID: " + testProductId);
         verify(logger, times(1)).logDebug("Product retrieved: " + testProduct);
         verify(productService, times(1)).getProductById(testProductId);
+        verify(productService, never()).getProductVersion(any());
+    }
+
+    @Test
+    void getProductById_NotModifiedSinceVersion() throws NotFoundException {
+        // Arrange
+        httpRequest.addHeader("If-None-Match", "\"5\"");
+        when(productService.getProductVersion(testProductId)).thenReturn(new ResourceVersion(5L, "1000"));
+
+        // Act
+        ResponseEntity<?> response = productController.getProductById(testProductId, webRequest);
+
+        // Assert
+        assertNull(response);
+        assertEquals(304, webRequest.getResponse().getStatus());
+        verify(productService, never()).getProductById(any());
+        verify(productService, times(1)).recordRead(testProductId);
+    }
+
+    @Test
+    void getProductById_NotModifiedSinceTimestamp() throws NotFoundException {
+        // Arrange
+        httpRequest.addHeader("If-Modified-Since", 2000L);
+        when(productService.getProductVersion(testProductId)).thenReturn(new ResourceVersion(5L, "1000"));
+
+        // Act
+        ResponseEntity<?> response = productController.getProductById(testProductId, webRequest);
+
+        // Assert
+        assertNull(response);
+        verify(productService, never()).getProductById(any());
+    }
+
+    @Test
+    void getProductById_StaleValidatorReturnsBody() throws NotFoundException {
+        // Arrange
+        testProduct.setVersion(6L);
+        testProduct.setUpdatedAt("3000");
+        httpRequest.addHeader("If-None-Match", "\"5\"");
+        when(productService.getProductVersion(testProductId)).thenReturn(new ResourceVersion(6L, "3000"));
+        when(productService.getProductById(testProductId)).thenReturn(testProduct);
+
+        // Act
+        ResponseEntity<?> response = productController.getProductById(testProductId, webRequest);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"6\"", response.getHeaders().getETag());
+        assertEquals(3000L, response.getHeaders().getLastModified());
+        verify(productService, never()).recordRead(any());
     }
 
     @SuppressWarnings("null")
     @Test
     void updateProduct_Success() throws NotFoundException {
         // Arrange
-        when(jwtTokenProvider.retrieveIdFromToken(anyString())).thenReturn(testUserId);
 
         // Act
-        ResponseEntity<?> response = productController.updateProduct(testProduct, authToken);
+        ResponseEntity<?> response = productController.updateProduct(testProduct, testUserId);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -118,10 +185,9 @@ class ProductControllerTest {
     @Test
     void deactivateProduct_Success() throws NotFoundException {
         // Arrange
-        when(jwtTokenProvider.retrieveIdFromToken(anyString())).thenReturn(testUserId);
 
         // Act
-        ResponseEntity<?> response = productController.deactivateProduct(testProductId, authToken);
+        ResponseEntity<?> response = productController.deactivateProduct(testProductId, testUserId);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -141,10 +207,9 @@ class ProductControllerTest {
     @Test
     void activateProduct_Success() throws NotFoundException {
         // Arrange
-        when(jwtTokenProvider.retrieveIdFromToken(anyString())).thenReturn(testUserId);
 
         // Act
-        ResponseEntity<?> response = productController.activateProduct(testProductId, authToken);
+        ResponseEntity<?> response = productController.activateProduct(testProductId, testUserId);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -163,10 +228,9 @@ class ProductControllerTest {
     @Test
     void deleteProduct_Success() throws NotFoundException {
         // Arrange
-        when(jwtTokenProvider.retrieveIdFromToken(anyString())).thenReturn(testUserId);
 
         // Act
-        ResponseEntity<?> response = productController.deleteProduct(testProductId, testStorageId, authToken);
+        ResponseEntity<?> response = productController.deleteProduct(testProductId, testStorageId, testUserId);
 
         // Assert
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
@@ -184,10 +248,102 @@ class ProductControllerTest {
 
         // Act & Assert
         assertThrows(NotFoundException.class, () -> {
-            productController.getProductById(testProductId);
+            productController.getProductById(testProductId, webRequest);
         });
 
         verify(logger, times(1)).logDebug("Fetching product with ID: " + testProductId);
         verify(productService, times(1)).getProductById(testProductId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCacheStats_ReturnsCacheStatistics() {
+        // Arrange
+        Map<String, Object> stats = Map.of("hits", 3L, "misses", 1L);
+        when(productCache.stats()).thenReturn(stats);
+
+        // Act
+        ResponseEntity<?> response = productController.getCacheStats();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(stats, response.getBody());
+    }
+
+    @Test
+    void bulkUpsertProducts_ParsesNdjsonStream() throws Exception {
+        // Arrange
+        ProductController bulkController = new ProductController(productService, logger,
+            productCache, new ObjectMapper());
+        BulkProductResponse expected = new BulkProductResponse(2, 0, 0, List.of());
+        List<ProductModel> received = new ArrayList<>();
+        when(productService.bulkUpsertProducts(any(), eq(testStorageId), eq(testUserId))).thenAnswer(invocation -> {
+            Iterator<ProductModel> products = invocation.getArgument(0);
+            products.forEachRemaining(received::add);
+            return expected;
+        });
+        String body = "{\"quantity\":1,\"price\":2.0}\n{\"quantity\":3,\"price\":4.0}\n";
+
+        // Act
+        ResponseEntity<?> response = bulkController.bulkUpsertProducts(
+            new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), testStorageId, testUserId);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(expected, response.getBody());
+        assertEquals(2, received.size());
+        assertEquals(3L, received.get(1).getQuantity());
+    }
+
+    @Test
+    void bulkUpsertProducts_ParsesJsonArray() throws Exception {
+        // Arrange
+        ProductController bulkController = new ProductController(productService, logger,
+            productCache, new ObjectMapper());
+        List<ProductModel> received = new ArrayList<>();
+        when(productService.bulkUpsertProducts(any(), eq(testStorageId), eq(testUserId))).thenAnswer(invocation -> {
+            Iterator<ProductModel> products = invocation.getArgument(0);
+            products.forEachRemaining(received::add);
+            return new BulkProductResponse(received.size(), 0, 0, List.of());
+        });
+        String body = "[{\"quantity\":1,\"price\":2.0},{\"quantity\":3,\"price\":4.0}]";
+
+        // Act
+        bulkController.bulkUpsertProducts(
+            new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), testStorageId, testUserId);
+
+        // Assert
+        assertEquals(2, received.size());
+        assertEquals(2.0, received.get(0).getPrice());
+    }
+
+    @Test
+    void bulkUpsertProducts_ReturnsPartialResultWhenStreamBreaks() throws Exception {
+        // Arrange
+        ProductController bulkController = new ProductController(productService, logger,
+            productCache, new ObjectMapper());
+        BulkProductResponse partial = new BulkProductResponse(1, 0, 0, List.of("Item 1: unreadable"), 1);
+        when(productService.bulkUpsertProducts(any(), eq(testStorageId), eq(testUserId))).thenReturn(partial);
+
+        // Act
+        ResponseEntity<?> response = bulkController.bulkUpsertProducts(
+            new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8)), testStorageId, testUserId);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(partial, response.getBody());
+    }
+
+    @Test
+    void adjustQuantity_ReturnsNewStock() throws Exception {
+        // Arrange
+        ProductStockResponse stock = new ProductStockResponse(testProductId, 12L, 2L);
+        when(productService.adjustQuantity(testProductId, 2L, null, testUserId)).thenReturn(stock);
+
+        // Act
+        ResponseEntity<?> response = productController.adjustQuantity(testProductId, 2L, null, testUserId);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(stock, response.getBody());
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.demo.controller;
+
+import com.example.demo.enums.LogPermissionEnum;
+import com.example.demo.models.LogModel;
+import com.example.demo.models.ProductModel;
+import com.example.demo.models.ShopModel;
+import com.example.demo.models.StorageModel;
+import com.example.demo.repository.LogRepository;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.ShopRepository;
+import com.example.demo.repository.StorageRepository;
+import com.example.demo.service.ProductCache;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the R2DBC read path against the same H2 database the JPA repositories write to.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser
+class ReactiveReadControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private StorageRepository storageRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private LogRepository logRepository;
+
+    @Autowired
+    private ProductCache productCache;
+
+    private ResultActions performAsync(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
+    private ShopModel shop(String name, UUID responsibleId, boolean status) {
+        ShopModel shop = new ShopModel();
+        shop.setName(name);
+        shop.setResponsibleId(responsibleId);
+        shop.setStatus(status);
+        return shopRepository.save(shop);
+    }
+
+    @Test
+    void listShops_PagesWithCursor() throws Exception {
+        // Arrange
+        UUID responsibleId = UUID.randomUUID();
+        shop("A", responsibleId, true);
+        shop("B", responsibleId, true);
+        shop("C", responsibleId, false);
+
+        // Act
+        MvcResult first = performAsync(get("/api/reactive/shops/list-all")
+                .param("responsibleId", responsibleId.toString())
+                .param("active", "true")
+                .param("size", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.size").value(1))
+            .andReturn();
+        String cursor = JsonPath.read(first.getResponse().getContentAsString(), "$.nextCursor");
+
+        // Assert
+        performAsync(get("/api/reactive/shops/list-all")
+                .param("responsibleId", responsibleId.toString())
+                .param("active", "true")
+                .param("size", "1")
+                .param("cursor", cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.size").value(1))
+            .andExpect(jsonPath("$.shops[0].responsibleId").value(responsibleId.toString()))
+            .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+
+    @Test
+    void streamShops_WritesNewlineDelimitedJson() throws Exception {
+        // Arrange
+        UUID responsibleId = UUID.randomUUID();
+        shop("A", responsibleId, true);
+        shop("B", responsibleId, true);
+
+        // Act
+        String body = performAsync(get("/api/reactive/shops/stream")
+                .param("responsibleId", responsibleId.toString())
+                .accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        assertEquals(2, body.lines().filter(line -> !line.isBlank()).count());
+    }
+
+    @Test
+    void getShopById_ReturnsShopWithStorageIds() throws Exception {
+        // Arrange
+        StorageModel first = new StorageModel();
+        first.setName("First");
+        StorageModel second = new StorageModel();
+        second.setName("Second");
+        ShopModel shop = new ShopModel();
+        shop.setName("Shop");
+        shop.setStatus(true);
+        shop.getStorages().add(storageRepository.save(first));
+        shop.getStorages().add(storageRepository.save(second));
+        shop = shopRepository.save(shop);
+
+        // Act & Assert
+        performAsync(get("/api/reactive/shops/list/" + shop.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(shop.getId().toString()))
+            .andExpect(jsonPath("$.name").value("Shop"))
+            .andExpect(jsonPath("$.storageIds", containsInAnyOrder(first.getId().intValue(), second.getId().intValue())));
+    }
+
+    @Test
+    void getShopById_Returns404ForUnknownShop() throws Exception {
+        performAsync(get("/api/reactive/shops/list/" + UUID.randomUUID()))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getProductById_ReadsDatabaseAndFillsCache() throws Exception {
+        // Arrange
+        ProductModel product = new ProductModel();
+        product.setProductId(UUID.randomUUID());
+        product.setQuantity(5L);
+        product.setPrice(2.5);
+        product.setIsActive(true);
+        product = productRepository.save(product);
+
+        // Act
+        performAsync(get("/api/reactive/products/get/" + product.getProductId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(jsonPath("$.productId").value(product.getProductId().toString()))
+            .andExpect(jsonPath("$.quantity").value(5))
+            .andExpect(jsonPath("$.price").value(2.5));
+
+        // Assert
+        assertEquals(product.getId(), productCache.get(product.getProductId()).getId());
+    }
+
+    @Test
+    void getLogs_ReturnsArrayOrStream() throws Exception {
+        // Arrange
+        UUID storeId = UUID.randomUUID();
+        for (int i = 0; i < 3; i++) {
+            LogModel log = new LogModel();
+            log.setMessage("Log " + i);
+            log.setLogPermission(LogPermissionEnum.MANAGER);
+            log.setTimestamp(new Date(1_000_000L * (i + 1)));
+            log.setStoreId(storeId);
+            logRepository.save(log);
+        }
+
+        // Act & Assert
+        performAsync(get("/api/reactive/logs/get-all/" + storeId)
+                .param("logPermission", "MANAGER")
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(3)))
+            .andExpect(jsonPath("$[0].message").value("Log 2"))
+            .andExpect(jsonPath("$[0].logPermission").value("MANAGER"));
+
+        String body = performAsync(get("/api/reactive/logs/get-all/" + storeId)
+                .param("logPermission", "MANAGER")
+                .accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        assertEquals(3, body.lines().filter(line -> !line.isBlank()).count());
+    }
+}
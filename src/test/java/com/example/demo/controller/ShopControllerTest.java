@@ -1,10 +1,17 @@
 package com.example.demo.controller;
 
-import com.example.demo.config.JwtTokenProvider;
+import com.example.demo.dto.ResourceVersion;
+import com.example.demo.dto.ShopPageResponse;
+import com.example.demo.dto.ShopResponse;
+import com.example.demo.dto.ShopSummary;
 import com.example.demo.exception.NotFoundException;
 import com.example.demo.models.ShopModel;
+import com.example.demo.service.ShopAccessIndex;
+import com.example.demo.service.ShopResponseCache;
+import com.example.demo.service.ShopResponseCache.CachedResponse;
 import com.example.demo.service.ShopService;
 import com.example.demo.util.CustomLogger;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import org.apache.coyote.BadRequestException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +21,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.*;
 
@@ -30,20 +40,27 @@ class ShopControllerTest {
     @Mock
     private CustomLogger logger;
 
+
+    @Mock
+    private ShopResponseCache shopResponseCache;
+
     @Mock
-    private JwtTokenProvider jwtTokenProvider;
+    private ShopAccessIndex shopAccessIndex;
 
     @InjectMocks
     private ShopController shopController;
 
     private final UUID testUserId = UUID.randomUUID();
     private final UUID testShopId = UUID.randomUUID();
-    private final String authToken = "Bearer token";
 
     private ShopModel testShop;
+    private MockHttpServletRequest httpRequest;
+    private ServletWebRequest webRequest;
 
     @BeforeEach
     void setUp() {
+        httpRequest = new MockHttpServletRequest("GET", "/api/shops/list/" + testShopId);
+        webRequest = new ServletWebRequest(httpRequest, new MockHttpServletResponse());
         testShop = new ShopModel();
         testShop.setId(testShopId);
         testShop.setName("Test Shop");
@@ -54,11 +71,10 @@ class ShopControllerTest {
     @Test
     void createShop_Success() throws BadRequestException {
         // Arrange
-        when(jwtTokenProvider.retrieveIdFromToken(anyString())).thenReturn(testUserId);
         when(shopService.createShop(any(ShopModel.class), any(UUID.class))).thenReturn(testShopId);
 
         // Act
-        ResponseEntity<?> response = shopController.createShop(testShop, authToken);
+        ResponseEntity<?> response = shopController.createShop(testShop, testUserId);
 
         // Assert
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
@@ -77,13 +93,12 @@ class ShopControllerTest {
     @Test
     void createShop_BadRequest() throws BadRequestException {
         // Arrange
-        when(jwtTokenProvider.retrieveIdFromToken(anyString())).thenReturn(testUserId);
         when(shopService.createShop(any(ShopModel.class), any(UUID.class)))
             .thenThrow(new BadRequestException("Invalid shop data"));
 
         // Act & Assert
         assertThrows(BadRequestException.class, () -> {
-            shopController.createShop(testShop, authToken);
+            shopController.createShop(testShop, testUserId);
         });
 
         verify(logger).logInfo("Attempting to create new shop: " + testShop.getName());
@@ -91,46 +106,68 @@ class ShopControllerTest {
     }
 
     @Test
-    void listShops_Success() {
+    void listShops_Success() throws BadRequestException, JsonProcessingException {
         // Arrange
-        List<ShopModel> shops = Arrays.asList(testShop, new ShopModel());
-        when(shopService.getAllShops()).thenReturn(shops);
+        List<ShopSummary> shops = List.of(mock(ShopSummary.class), mock(ShopSummary.class));
+        ShopPageResponse page = new ShopPageResponse(shops, shops.size(), "next");
+        CachedResponse encoded = new CachedResponse("{}".getBytes(), "\"etag\"", -1);
+        when(shopResponseCache.generation()).thenReturn(7L);
+        when(shopService.getShopsPage(true, testUserId, null, 2)).thenReturn(page);
+        when(shopResponseCache.put(anyString(), eq(7L), eq(page))).thenReturn(encoded);
 
         // Act
-        ResponseEntity<?> response = shopController.listShops();
+        ResponseEntity<?> response = shopController.listShops(true, testUserId, null, 2);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(shops, response.getBody());
+        assertSame(encoded.body(), response.getBody());
+        assertEquals("\"etag\"", response.getHeaders().getETag());
 
         verify(logger).logDebug("Fetching list of all shops");
         verify(logger).logDebug("Successfully retrieved " + shops.size() + " shops");
     }
 
     @Test
-    void listShops_Empty() {
+    void listShops_Empty() throws BadRequestException, JsonProcessingException {
         // Arrange
-        when(shopService.getAllShops()).thenReturn(Collections.emptyList());
+        ShopPageResponse page = new ShopPageResponse(List.of(), 0, null);
+        when(shopService.getShopsPage(null, null, null, null)).thenReturn(page);
+        when(shopResponseCache.put(anyString(), anyLong(), eq(page))).thenReturn(new CachedResponse(new byte[0], "\"empty\"", -1));
 
         // Act
-        ResponseEntity<?> response = shopController.listShops();
+        ResponseEntity<?> response = shopController.listShops(null, null, null, null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertTrue(((Collection<?>) Objects.requireNonNull(response.getBody())).isEmpty());
 
         verify(logger).logDebug("Fetching list of all shops");
         verify(logger).logDebug("Successfully retrieved 0 shops");
     }
 
+    @Test
+    void listShops_CacheHitSkipsService() throws BadRequestException {
+        // Arrange
+        CachedResponse cached = new CachedResponse("{}".getBytes(), "\"cached\"", -1);
+        when(shopResponseCache.get("list:true:null:null:10")).thenReturn(cached);
+
+        // Act
+        ResponseEntity<?> response = shopController.listShops(true, null, null, 10);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(cached.body(), response.getBody());
+        assertEquals("\"cached\"", response.getHeaders().getETag());
+        verifyNoInteractions(shopService);
+    }
+
     @SuppressWarnings("null")
     @Test
-    void listShops_Error() {
+    void listShops_Error() throws BadRequestException {
         // Arrange
-        when(shopService.getAllShops()).thenThrow(new RuntimeException("Database error"));
+        when(shopService.getShopsPage(null, null, null, null)).thenThrow(new RuntimeException("Database error"));
 
         // Act
-        ResponseEntity<?> response = shopController.listShops();
+        ResponseEntity<?> response = shopController.listShops(null, null, null, null);
 
         // Assert
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
@@ -143,15 +180,24 @@ class ShopControllerTest {
         verify(logger).logError(eq("Failed to retrieve shops list"), any(RuntimeException.class));
     }
 
+    @Test
+    void listShops_InvalidCursor() throws BadRequestException {
+        // Arrange
+        when(shopService.getShopsPage(null, null, "bad", null)).thenThrow(new BadRequestException("Invalid cursor"));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> shopController.listShops(null, null, "bad", null));
+        verify(logger).logError(eq("Invalid shops list request"), any(BadRequestException.class));
+    }
+
     @SuppressWarnings("null")
     @Test
     void deactivateShop_Success() throws BadRequestException, IllegalAccessException {
         // Arrange
-        when(jwtTokenProvider.retrieveIdFromToken(anyString())).thenReturn(testUserId);
         when(shopService.deactivateShop(testShopId, testUserId)).thenReturn(true);
 
         // Act
-        ResponseEntity<?> response = shopController.deactivateShop(testShopId, authToken);
+        ResponseEntity<?> response = shopController.deactivateShop(testShopId, testUserId);
 
         // Assert
         assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
@@ -169,12 +215,11 @@ class ShopControllerTest {
     @Test
     void deactivateShop_Failure() throws BadRequestException, IllegalAccessException {
         // Arrange
-        when(jwtTokenProvider.retrieveIdFromToken(anyString())).thenReturn(testUserId);
         when(shopService.deactivateShop(testShopId, testUserId)).thenReturn(false);
 
         // Act & Assert
         assertThrows(BadRequestException.class, () -> {
-            shopController.deactivateShop(testShopId, authToken);
+            shopController.deactivateShop(testShopId, testUserId);
         });
 
         verify(logger).logInfo(String.format(
@@ -185,12 +230,9 @@ class ShopControllerTest {
 
     @Test
     void deactivateShop_NullParameters() {
-        // Arrange
-        when(jwtTokenProvider.retrieveIdFromToken(anyString())).thenReturn(null);
-
         // Act & Assert
         assertThrows(BadRequestException.class, () -> {
-            shopController.deactivateShop(testShopId, authToken);
+            shopController.deactivateShop(testShopId, null);
         });
 
         verify(logger).logError(anyString(), any(BadRequestException.class));
@@ -200,11 +242,10 @@ class ShopControllerTest {
     @Test
     void activateShop_Success() throws BadRequestException, IllegalAccessException {
         // Arrange
-        when(jwtTokenProvider.retrieveIdFromToken(anyString())).thenReturn(testUserId);
         when(shopService.activateShop(testShopId, testUserId)).thenReturn(true);
 
         // Act
-        ResponseEntity<?> response = shopController.activateShop(authToken, testShopId);
+        ResponseEntity<?> response = shopController.activateShop(testUserId, testShopId);
 
         // Assert
         assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
@@ -222,12 +263,11 @@ class ShopControllerTest {
     @Test
     void activateShop_Failure() throws BadRequestException, IllegalAccessException {
         // Arrange
-        when(jwtTokenProvider.retrieveIdFromToken(anyString())).thenReturn(testUserId);
         when(shopService.activateShop(testShopId, testUserId)).thenReturn(false);
 
         // Act & Assert
         assertThrows(BadRequestException.class, () -> {
-            shopController.activateShop(authToken, testShopId);
+            shopController.activateShop(testUserId, testShopId);
         });
 
         verify(logger).logInfo(String.format(
@@ -237,16 +277,20 @@ class ShopControllerTest {
     }
 
     @Test
-    void getShopById_Success()  throws NotFoundException{
+    void getShopById_Success() throws NotFoundException, JsonProcessingException {
         // Arrange
-        when(shopService.getShopById(testShopId)).thenReturn(testShop);
+        ShopResponse shop = ShopResponse.from(testShop);
+        CachedResponse encoded = new CachedResponse("{}".getBytes(), "\"shop\"", -1);
+        when(shopService.getShopById(testShopId)).thenReturn(shop);
+        when(shopResponseCache.put(eq("shop:" + testShopId), anyLong(), eq(shop), any(ResourceVersion.class))).thenReturn(encoded);
 
         // Act
-        ResponseEntity<?> response = shopController.getShopById(testShopId);
+        ResponseEntity<?> response = shopController.getShopById(testShopId, webRequest);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(testShop, response.getBody());
+        assertSame(encoded.body(), response.getBody());
+        assertEquals("\"shop\"", response.getHeaders().getETag());
 
         verify(logger).logDebug("Fetching shop by ID: " + testShopId);
         verify(logger).logDebug("Successfully retrieved shop: " + testShopId);
@@ -259,7 +303,7 @@ class ShopControllerTest {
         when(shopService.getShopById(testShopId)).thenThrow(new RuntimeException("Database error"));
 
         // Act
-        ResponseEntity<?> response = shopController.getShopById(testShopId);
+        ResponseEntity<?> response = shopController.getShopById(testShopId, webRequest);
 
         // Assert
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
@@ -273,18 +317,66 @@ class ShopControllerTest {
     }
 
     @Test
-    void getShopById_NotFound() throws NotFoundException{
+    void getShopById_NotFound() throws NotFoundException, JsonProcessingException {
         // Arrange
-        when(shopService.getShopById(testShopId)).thenReturn(null);
+        when(shopService.getShopById(testShopId)).thenThrow(new NotFoundException("Shop not found"));
 
         // Act
-        ResponseEntity<?> response = shopController.getShopById(testShopId);
+        ResponseEntity<?> response = shopController.getShopById(testShopId, webRequest);
 
         // Assert
-        assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertNull(response.getBody());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        verify(shopResponseCache, never()).put(anyString(), anyLong(), any(), any(ResourceVersion.class));
 
         verify(logger).logDebug("Fetching shop by ID: " + testShopId);
-        verify(logger).logDebug("Successfully retrieved shop: " + testShopId);
+        verify(logger).logError(eq("Failed to retrieve shop: " + testShopId), any(NotFoundException.class));
+    }
+
+    @Test
+    void getShopById_NotModifiedSkipsLoading() throws NotFoundException {
+        // Arrange
+        httpRequest.addHeader("If-None-Match", "\"3\"");
+        when(shopService.getShopVersion(testShopId)).thenReturn(new ResourceVersion(3L, null));
+
+        // Act
+        ResponseEntity<?> response = shopController.getShopById(testShopId, webRequest);
+
+        // Assert
+        assertNull(response);
+        assertEquals(304, webRequest.getResponse().getStatus());
+        verify(shopService, never()).getShopById(any());
+    }
+
+    @Test
+    void getShopById_ChangedVersionLoadsShop() throws NotFoundException, JsonProcessingException {
+        // Arrange
+        testShop.setVersion(4L);
+        ShopResponse shop = ShopResponse.from(testShop);
+        httpRequest.addHeader("If-None-Match", "\"3\"");
+        when(shopService.getShopVersion(testShopId)).thenReturn(new ResourceVersion(4L, null));
+        when(shopService.getShopById(testShopId)).thenReturn(shop);
+        when(shopResponseCache.put(eq("shop:" + testShopId), anyLong(), eq(shop), eq(new ResourceVersion(4L, null))))
+            .thenReturn(new CachedResponse("{}".getBytes(), "\"4\"", -1));
+
+        // Act
+        ResponseEntity<?> response = shopController.getShopById(testShopId, webRequest);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void getAccessCacheStats_ReturnsAccessIndexStatistics() {
+        // Arrange
+        Map<String, Object> stats = Map.of("size", 4L, "hits", 9L);
+        when(shopAccessIndex.stats()).thenReturn(stats);
+
+        // Act
+        ResponseEntity<?> response = shopController.getAccessCacheStats();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(stats, response.getBody());
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,12 @@
 package com.example.demo.controller;
 
-import com.example.demo.config.JwtTokenProvider;
+import com.example.demo.dto.StorageTransferRequest;
+import com.example.demo.dto.StorageTransferResponse;
 import com.example.demo.exception.NotFoundException;
 import com.example.demo.models.StorageModel;
+import com.example.demo.models.StorageProductModel;
+import com.example.demo.service.InventoryReconciliationService;
+import com.example.demo.service.InventoryReconciliationService.ReconciliationReport;
 import com.example.demo.service.StorageService;
 import com.example.demo.util.CustomLogger;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,11 +15,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -31,8 +40,9 @@ class StorageControllerTest {
     @Mock
     private CustomLogger logger;
 
+
     @Mock
-    private JwtTokenProvider jwtTokenProvider;
+    private InventoryReconciliationService reconciliationService;
 
     @InjectMocks
     private StorageController storageController;
@@ -41,7 +51,6 @@ class StorageControllerTest {
     private final UUID testStoreId = UUID.randomUUID();
     private final UUID testProductId = UUID.randomUUID();
     private final Long testStorageId = 1L;
-    private final String authToken = "Bearer token";
 
     private StorageModel testStorage;
 
@@ -56,11 +65,10 @@ class StorageControllerTest {
     @Test
     void createStorage_Success() {
         // Arrange
-        when(jwtTokenProvider.retrieveIdFromToken(anyString())).thenReturn(testUserId);
         when(storageService.createNewStorage(any(), any(), any())).thenReturn(testStorageId);
 
         // Act
-        ResponseEntity<?> response = storageController.createStorage(testStorage, authToken, testStoreId);
+        ResponseEntity<?> response = storageController.createStorage(testStorage, testUserId, testStoreId);
 
         // Assert
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
@@ -80,12 +88,11 @@ class StorageControllerTest {
     @Test
     void createStorage_Failure() {
         // Arrange
-        when(jwtTokenProvider.retrieveIdFromToken(anyString())).thenReturn(testUserId);
         when(storageService.createNewStorage(any(), any(), any()))
             .thenThrow(new RuntimeException("Creation failed"));
 
         // Act
-        ResponseEntity<?> response = storageController.createStorage(testStorage, authToken, testStoreId);
+        ResponseEntity<?> response = storageController.createStorage(testStorage, testUserId, testStoreId);
 
         // Assert
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -103,11 +110,10 @@ class StorageControllerTest {
     @Test
     void updateStorage_Success() throws NotFoundException {
         // Arrange
-        when(jwtTokenProvider.retrieveIdFromToken(anyString())).thenReturn(testUserId);
         when(storageService.updateStorage(any(), any(), any())).thenReturn(true);
 
         // Act
-        ResponseEntity<?> response = storageController.updateStorage(testStorage, authToken, testStoreId);
+        ResponseEntity<?> response = storageController.updateStorage(testStorage, testUserId, testStoreId);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -125,11 +131,10 @@ class StorageControllerTest {
     @Test
     void updateStorage_Failure() throws NotFoundException {
         // Arrange
-        when(jwtTokenProvider.retrieveIdFromToken(anyString())).thenReturn(testUserId);
         when(storageService.updateStorage(any(), any(), any())).thenReturn(false);
 
         // Act
-        ResponseEntity<?> response = storageController.updateStorage(testStorage, authToken, testStoreId);
+        ResponseEntity<?> response = storageController.updateStorage(testStorage, testUserId, testStoreId);
 
         // Assert
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -145,12 +150,11 @@ class StorageControllerTest {
     @Test
     void updateStorage_NotFound() throws NotFoundException {
         // Arrange
-        when(jwtTokenProvider.retrieveIdFromToken(anyString())).thenReturn(testUserId);
         when(storageService.updateStorage(any(), any(), any())).thenThrow(new NotFoundException("Not found"));
 
         // Act & Assert
         assertThrows(NotFoundException.class, () -> {
-            storageController.updateStorage(testStorage, authToken, testStoreId);
+            storageController.updateStorage(testStorage, testUserId, testStoreId);
         });
 
         verify(logger).logInfo("Attempting to update storage ID: " + testStorage.getId());
@@ -161,12 +165,11 @@ class StorageControllerTest {
     @Test
     void addProductToStorage_Success() throws NotFoundException {
         // Arrange
-        when(jwtTokenProvider.retrieveIdFromToken(anyString())).thenReturn(testUserId);
-        when(storageService.addProductToStorage(any(), anyLong(), any(), any())).thenReturn(true);
+        when(storageService.submitAddProductToStorage(any(), anyLong(), any(), any())).thenReturn(CompletableFuture.completedFuture(true));
 
         // Act
         ResponseEntity<?> response = storageController.addProductToStorage(
-            testStorageId, testProductId, testStoreId, authToken);
+            testStorageId, testProductId, testStoreId, testUserId).join();
 
         // Assert
         assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
@@ -187,12 +190,11 @@ class StorageControllerTest {
     @Test
     void addProductToStorage_Failure() throws NotFoundException {
         // Arrange
-        when(jwtTokenProvider.retrieveIdFromToken(anyString())).thenReturn(testUserId);
-        when(storageService.addProductToStorage(any(), anyLong(), any(), any())).thenReturn(false);
+        when(storageService.submitAddProductToStorage(any(), anyLong(), any(), any())).thenReturn(CompletableFuture.completedFuture(false));
 
         // Act
         ResponseEntity<?> response = storageController.addProductToStorage(
-            testStorageId, testProductId, testStoreId, authToken);
+            testStorageId, testProductId, testStoreId, testUserId).join();
 
         // Assert
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -212,14 +214,14 @@ class StorageControllerTest {
     @Test
     void addProductToStorage_NotFound() throws NotFoundException {
         // Arrange
-        when(jwtTokenProvider.retrieveIdFromToken(anyString())).thenReturn(testUserId);
-        when(storageService.addProductToStorage(any(), anyLong(), any(), any()))
-            .thenThrow(new NotFoundException("Not found"));
+        when(storageService.submitAddProductToStorage(any(), anyLong(), any(), any()))
+            .thenReturn(CompletableFuture.failedFuture(new NotFoundException("Not found")));
 
         // Act & Assert
-        assertThrows(NotFoundException.class, () -> {
-            storageController.addProductToStorage(testStorageId, testProductId, testStoreId, authToken);
+        CompletionException exception = assertThrows(CompletionException.class, () -> {
+            storageController.addProductToStorage(testStorageId, testProductId, testStoreId, testUserId).join();
         });
+        assertInstanceOf(NotFoundException.class, exception.getCause());
 
         verify(logger).logInfo(String.format(
             "Attempting to add product %s to storage %s", 
@@ -233,12 +235,11 @@ class StorageControllerTest {
     @Test
     void removeProductFromStorage_Success() throws NotFoundException {
         // Arrange
-        when(jwtTokenProvider.retrieveIdFromToken(anyString())).thenReturn(testUserId);
-        when(storageService.removeProductFromStorage(any(), anyLong(), any(), any())).thenReturn(true);
+        when(storageService.submitRemoveProductFromStorage(any(), anyLong(), any(), any())).thenReturn(CompletableFuture.completedFuture(true));
 
         // Act
         ResponseEntity<?> response = storageController.removeProductFromStorage(
-            testStorageId, testProductId, testStoreId, authToken);
+            testStorageId, testProductId, testStoreId, testUserId).join();
 
         // Assert
         assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
@@ -259,12 +260,11 @@ class StorageControllerTest {
     @Test
     void removeProductFromStorage_Failure() throws NotFoundException {
         // Arrange
-        when(jwtTokenProvider.retrieveIdFromToken(anyString())).thenReturn(testUserId);
-        when(storageService.removeProductFromStorage(any(), anyLong(), any(), any())).thenReturn(false);
+        when(storageService.submitRemoveProductFromStorage(any(), anyLong(), any(), any())).thenReturn(CompletableFuture.completedFuture(false));
 
         // Act
         ResponseEntity<?> response = storageController.removeProductFromStorage(
-            testStorageId, testProductId, testStoreId, authToken);
+            testStorageId, testProductId, testStoreId, testUserId).join();
 
         // Assert
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -284,14 +284,14 @@ class StorageControllerTest {
     @Test
     void removeProductFromStorage_NotFound() throws NotFoundException {
         // Arrange
-        when(jwtTokenProvider.retrieveIdFromToken(anyString())).thenReturn(testUserId);
-        when(storageService.removeProductFromStorage(any(), anyLong(), any(), any()))
-            .thenThrow(new NotFoundException("Not found"));
+        when(storageService.submitRemoveProductFromStorage(any(), anyLong(), any(), any()))
+            .thenReturn(CompletableFuture.failedFuture(new NotFoundException("Not found")));
 
         // Act & Assert
-        assertThrows(NotFoundException.class, () -> {
-            storageController.removeProductFromStorage(testStorageId, testProductId, testStoreId, authToken);
+        CompletionException exception = assertThrows(CompletionException.class, () -> {
+            storageController.removeProductFromStorage(testStorageId, testProductId, testStoreId, testUserId).join();
         });
+        assertInstanceOf(NotFoundException.class, exception.getCause());
 
         verify(logger).logInfo(String.format(
             "Attempting to remove product %s from storage %s", 
@@ -300,4 +300,64 @@ class StorageControllerTest {
             "Storage %s or product %s not found", 
             testStorageId, testProductId)), any(NotFoundException.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getStorageProducts_ReturnsPage() throws Exception {
+        // Arrange
+        StorageProductModel link = new StorageProductModel(testStorageId, testProductId, 5L, 50.0);
+        when(storageService.getStorageProducts(testStorageId, 0, 50))
+            .thenReturn(new PageImpl<>(List.of(link), PageRequest.of(0, 50), 1));
+
+        // Act
+        ResponseEntity<?> response = storageController.getStorageProducts(testStorageId, 0, 50);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
+        assertEquals(List.of(link), responseBody.get("products"));
+        assertEquals(1L, responseBody.get("totalElements"));
+    }
+
+    @Test
+    void reconcileTotals_ReturnsReport() {
+        // Arrange
+        ReconciliationReport report = new ReconciliationReport(1, 10, 2, 0, 7, 70.0, 5, 12);
+        when(reconciliationService.reconcile()).thenReturn(report);
+
+        // Act
+        ResponseEntity<?> response = storageController.reconcileTotals();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(report, response.getBody());
+    }
+
+    @Test
+    void reconcileTotals_AlreadyRunning() {
+        // Arrange
+        when(reconciliationService.reconcile()).thenThrow(new IllegalStateException("Reconciliation already running"));
+
+        // Act
+        ResponseEntity<?> response = storageController.reconcileTotals();
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    @Test
+    void transferProducts_ReturnsSummary() throws Exception {
+        // Arrange
+        StorageTransferRequest request = new StorageTransferRequest(testStorageId, 2L, List.of(
+            new StorageTransferRequest.Item(testProductId, 3L)));
+        StorageTransferResponse summary = new StorageTransferResponse(testStorageId, 2L, 1, 3L, 30.0);
+        when(storageService.transferProducts(testUserId, request, testStoreId)).thenReturn(summary);
+
+        // Act
+        ResponseEntity<?> response = storageController.transferProducts(testStoreId, request, testUserId);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(summary, response.getBody());
+    }
+}
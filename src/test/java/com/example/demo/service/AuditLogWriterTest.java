@@ -0,0 +1,174 @@
+package com.example.demo.service;
+
+import com.example.demo.enums.AuditOverflowPolicyEnum;
+import com.example.demo.models.LogModel;
+import com.example.demo.models.ProductLogModel;
+import com.example.demo.repository.AuditLogBatchRepository;
+import com.example.demo.util.CustomLogger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogWriterTest {
+
+    @Mock
+    private AuditLogBatchRepository auditLogBatchRepository;
+
+    @Mock
+    private CustomLogger customLogger;
+
+    private AuditLogWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    private AuditLogWriter newWriter(int capacity, int batchSize, long flushIntervalMillis, AuditOverflowPolicyEnum policy) {
+        return new AuditLogWriter(auditLogBatchRepository, customLogger, capacity, batchSize, flushIntervalMillis, 1000, policy);
+    }
+
+    private LogModel storeLog(String message) {
+        LogModel log = new LogModel();
+        log.setMessage(message);
+        return log;
+    }
+
+    @Test
+    void enqueue_FlushesWhenBatchIsFull() {
+        // Arrange
+        writer = newWriter(100, 2, 60_000, AuditOverflowPolicyEnum.BLOCK);
+        writer.start();
+
+        // Act
+        writer.enqueue(storeLog("first"));
+        writer.enqueue(storeLog("second"));
+
+        // Assert
+        verify(auditLogBatchRepository, timeout(2000)).insertStoreLogs(argThat(logs -> logs.size() == 2));
+    }
+
+    @Test
+    void enqueue_FlushesWhenIntervalElapses() {
+        // Arrange
+        writer = newWriter(100, 500, 50, AuditOverflowPolicyEnum.BLOCK);
+        writer.start();
+
+        // Act
+        writer.enqueue(new ProductLogModel());
+
+        // Assert
+        verify(auditLogBatchRepository, timeout(2000)).insertProductLogs(argThat(logs -> logs.size() == 1));
+        verify(auditLogBatchRepository, never()).insertStoreLogs(anyList());
+    }
+
+    @Test
+    void enqueue_DropOldest_DiscardsOldestRecords() {
+        // Arrange
+        writer = newWriter(2, 10, 60_000, AuditOverflowPolicyEnum.DROP_OLDEST);
+
+        // Act
+        writer.enqueue(storeLog("first"));
+        writer.enqueue(storeLog("second"));
+        writer.enqueue(storeLog("third"));
+        writer.shutdown();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<LogModel>> captor = ArgumentCaptor.forClass(List.class);
+        verify(auditLogBatchRepository).insertStoreLogs(captor.capture());
+        assertEquals(List.of("second", "third"), captor.getValue().stream().map(LogModel::getMessage).toList());
+        assertEquals(1, writer.getDroppedCount());
+    }
+
+    @Test
+    void enqueue_Spill_WritesOnCallerThreadWhenQueueIsFull() {
+        // Arrange
+        writer = newWriter(1, 10, 60_000, AuditOverflowPolicyEnum.SPILL);
+
+        // Act
+        writer.enqueue(storeLog("queued"));
+        writer.enqueue(storeLog("spilled"));
+
+        // Assert
+        verify(auditLogBatchRepository).insertStoreLogs(argThat(logs -> logs.size() == 1
+            && logs.get(0).getMessage().equals("spilled")));
+        assertEquals(1, writer.getSpilledCount());
+        assertEquals(1, writer.getQueueSize());
+    }
+
+    @Test
+    void shutdown_DrainsPendingRecords() {
+        // Arrange
+        writer = newWriter(100, 500, 60_000, AuditOverflowPolicyEnum.BLOCK);
+        writer.start();
+        writer.enqueue(storeLog("pending"));
+        writer.enqueue(new ProductLogModel());
+
+        // Act
+        writer.shutdown();
+
+        // Assert
+        verify(auditLogBatchRepository).insertStoreLogs(argThat(logs -> logs.size() == 1));
+        verify(auditLogBatchRepository).insertProductLogs(argThat(logs -> logs.size() == 1));
+        assertEquals(0, writer.getQueueSize());
+        assertEquals(2, writer.getWrittenCount());
+    }
+
+    @Test
+    void shutdown_LeavesQueueToWorkerThatOutlivesTimeout() throws InterruptedException {
+        // Arrange
+        writer = new AuditLogWriter(auditLogBatchRepository, customLogger, 100, 1, 60_000, 100, AuditOverflowPolicyEnum.BLOCK);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(auditLogBatchRepository.insertStoreLogs(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 1;
+        });
+        writer.start();
+        writer.enqueue(storeLog("slow"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        writer.enqueue(storeLog("queued"));
+
+        // Act
+        writer.shutdown();
+
+        // Assert
+        verify(auditLogBatchRepository, times(1)).insertStoreLogs(anyList());
+        assertEquals(1, writer.getQueueSize());
+        release.countDown();
+        verify(auditLogBatchRepository, timeout(5000).times(2)).insertStoreLogs(anyList());
+    }
+
+    @Test
+    void flush_CountsFailedBatchesWithoutPropagating() {
+        // Arrange
+        writer = newWriter(100, 500, 60_000, AuditOverflowPolicyEnum.BLOCK);
+        when(auditLogBatchRepository.insertStoreLogs(anyList())).thenThrow(new RuntimeException("Database error"));
+        writer.enqueue(storeLog("failing"));
+
+        // Act
+        writer.shutdown();
+
+        // Assert
+        assertEquals(1, writer.getFailedCount());
+        verify(customLogger).logError(anyString(), any(RuntimeException.class));
+    }
+}
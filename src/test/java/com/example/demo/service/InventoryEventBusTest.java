@@ -0,0 +1,126 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProductChangeEvent;
+import com.example.demo.dto.StorageTotalsEvent;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryEventBusTest {
+
+    private final UUID productId = UUID.randomUUID();
+
+    private static final class ManualSubscriber<T> extends BaseSubscriber<T> {
+
+        private final List<T> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+        }
+
+        @Override
+        protected void hookOnNext(T value) {
+            received.add(value);
+        }
+    }
+
+    private ProductChangeEvent change(UUID id, long quantity, Double price, long version) {
+        return new ProductChangeEvent(id, quantity, price, true, version, false);
+    }
+
+    @Test
+    void publish_DeliversOnlyOnDemand() {
+        // Arrange
+        InventoryEventBus bus = new InventoryEventBus(100);
+        ManualSubscriber<ProductChangeEvent> subscriber = new ManualSubscriber<>();
+        bus.subscribe(ProductChangeEvent.class, event -> true).subscribe(subscriber);
+        UUID otherId = UUID.randomUUID();
+
+        // Act
+        bus.publish(change(productId, 1, 2.0, 1));
+        bus.publish(change(otherId, 5, 3.0, 1));
+        List<ProductChangeEvent> beforeRequest = List.copyOf(subscriber.received);
+        subscriber.request(1);
+
+        // Assert
+        assertTrue(beforeRequest.isEmpty());
+        assertEquals(List.of(change(productId, 1, 2.0, 1)), subscriber.received);
+    }
+
+    @Test
+    void publish_ConflatesPendingEventsForTheSameProduct() {
+        // Arrange
+        InventoryEventBus bus = new InventoryEventBus(100);
+        ManualSubscriber<ProductChangeEvent> subscriber = new ManualSubscriber<>();
+        bus.subscribe(ProductChangeEvent.class, event -> true).subscribe(subscriber);
+
+        // Act
+        bus.publish(change(productId, 1, 2.0, 1));
+        bus.publish(change(productId, 2, null, 2));
+        bus.publish(change(productId, 3, null, 3));
+        subscriber.request(10);
+
+        // Assert
+        assertEquals(List.of(change(productId, 3, 2.0, 3)), subscriber.received);
+        assertEquals(2L, bus.stats().get("conflated"));
+    }
+
+    @Test
+    void publish_DropsNewKeysWhenSubscriberBufferIsFull() {
+        // Arrange
+        InventoryEventBus bus = new InventoryEventBus(2);
+        ManualSubscriber<ProductChangeEvent> subscriber = new ManualSubscriber<>();
+        bus.subscribe(ProductChangeEvent.class, event -> true).subscribe(subscriber);
+
+        // Act
+        bus.publish(change(UUID.randomUUID(), 1, 1.0, 1));
+        bus.publish(change(UUID.randomUUID(), 1, 1.0, 1));
+        bus.publish(change(UUID.randomUUID(), 1, 1.0, 1));
+        subscriber.request(10);
+
+        // Assert
+        assertEquals(2, subscriber.received.size());
+        assertEquals(1L, bus.stats().get("dropped"));
+    }
+
+    @Test
+    void publish_AppliesTypeAndFilter() {
+        // Arrange
+        InventoryEventBus bus = new InventoryEventBus(100);
+        ManualSubscriber<StorageTotalsEvent> subscriber = new ManualSubscriber<>();
+        bus.subscribe(StorageTotalsEvent.class, event -> event.storageId() == 1L).subscribe(subscriber);
+        subscriber.request(10);
+
+        // Act
+        bus.publish(change(productId, 1, 1.0, 1));
+        bus.publish(new StorageTotalsEvent(2L, 10L, 20.0));
+        bus.publish(new StorageTotalsEvent(1L, 5L, 7.5));
+
+        // Assert
+        assertEquals(List.of(new StorageTotalsEvent(1L, 5L, 7.5)), subscriber.received);
+        assertTrue(bus.hasSubscribers(StorageTotalsEvent.class));
+        assertFalse(bus.hasSubscribers(ProductChangeEvent.class));
+    }
+
+    @Test
+    void subscribe_RemovesSubscriberOnCancel() {
+        // Arrange
+        InventoryEventBus bus = new InventoryEventBus(100);
+        ManualSubscriber<ProductChangeEvent> subscriber = new ManualSubscriber<>();
+        bus.subscribe(ProductChangeEvent.class, event -> true).subscribe(subscriber);
+
+        // Act
+        subscriber.cancel();
+        bus.publish(change(productId, 1, 1.0, 1));
+
+        // Assert
+        assertEquals(0, bus.stats().get("subscribers"));
+        assertFalse(bus.hasSubscribers(ProductChangeEvent.class));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.service;
+
+import com.example.demo.models.ProductModel;
+import com.example.demo.models.StorageModel;
+import com.example.demo.models.StorageProductModel;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.StorageProductRepository;
+import com.example.demo.repository.StorageRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reconciles against the database, where the link's stock_value and the product's price disagree.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryReconciliationDatabaseTest {
+
+    @Autowired
+    private InventoryReconciliationService reconciliationService;
+
+    @Autowired
+    private StorageRepository storageRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StorageProductRepository storageProductRepository;
+
+    @Test
+    void reconcile_ValuesStockAtProductPrices() {
+        // Arrange
+        StorageModel storage = new StorageModel();
+        storage.setName("Reconciled");
+        storage.setTotalProductsQuantity(4L);
+        storage.setTotalProductsValue(40.0);
+        Long storageId = storageRepository.save(storage).getId();
+        ProductModel product = new ProductModel();
+        product.setProductId(UUID.randomUUID());
+        product.setQuantity(4L);
+        product.setPrice(25.0);
+        product.setIsActive(true);
+        product = productRepository.save(product);
+        storageProductRepository.save(new StorageProductModel(storageId, product.getId(), 4L, 40.0));
+
+        // Act
+        reconciliationService.reconcile();
+
+        // Assert
+        StorageModel reconciled = storageRepository.findById(storageId).orElseThrow();
+        assertEquals(4L, reconciled.getTotalProductsQuantity());
+        assertEquals(100.0, reconciled.getTotalProductsValue());
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.StorageReconciliationRepository;
+import com.example.demo.repository.StorageReconciliationRepository.IdRange;
+import com.example.demo.repository.StorageReconciliationRepository.StorageTotals;
+import com.example.demo.service.InventoryReconciliationService.ReconciliationReport;
+import com.example.demo.util.CustomLogger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryReconciliationServiceTest {
+
+    @Mock
+    private StorageReconciliationRepository reconciliationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CustomLogger customLogger;
+
+    private InventoryReconciliationService service;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        service = new InventoryReconciliationService(reconciliationRepository, transactionManager, customLogger,
+            true, 4, 1000, 2, 0.005);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void reconcile_FansOutOverContiguousIdRanges() {
+        // Arrange
+        when(reconciliationRepository.findIdRange()).thenReturn(Optional.of(new IdRange(1, 4500)));
+        List<long[]> ranges = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            ranges.add(new long[] {invocation.getArgument(0), invocation.getArgument(1)});
+            return null;
+        }).when(reconciliationRepository).streamTotals(anyLong(), anyLong(), anyInt(), any());
+
+        // Act
+        ReconciliationReport report = service.reconcile();
+
+        // Assert
+        List<long[]> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparingLong(range -> range[0]));
+        assertEquals(1, sorted.get(0)[0]);
+        assertEquals(4500, sorted.get(sorted.size() - 1)[1]);
+        for (int i = 1; i < sorted.size(); i++) {
+            assertEquals(sorted.get(i - 1)[1] + 1, sorted.get(i)[0]);
+        }
+        assertTrue(sorted.stream().allMatch(range -> range[1] - range[0] < 1000));
+        assertEquals(sorted.size(), report.ranges());
+        verify(reconciliationRepository, never()).applyCorrections(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reconcile_CorrectsDriftedStoragesInBatchesAndReportsDrift() {
+        // Arrange
+        when(reconciliationRepository.findIdRange()).thenReturn(Optional.of(new IdRange(1, 4)));
+        doAnswer(invocation -> {
+            Consumer<StorageTotals> consumer = invocation.getArgument(3);
+            consumer.accept(new StorageTotals(1, 10, 100.0, 10, 100.001));
+            consumer.accept(new StorageTotals(2, 10, 100.0, 7, 70.0));
+            consumer.accept(new StorageTotals(3, 0, 0.0, 5, 50.0));
+            consumer.accept(new StorageTotals(4, 3, 30.0, 3, 45.0));
+            return null;
+        }).when(reconciliationRepository).streamTotals(eq(1L), eq(4L), anyInt(), any());
+        when(reconciliationRepository.applyCorrections(any())).thenReturn(2, 0);
+
+        // Act
+        ReconciliationReport report = service.reconcile();
+
+        // Assert
+        ArgumentCaptor<List<StorageTotals>> captor = ArgumentCaptor.forClass(List.class);
+        verify(reconciliationRepository, times(2)).applyCorrections(captor.capture());
+        assertEquals(List.of(2L, 3L), captor.getAllValues().get(0).stream().map(StorageTotals::storageId).toList());
+        assertEquals(List.of(4L), captor.getAllValues().get(1).stream().map(StorageTotals::storageId).toList());
+        assertEquals(4, report.storagesScanned());
+        assertEquals(2, report.storagesCorrected());
+        assertEquals(1, report.concurrentSkips());
+        assertEquals(8, report.quantityDrift());
+        assertEquals(5, report.maxQuantityDrift());
+        assertEquals(95.0, report.valueDrift(), 1e-9);
+        assertEquals(Optional.of(report), service.getLastReport());
+    }
+
+    @Test
+    void reconcile_NoStorages() {
+        // Arrange
+        when(reconciliationRepository.findIdRange()).thenReturn(Optional.empty());
+
+        // Act
+        ReconciliationReport report = service.reconcile();
+
+        // Assert
+        assertEquals(0, report.ranges());
+        assertEquals(0, report.storagesScanned());
+        verify(reconciliationRepository, never()).streamTotals(anyLong(), anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void runReconciliation_DisabledDoesNothing() {
+        // Arrange
+        service.shutdown();
+        service = new InventoryReconciliationService(reconciliationRepository, transactionManager, customLogger,
+            false, 1, 1000, 500, 0.005);
+
+        // Act
+        service.runReconciliation();
+
+        // Assert
+        verifyNoInteractions(reconciliationRepository);
+    }
+}
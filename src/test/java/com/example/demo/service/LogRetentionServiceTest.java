@@ -0,0 +1,174 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.LogPartitionRepository;
+import com.example.demo.repository.LogRepository;
+import com.example.demo.repository.LogRollupRepository;
+import com.example.demo.repository.ProductLogRepository;
+import com.example.demo.repository.ProductLogRollupRepository;
+import com.example.demo.service.LogRetentionService.RetentionReport;
+import com.example.demo.util.CustomLogger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LogRetentionServiceTest {
+
+    @Mock
+    private LogRepository logRepository;
+
+    @Mock
+    private ProductLogRepository productLogRepository;
+
+    @Mock
+    private LogRollupRepository logRollupRepository;
+
+    @Mock
+    private ProductLogRollupRepository productLogRollupRepository;
+
+    @Mock
+    private LogPartitionRepository logPartitionRepository;
+
+    @Mock
+    private LogTimestampBackfill logTimestampBackfill;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CustomLogger customLogger;
+
+    private LogRetentionService logRetentionService;
+
+    private final LocalDate today = LocalDate.of(2026, 3, 15);
+
+    @BeforeEach
+    void setUp() {
+        logRetentionService = new LogRetentionService(logRepository, productLogRepository, logRollupRepository,
+            productLogRollupRepository, logPartitionRepository, logTimestampBackfill, transactionManager, customLogger, true, 30, 1);
+    }
+
+    private Date startOf(LocalDate day) {
+        return Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    @Test
+    void applyRetention_RollsUpAndDeletesExpiredDays() {
+        // Arrange
+        LocalDate cutoff = today.minusDays(30);
+        when(logRepository.findOldestTimestamp()).thenReturn(startOf(cutoff.minusDays(3)));
+        when(logRepository.findOldestTimestampFrom(any(Date.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(logRepository.deleteByTimestampRange(any(Date.class), any(Date.class))).thenReturn(10);
+
+        // Act
+        List<RetentionReport> reports = logRetentionService.applyRetention(today);
+
+        // Assert
+        RetentionReport storeLogs = reports.get(0);
+        assertEquals("logs", storeLogs.table());
+        assertEquals(3, storeLogs.daysRolledUp());
+        assertEquals(30, storeLogs.rowsDeleted());
+        verify(logRollupRepository).rollupDay(cutoff.minusDays(3), startOf(cutoff.minusDays(3)), startOf(cutoff.minusDays(2)));
+        verify(logRollupRepository).rollupDay(cutoff.minusDays(1), startOf(cutoff.minusDays(1)), startOf(cutoff));
+        verify(logRepository, times(3)).deleteByTimestampRange(any(Date.class), any(Date.class));
+        verify(logPartitionRepository, never()).dropMonthlyPartitions(eq("logs"), anyList());
+    }
+
+    @Test
+    void applyRetention_BackfillsLegacyRowsIntoOldestBucketBeforeRollingUp() {
+        // Arrange
+        Date legacy = LogTimestampBackfill.LEGACY_TIMESTAMP;
+        LocalDate legacyDay = legacy.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        when(logRepository.findOldestTimestamp()).thenReturn(legacy);
+        when(logRepository.deleteByTimestampRange(any(Date.class), any(Date.class))).thenReturn(4);
+
+        // Act
+        RetentionReport storeLogs = logRetentionService.applyRetention(today).get(0);
+
+        // Assert
+        assertEquals(1, storeLogs.daysRolledUp());
+        assertEquals(4, storeLogs.rowsDeleted());
+        InOrder inOrder = inOrder(logTimestampBackfill, logRepository, logRollupRepository);
+        inOrder.verify(logTimestampBackfill).backfill();
+        inOrder.verify(logRepository).findOldestTimestamp();
+        inOrder.verify(logRollupRepository).rollupDay(legacyDay, startOf(legacyDay), startOf(legacyDay.plusDays(1)));
+        inOrder.verify(logRepository).deleteByTimestampRange(startOf(legacyDay), startOf(legacyDay.plusDays(1)));
+    }
+
+    @Test
+    void applyRetention_JumpsOverDaysWithoutRows() {
+        // Arrange
+        LocalDate cutoff = today.minusDays(30);
+        Date resumeAt = startOf(cutoff.minusDays(2));
+        when(logRepository.findOldestTimestamp()).thenReturn(startOf(cutoff.minusDays(400)));
+        when(logRepository.findOldestTimestampFrom(any(Date.class))).thenAnswer(invocation -> {
+            Date from = invocation.getArgument(0);
+            return from.before(resumeAt) ? resumeAt : from;
+        });
+
+        // Act
+        RetentionReport storeLogs = logRetentionService.applyRetention(today).get(0);
+
+        // Assert
+        assertEquals(3, storeLogs.daysRolledUp());
+        verify(logRollupRepository).rollupDay(eq(cutoff.minusDays(400)), any(Date.class), any(Date.class));
+        verify(logRollupRepository).rollupDay(eq(cutoff.minusDays(2)), any(Date.class), any(Date.class));
+        verify(logRollupRepository).rollupDay(eq(cutoff.minusDays(1)), any(Date.class), any(Date.class));
+    }
+
+    @Test
+    void applyRetention_SkipsWhenNothingIsExpired() {
+        // Arrange
+        when(logRepository.findOldestTimestamp()).thenReturn(startOf(today.minusDays(5)));
+        when(productLogRepository.findOldestTimestamp()).thenReturn(null);
+
+        // Act
+        List<RetentionReport> reports = logRetentionService.applyRetention(today);
+
+        // Assert
+        assertEquals(0, reports.get(0).daysRolledUp());
+        assertEquals(0, reports.get(1).daysRolledUp());
+        verify(logRollupRepository, never()).rollupDay(any(), any(), any());
+        verify(productLogRollupRepository, never()).rollupDay(any(), any(), any());
+    }
+
+    @Test
+    void applyRetention_PartitionedTableResumesAfterWatermarkAndDropsExpiredMonths() {
+        // Arrange
+        LocalDate cutoff = today.minusDays(30);
+        when(logPartitionRepository.isPartitioned(anyString()))
+            .thenAnswer(invocation -> "product_logs".equals(invocation.getArgument(0)));
+        when(logPartitionRepository.findMonthlyPartitions("product_logs")).thenReturn(List.of(
+            LocalDate.of(2026, 1, 1), LocalDate.of(2026, 2, 1), LocalDate.of(2026, 3, 1)));
+        when(productLogRepository.findOldestTimestamp()).thenReturn(startOf(LocalDate.of(2026, 1, 1)));
+        when(productLogRollupRepository.findLastRolledUpDay()).thenReturn(cutoff.minusDays(2));
+
+        // Act
+        RetentionReport productLogs = logRetentionService.applyRetention(today).get(1);
+
+        // Assert
+        assertEquals(1, productLogs.daysRolledUp());
+        assertEquals(0, productLogs.rowsDeleted());
+        assertEquals(1, productLogs.partitionsDropped());
+        verify(productLogRollupRepository).rollupDay(eq(cutoff.minusDays(1)), any(Date.class), any(Date.class));
+        verify(productLogRepository, never()).deleteByTimestampRange(any(), any());
+        verify(logPartitionRepository).addMonthlyPartition("product_logs", LocalDate.of(2026, 4, 1));
+        verify(logPartitionRepository).dropMonthlyPartitions("product_logs", List.of(LocalDate.of(2026, 1, 1)));
+    }
+}
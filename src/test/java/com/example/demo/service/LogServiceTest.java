@@ -0,0 +1,177 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.LogPageResponse;
+import com.example.demo.enums.LogPermissionEnum;
+import com.example.demo.models.LogModel;
+import com.example.demo.models.ProductLogModel;
+import com.example.demo.repository.LogRepository;
+import com.example.demo.util.CustomLogger;
+import jakarta.persistence.EntityManager;
+import org.apache.coyote.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LogServiceTest {
+
+    @Mock
+    private LogRepository logRepository;
+
+    @Mock
+    private CustomLogger customLogger;
+
+    @Mock
+    private AuditLogWriter auditLogWriter;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private LogService logService;
+
+    private final UUID testStoreId = UUID.randomUUID();
+    private final LogPermissionEnum testPermission = LogPermissionEnum.MANAGER;
+
+    @BeforeEach
+    void setUp() {
+        logService = new LogService(logRepository, customLogger, auditLogWriter, entityManager, 2, 3);
+    }
+
+    private LogModel log(long id, long timestamp) {
+        LogModel log = new LogModel();
+        log.setId(id);
+        log.setTimestamp(new Date(timestamp));
+        return log;
+    }
+
+    @Test
+    void saveStoreLog_QueuesTimestampedRecord() {
+        // Act
+        logService.saveStoreLog("message", testPermission, testStoreId, "details", UUID.randomUUID(), "CREATE");
+
+        // Assert
+        ArgumentCaptor<LogModel> captor = ArgumentCaptor.forClass(LogModel.class);
+        verify(auditLogWriter).enqueue(captor.capture());
+        assertEquals(testStoreId, captor.getValue().getStoreId());
+        assertNotNull(captor.getValue().getTimestamp());
+    }
+
+    @Test
+    void saveProductLog_QueuesTimestampedRecord() {
+        // Act
+        logService.saveProductLog("message", testPermission, UUID.randomUUID(), "details", null, "UPDATE");
+
+        // Assert
+        ArgumentCaptor<ProductLogModel> captor = ArgumentCaptor.forClass(ProductLogModel.class);
+        verify(auditLogWriter).enqueue(captor.capture());
+        assertEquals("UPDATE", captor.getValue().getLogType());
+        assertNotNull(captor.getValue().getTimestamp());
+    }
+
+    @Test
+    void saveStoreLog_InsideTransactionQueuesOnlyAfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            logService.saveStoreLog("message", testPermission, testStoreId, "details", null, "ADD_PRODUCT");
+
+            // Assert
+            verify(auditLogWriter, never()).enqueue(any(LogModel.class));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(auditLogWriter).enqueue(any(LogModel.class));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void getLogsPage_FirstPageReturnsCursorWhenMoreRowsExist() throws BadRequestException {
+        // Arrange
+        List<LogModel> rows = new ArrayList<>(List.of(log(3, 3000), log(2, 2000), log(1, 1000)));
+        when(logRepository.findFirstPage(testStoreId, testPermission, Limit.of(3))).thenReturn(rows);
+
+        // Act
+        LogPageResponse page = logService.getLogsPage(testStoreId, testPermission, null, null);
+
+        // Assert
+        assertEquals(2, page.size());
+        assertEquals(List.of(3L, 2L), page.logs().stream().map(LogModel::getId).toList());
+        assertNotNull(page.nextCursor());
+    }
+
+    @Test
+    void getLogsPage_CursorResumesAfterLastRow() throws BadRequestException {
+        // Arrange
+        when(logRepository.findFirstPage(testStoreId, testPermission, Limit.of(3)))
+            .thenReturn(new ArrayList<>(List.of(log(3, 3000), log(2, 2000), log(1, 1000))));
+        String cursor = logService.getLogsPage(testStoreId, testPermission, null, 2).nextCursor();
+        when(logRepository.findPageBefore(eq(testStoreId), eq(testPermission), eq(new Date(2000)), eq(2L), eq(Limit.of(3))))
+            .thenReturn(List.of(log(1, 1000)));
+
+        // Act
+        LogPageResponse page = logService.getLogsPage(testStoreId, testPermission, cursor, 2);
+
+        // Assert
+        assertEquals(1, page.size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getLogsPage_ClampsSizeToMaximum() throws BadRequestException {
+        // Arrange
+        when(logRepository.findFirstPage(testStoreId, testPermission, Limit.of(4))).thenReturn(List.of());
+
+        // Act
+        LogPageResponse page = logService.getLogsPage(testStoreId, testPermission, null, 1000);
+
+        // Assert
+        assertEquals(0, page.size());
+        verify(logRepository).findFirstPage(testStoreId, testPermission, Limit.of(4));
+    }
+
+    @Test
+    void getLogsPage_RejectsInvalidCursorAndSize() {
+        // Act & Assert
+        assertThrows(BadRequestException.class,
+            () -> logService.getLogsPage(testStoreId, testPermission, "not-a-cursor", null));
+        assertThrows(BadRequestException.class,
+            () -> logService.getLogsPage(testStoreId, testPermission, null, 0));
+    }
+
+    @Test
+    void streamLogs_DetachesEachRowAfterConsuming() {
+        // Arrange
+        LogModel first = log(1, 1000);
+        LogModel second = log(2, 2000);
+        when(logRepository.streamAll(testStoreId, testPermission)).thenReturn(Stream.of(first, second));
+        List<LogModel> consumed = new ArrayList<>();
+
+        // Act
+        long count = logService.streamLogs(testStoreId, testPermission, consumed::add);
+
+        // Assert
+        assertEquals(2, count);
+        assertEquals(List.of(first, second), consumed);
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+        verify(logRepository, never()).findAllByStoreIdAndLogPermission(any(), any());
+    }
+}
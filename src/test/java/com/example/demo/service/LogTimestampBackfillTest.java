@@ -0,0 +1,102 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.LogPageResponse;
+import com.example.demo.enums.LogPermissionEnum;
+import com.example.demo.models.LogModel;
+import com.example.demo.repository.LogRepository;
+import com.example.demo.repository.LogTimestampRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Simulates rows written before timestamps were recorded by relaxing the column in H2, then runs
+ * the one-off migration an operator would trigger.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LogTimestampBackfillTest {
+
+    @Autowired
+    private LogTimestampBackfill logTimestampBackfill;
+
+    @Autowired
+    private LogTimestampRepository logTimestampRepository;
+
+    @Autowired
+    private LogService logService;
+
+    @Autowired
+    private LogRepository logRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrate_BackfillsLegacyRowsSoKeysetPagingReturnsEveryLog() throws Exception {
+        // Arrange
+        UUID storeId = UUID.randomUUID();
+        for (int i = 0; i < 2; i++) {
+            LogModel log = new LogModel();
+            log.setMessage("Dated " + i);
+            log.setLogPermission(LogPermissionEnum.MANAGER);
+            log.setTimestamp(new Date(1_000_000L * (i + 1)));
+            log.setStoreId(storeId);
+            logRepository.save(log);
+        }
+        jdbcTemplate.execute("ALTER TABLE logs ALTER COLUMN timestamp SET NULL");
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("INSERT INTO logs (message, log_permission, timestamp, store_id) VALUES (?, ?, NULL, ?)",
+                "Legacy " + i, LogPermissionEnum.MANAGER.ordinal(), storeId);
+        }
+
+        // Act
+        Map<String, Object> result = logTimestampBackfill.migrate();
+
+        // Assert
+        assertEquals(3L, result.get("backfilledRows"));
+        assertEquals(List.of("logs"), result.get("tablesMadeNotNull"));
+        assertFalse(logTimestampRepository.isTimestampNullable("logs"));
+        List<String> messages = new ArrayList<>();
+        String cursor = null;
+        do {
+            LogPageResponse page = logService.getLogsPage(storeId, LogPermissionEnum.MANAGER, cursor, 2);
+            page.logs().forEach(log -> messages.add(log.getMessage()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        assertEquals(List.of("Dated 1", "Dated 0", "Legacy 2", "Legacy 1", "Legacy 0"), messages);
+    }
+
+    @Test
+    void backfillNullTimestamps_WalksIdRangeInBatches() {
+        // Arrange
+        jdbcTemplate.execute("ALTER TABLE product_logs ALTER COLUMN timestamp SET NULL");
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.update("INSERT INTO product_logs (message, timestamp) VALUES (?, NULL)", "Legacy " + i);
+        }
+
+        try {
+            // Act
+            long updated = logTimestampRepository.backfillNullTimestamps("product_logs", new Date(0), 2);
+
+            // Assert
+            assertEquals(5, updated);
+            assertNull(jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM product_logs WHERE timestamp IS NULL", Long.class));
+        } finally {
+            logTimestampRepository.requireTimestamp("product_logs");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo.service;
+
+import com.example.demo.models.ProductModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheTest {
+
+    private ProductModel product(UUID productId) {
+        ProductModel product = new ProductModel();
+        product.setProductId(productId);
+        return product;
+    }
+
+    @Test
+    void get_ReturnsCachedProductAndRecordsStats() {
+        // Arrange
+        ProductCache productCache = new ProductCache(100, 300);
+        UUID productId = UUID.randomUUID();
+        ProductModel product = product(productId);
+
+        // Act
+        ProductModel miss = productCache.get(productId);
+        productCache.put(product);
+        ProductModel hit = productCache.get(productId);
+
+        // Assert
+        assertNull(miss);
+        assertSame(product, hit);
+        Map<String, Object> stats = productCache.stats();
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(1L, stats.get("misses"));
+        assertEquals(1L, stats.get("size"));
+    }
+
+    @Test
+    void invalidate_RemovesProduct() {
+        // Arrange
+        ProductCache productCache = new ProductCache(100, 300);
+        UUID productId = UUID.randomUUID();
+        productCache.put(product(productId));
+
+        // Act
+        productCache.invalidate(productId);
+
+        // Assert
+        assertNull(productCache.get(productId));
+    }
+
+    @Test
+    void put_EvictsWhenMaximumSizeIsExceeded() {
+        // Arrange
+        ProductCache productCache = new ProductCache(10, 300);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            productCache.put(product(UUID.randomUUID()));
+        }
+
+        // Assert
+        Map<String, Object> stats = productCache.stats();
+        assertTrue((Long) stats.get("size") <= 10);
+        assertTrue((Long) stats.get("evictions") >= 90);
+    }
+
+    @Test
+    void put_IgnoresProductsWithoutId() {
+        // Arrange
+        ProductCache productCache = new ProductCache(10, 300);
+
+        // Act
+        productCache.put(new ProductModel());
+        productCache.put(null);
+
+        // Assert
+        assertEquals(0L, productCache.stats().get("size"));
+    }
+}
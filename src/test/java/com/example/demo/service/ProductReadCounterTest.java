@@ -0,0 +1,139 @@
+package com.example.demo.service;
+
+import com.example.demo.enums.LogPermissionEnum;
+import com.example.demo.repository.ProductReadCountRepository;
+import com.example.demo.repository.ProductReadCountRepository.ReadCount;
+import com.example.demo.util.CustomLogger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductReadCounterTest {
+
+    @Mock
+    private ProductReadCountRepository productReadCountRepository;
+
+    @Mock
+    private LogService logService;
+
+    @Mock
+    private CustomLogger customLogger;
+
+    private final UUID testProductId = UUID.randomUUID();
+
+    @Test
+    void recordRead_AggregatesConcurrentReadsIntoSingleFlush() throws InterruptedException {
+        // Arrange
+        ProductReadCounter counter = new ProductReadCounter(productReadCountRepository, logService, customLogger, 0.0);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            executor.submit(() -> counter.recordRead(testProductId));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        counter.flush();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ReadCount>> captor = ArgumentCaptor.forClass(List.class);
+        verify(productReadCountRepository).addCounts(captor.capture());
+        long total = captor.getValue().stream().mapToLong(ReadCount::reads).sum();
+        assertEquals(1000, total);
+        assertTrue(captor.getValue().stream().allMatch(count -> count.productId().equals(testProductId)));
+        verifyNoInteractions(logService);
+    }
+
+    @Test
+    void flush_DoesNotLoseReadsRecordedWhileFlushing() throws InterruptedException {
+        // Arrange
+        ProductReadCounter counter = new ProductReadCounter(productReadCountRepository, logService, customLogger, 0.0);
+        AtomicLong flushed = new AtomicLong();
+        doAnswer(invocation -> {
+            List<ReadCount> counts = invocation.getArgument(0);
+            counts.forEach(count -> flushed.addAndGet(count.reads()));
+            return null;
+        }).when(productReadCountRepository).addCounts(anyList());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // Act
+        for (int i = 0; i < 20000; i++) {
+            executor.submit(() -> counter.recordRead(testProductId));
+            if (i % 1000 == 0) {
+                executor.submit(counter::flush);
+            }
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        counter.flush();
+
+        // Assert
+        assertEquals(20000, flushed.get());
+        assertEquals(0, counter.getPendingReads(testProductId));
+    }
+
+    @Test
+    void flush_SkipsRepositoryWhenNothingWasRead() {
+        // Arrange
+        ProductReadCounter counter = new ProductReadCounter(productReadCountRepository, logService, customLogger, 0.0);
+
+        // Act
+        counter.flush();
+
+        // Assert
+        verifyNoInteractions(productReadCountRepository);
+    }
+
+    @Test
+    void flush_KeepsCountsWhenRepositoryFails() {
+        // Arrange
+        ProductReadCounter counter = new ProductReadCounter(productReadCountRepository, logService, customLogger, 0.0);
+        doThrow(new RuntimeException("Database error")).when(productReadCountRepository).addCounts(anyList());
+        counter.recordRead(testProductId);
+        counter.recordRead(testProductId);
+
+        // Act
+        counter.flush();
+
+        // Assert
+        assertEquals(2, counter.getPendingReads(testProductId));
+        verify(customLogger).logError(anyString(), any(RuntimeException.class));
+    }
+
+    @Test
+    void recordRead_SamplesDetailedRecordWhenEnabled() {
+        // Arrange
+        ProductReadCounter counter = new ProductReadCounter(productReadCountRepository, logService, customLogger, 1.0);
+
+        // Act
+        counter.recordRead(testProductId);
+
+        // Assert
+        verify(logService).saveProductLog(anyString(), eq(LogPermissionEnum.MANAGER), eq(testProductId),
+            anyString(), isNull(), eq("RETRIEVE"));
+    }
+
+    @Test
+    void constructor_RejectsInvalidSampleRate() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new ProductReadCounter(productReadCountRepository, logService, customLogger, 1.5));
+    }
+}
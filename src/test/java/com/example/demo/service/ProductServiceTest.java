@@ -1,22 +1,41 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.BulkProductResponse;
+import com.example.demo.dto.ProductChangeEvent;
+import com.example.demo.dto.ProductStockResponse;
+import com.example.demo.dto.ResourceVersion;
+import com.example.demo.enums.LogPermissionEnum;
 import com.example.demo.exception.NotFoundException;
 import com.example.demo.models.ProductModel;
 import com.example.demo.models.StorageModel;
+import com.example.demo.models.StorageProductModel;
 import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.StorageProductRepository;
 import com.example.demo.repository.StorageRepository;
+import jakarta.persistence.EntityManager;
+import org.apache.coyote.BadRequestException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,10 +47,27 @@ class ProductServiceTest {
     @Mock
     private StorageRepository storageRepository;
 
+    @Mock
+    private StorageProductRepository storageProductRepository;
+
     @Mock
     private LogService logService;
+
+    @Mock
+    private ProductReadCounter productReadCounter;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private InventoryEventPublisher inventoryEventPublisher;
     
-    @InjectMocks
     private ProductService productService;
 
     private ProductModel testProduct;
@@ -42,6 +78,9 @@ class ProductServiceTest {
 
     @BeforeEach
     void setUp() {
+        productService = new ProductService(productRepository, storageRepository, storageProductRepository, logService, productReadCounter,
+            productCache, entityManager, transactionManager, inventoryEventPublisher, 2);
+
         testProduct = new ProductModel();
         testProduct.setProductId(testProductId);
         testProduct.setQuantity(10L);
@@ -56,9 +95,8 @@ class ProductServiceTest {
     @Test
     void createProduct_Success() throws NotFoundException {
         // Arrange
-        when(storageRepository.findById(testStorageId)).thenReturn(Optional.of(testStorage));
+        when(storageRepository.existsById(testStorageId)).thenReturn(true);
         when(productRepository.save(any(ProductModel.class))).thenReturn(testProduct);
-        when(storageRepository.save(any(StorageModel.class))).thenReturn(testStorage);
 
         // Act
         UUID result = productService.createProduct(testProduct, testStorageId, testRequestOwner);
@@ -67,13 +105,14 @@ class ProductServiceTest {
         assertNotNull(result);
         assertEquals(testProductId, result);
         verify(productRepository, times(1)).save(any(ProductModel.class));
-        verify(storageRepository, times(1)).save(testStorage);
+        verify(storageRepository, times(1)).addProductToStorage(testStorageId, testProduct);
+        verify(storageRepository, never()).save(any(StorageModel.class));
     }
 
     @Test
     void createProduct_StorageNotFound() {
         // Arrange
-        when(storageRepository.findById(testStorageId)).thenReturn(Optional.empty());
+        when(storageRepository.existsById(testStorageId)).thenReturn(false);
 
         // Act & Assert
         assertThrows(NotFoundException.class, () -> {
@@ -114,6 +153,62 @@ class ProductServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(testProductId, result.getProductId());
+        verify(productReadCounter, times(1)).recordRead(testProductId);
+        verify(productCache, times(1)).put(testProduct);
+        verifyNoInteractions(logService);
+    }
+
+    @Test
+    void getProductById_CacheHitSkipsRepository() throws NotFoundException {
+        // Arrange
+        when(productCache.get(testProductId)).thenReturn(testProduct);
+
+        // Act
+        ProductModel result = productService.getProductById(testProductId);
+
+        // Assert
+        assertSame(testProduct, result);
+        verify(productRepository, never()).findByProductId(any());
+        verify(productReadCounter, times(1)).recordRead(testProductId);
+    }
+
+    @Test
+    void getProductVersion_CacheHitSkipsRepository() throws NotFoundException {
+        // Arrange
+        testProduct.setVersion(3L);
+        testProduct.setUpdatedAt("1000");
+        when(productCache.get(testProductId)).thenReturn(testProduct);
+
+        // Act
+        ResourceVersion result = productService.getProductVersion(testProductId);
+
+        // Assert
+        assertEquals("\"3\"", result.etag());
+        assertEquals(1000L, result.lastModified());
+        verify(productRepository, never()).findVersionByProductId(any());
+    }
+
+    @Test
+    void getProductVersion_CacheMissUsesVersionQuery() throws NotFoundException {
+        // Arrange
+        when(productRepository.findVersionByProductId(testProductId)).thenReturn(Optional.of(new ResourceVersion(4L, "2000")));
+
+        // Act
+        ResourceVersion result = productService.getProductVersion(testProductId);
+
+        // Assert
+        assertEquals(4L, result.version());
+        verify(productRepository, never()).findByProductId(any());
+        verify(productReadCounter, never()).recordRead(any());
+    }
+
+    @Test
+    void getProductVersion_NotFound() {
+        // Arrange
+        when(productRepository.findVersionByProductId(testProductId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(NotFoundException.class, () -> productService.getProductVersion(testProductId));
     }
 
     @Test
@@ -145,6 +240,30 @@ class ProductServiceTest {
         assertEquals(20L, testProduct.getQuantity());
         assertEquals(200.0, testProduct.getPrice());
         verify(productRepository, times(1)).save(testProduct);
+        verify(productCache, times(1)).put(testProduct);
+    }
+
+    @Test
+    void updateProduct_RevaluesStorageLinksAndTotals() throws NotFoundException {
+        // Arrange
+        ProductModel updatedProduct = new ProductModel();
+        updatedProduct.setProductId(testProductId);
+        updatedProduct.setQuantity(12L);
+        updatedProduct.setPrice(200.0);
+        StorageProductModel link = new StorageProductModel(testStorageId, UUID.randomUUID(), 10L, 1000.0);
+
+        when(productRepository.findByProductId(testProductId)).thenReturn(Optional.of(testProduct));
+        when(productRepository.save(any(ProductModel.class))).thenReturn(testProduct);
+        when(storageProductRepository.lockAllForProduct(testProductId)).thenReturn(List.of(link));
+
+        // Act
+        productService.updateProduct(updatedProduct, testRequestOwner);
+
+        // Assert
+        assertEquals(12L, link.getQuantity());
+        assertEquals(2400.0, link.getValue());
+        verify(storageRepository).incrementTotals(testStorageId, 2L, 1400.0);
+        verify(inventoryEventPublisher).storageTotalsChanged(testStorageId);
     }
 
     @Test
@@ -170,6 +289,7 @@ class ProductServiceTest {
 
         // Assert
         assertFalse(testProduct.getIsActive());
+        assertNotNull(testProduct.getUpdatedAt());
         verify(productRepository, times(1)).save(testProduct);
     }
 
@@ -216,17 +336,21 @@ class ProductServiceTest {
     void deleteProduct_Success() throws NotFoundException {
         // Arrange
         when(productRepository.findByProductId(testProductId)).thenReturn(Optional.of(testProduct));
-        when(storageRepository.findById(testStorageId)).thenReturn(Optional.of(testStorage));
+        when(storageRepository.existsById(testStorageId)).thenReturn(true);
+        when(storageRepository.removeProductFromAllStorages(testProduct)).thenReturn(List.of(testStorageId, 9L));
         doNothing().when(productRepository).delete(testProduct);
-        when(storageRepository.save(any(StorageModel.class))).thenReturn(testStorage);
 
         // Act
         boolean result = productService.deleteProduct(testProductId, testStorageId, testRequestOwner);
 
         // Assert
         assertTrue(result);
+        verify(inventoryEventPublisher).productChanged(ProductChangeEvent.deleted(testProductId));
+        verify(inventoryEventPublisher).storageTotalsChanged(testStorageId, 9L);
         verify(productRepository, times(1)).delete(testProduct);
-        verify(storageRepository, times(1)).save(testStorage);
+        verify(productCache, times(1)).invalidate(testProductId);
+        verify(storageRepository, times(1)).removeProductFromAllStorages(testProduct);
+        verify(storageRepository, never()).save(any(StorageModel.class));
     }
 
     @Test
@@ -244,11 +368,249 @@ class ProductServiceTest {
     void deleteProduct_StorageNotFound() {
         // Arrange
         when(productRepository.findByProductId(testProductId)).thenReturn(Optional.of(testProduct));
-        when(storageRepository.findById(testStorageId)).thenReturn(Optional.empty());
+        when(storageRepository.existsById(testStorageId)).thenReturn(false);
 
         // Act & Assert
         assertThrows(NotFoundException.class, () -> {
             productService.deleteProduct(testProductId, testStorageId, testRequestOwner);
         });
     }
-}
\ No newline at end of file
+
+    private ProductModel bulkItem(UUID productId, long quantity, double price) {
+        ProductModel product = new ProductModel();
+        product.setProductId(productId);
+        product.setQuantity(quantity);
+        product.setPrice(price);
+        return product;
+    }
+
+    @Test
+    void bulkUpsertProducts_PersistsInChunksAndUpdatesTotalsOncePerChunk() throws NotFoundException {
+        // Arrange
+        when(storageRepository.existsById(testStorageId)).thenReturn(true);
+        List<ProductModel> items = List.of(
+            bulkItem(UUID.randomUUID(), 1L, 10.0),
+            bulkItem(UUID.randomUUID(), 2L, 10.0),
+            bulkItem(UUID.randomUUID(), 3L, 10.0));
+
+        // Act
+        BulkProductResponse result = productService.bulkUpsertProducts(items.iterator(), testStorageId, testRequestOwner);
+
+        // Assert
+        assertEquals(3, result.created());
+        assertEquals(0, result.updated());
+        assertEquals(0, result.rejected());
+        verify(productRepository, times(2)).saveAll(anyCollection());
+        verify(storageRepository, times(2)).incrementTotals(testStorageId, 3L, 30.0);
+        verify(entityManager, times(3)).persist(any(StorageProductModel.class));
+        verify(storageProductRepository, never()).findAllByStorageIdAndProductIdIn(any(), anyCollection());
+        verify(storageRepository, never()).save(any(StorageModel.class));
+        verify(entityManager, times(2)).clear();
+        verify(logService, times(2)).saveProductLog(anyString(), eq(LogPermissionEnum.MANAGER), isNull(),
+            anyString(), eq(testRequestOwner), eq("BULK_UPSERT"));
+    }
+
+    @Test
+    void bulkUpsertProducts_UpdatesExistingProductsWithQuantityDelta() throws NotFoundException {
+        // Arrange
+        when(storageRepository.existsById(testStorageId)).thenReturn(true);
+        UUID testId = UUID.randomUUID();
+        testProduct.setId(testId);
+        when(productRepository.findAllByProductIdIn(List.of(testProductId))).thenReturn(List.of(testProduct));
+        StorageProductModel link = new StorageProductModel(testStorageId, testId, 10L, 1000.0);
+        when(storageProductRepository.findAllByStorageIdAndProductIdIn(testStorageId, List.of(testId))).thenReturn(List.of(link));
+
+        // Act
+        BulkProductResponse result = productService.bulkUpsertProducts(
+            List.of(bulkItem(testProductId, 15L, 100.0)).iterator(), testStorageId, testRequestOwner);
+
+        // Assert
+        assertEquals(0, result.created());
+        assertEquals(1, result.updated());
+        assertEquals(15L, testProduct.getQuantity());
+        verify(storageRepository).incrementTotals(testStorageId, 5L, 500.0);
+        assertEquals(15L, link.getQuantity());
+        assertEquals(1500.0, link.getValue());
+        verify(entityManager, never()).persist(any());
+        verify(productCache).invalidate(testProductId);
+    }
+
+    @Test
+    void bulkUpsertProducts_RejectsInvalidItemsAndKeepsValidOnes() throws NotFoundException {
+        // Arrange
+        when(storageRepository.existsById(testStorageId)).thenReturn(true);
+        List<ProductModel> items = List.of(
+            bulkItem(UUID.randomUUID(), -1L, 10.0),
+            bulkItem(UUID.randomUUID(), 1L, 10.0));
+
+        // Act
+        BulkProductResponse result = productService.bulkUpsertProducts(items.iterator(), testStorageId, testRequestOwner);
+
+        // Assert
+        assertEquals(1, result.created());
+        assertEquals(1, result.rejected());
+        assertEquals(List.of("Item 0: Invalid quantity"), result.errors());
+    }
+
+    @Test
+    void bulkUpsertProducts_StopsAtMalformedJsonAndReportsWhatWasPersisted() throws Exception {
+        // Arrange
+        when(storageRepository.existsById(testStorageId)).thenReturn(true);
+        String body = "{\"quantity\":1,\"price\":2.0}\n{\"quantity\":2,\"price\":2.0}\nnull\n"
+            + "{\"quantity\":\"many\",\"price\":2.0}\n{\"quantity\":3,\"price\":2.0}\n{broken\n{\"quantity\":4,\"price\":2.0}\n";
+        Iterator<ProductModel> items = new ObjectMapper().readerFor(ProductModel.class).readValues(body);
+
+        // Act
+        BulkProductResponse result = productService.bulkUpsertProducts(items, testStorageId, testRequestOwner);
+
+        // Assert
+        assertEquals(3, result.created());
+        assertEquals(2, result.rejected());
+        assertEquals(5, result.failedAt());
+        assertEquals(List.of("Item 2: Not a valid product", "Item 3: Not a valid product",
+            "Item 5: unreadable, stopped processing the request"), result.errors());
+        verify(productRepository, times(2)).saveAll(anyCollection());
+    }
+
+    @Test
+    void bulkUpsertProducts_RejectsNullItems() throws NotFoundException {
+        // Arrange
+        when(storageRepository.existsById(testStorageId)).thenReturn(true);
+        List<ProductModel> items = Arrays.asList(null, bulkItem(UUID.randomUUID(), 1L, 10.0));
+
+        // Act
+        BulkProductResponse result = productService.bulkUpsertProducts(items.iterator(), testStorageId, testRequestOwner);
+
+        // Assert
+        assertEquals(1, result.created());
+        assertEquals(1, result.rejected());
+        assertNull(result.failedAt());
+        assertEquals(List.of("Item 0: Not a valid product"), result.errors());
+    }
+
+    @Test
+    void bulkUpsertProducts_StorageNotFound() {
+        // Arrange
+        when(storageRepository.existsById(testStorageId)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(NotFoundException.class, () ->
+            productService.bulkUpsertProducts(List.of(testProduct).iterator(), testStorageId, testRequestOwner));
+        verify(productRepository, never()).saveAll(anyCollection());
+    }
+
+    @Test
+    void updateProduct_StaleVersion() {
+        // Arrange
+        testProduct.setVersion(3L);
+        ProductModel updatedProduct = new ProductModel();
+        updatedProduct.setProductId(testProductId);
+        updatedProduct.setQuantity(20L);
+        updatedProduct.setPrice(200.0);
+        updatedProduct.setVersion(2L);
+        when(productRepository.findByProductId(testProductId)).thenReturn(Optional.of(testProduct));
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class, () -> {
+            productService.updateProduct(updatedProduct, testRequestOwner);
+        });
+        verify(productRepository, never()).save(any(ProductModel.class));
+    }
+
+    @Test
+    void adjustQuantity_Success() throws Exception {
+        // Arrange
+        when(productRepository.adjustQuantity(eq(testProductId), eq(-3L), anyString())).thenReturn(1);
+        when(productRepository.findStockByProductId(testProductId))
+            .thenReturn(Optional.of(new ProductStockResponse(testProductId, 7L, 1L)));
+
+        // Act
+        ProductStockResponse result = productService.adjustQuantity(testProductId, -3L, null, testRequestOwner);
+
+        // Assert
+        assertEquals(7L, result.quantity());
+        verify(productRepository, never()).findByProductId(any());
+        verify(productRepository, never()).save(any(ProductModel.class));
+        verify(productCache).invalidate(testProductId);
+        verify(inventoryEventPublisher).productChanged(new ProductChangeEvent(testProductId, 7L, null, null, 1L, false));
+        verify(logService).saveProductLog(anyString(), eq(LogPermissionEnum.MANAGER), eq(testProductId),
+            anyString(), eq(testRequestOwner), eq("ADJUST_QUANTITY"));
+    }
+
+    @Test
+    void adjustQuantity_TakesRemovedStockFromStoragesInOrder() throws Exception {
+        // Arrange
+        StorageProductModel first = new StorageProductModel(1L, UUID.randomUUID(), 2L, 200.0);
+        StorageProductModel second = new StorageProductModel(2L, first.getProductId(), 8L, 800.0);
+        when(productRepository.adjustQuantity(eq(testProductId), eq(-5L), anyString())).thenReturn(1);
+        when(productRepository.findStockByProductId(testProductId))
+            .thenReturn(Optional.of(new ProductStockResponse(testProductId, 5L, 1L)));
+        when(productRepository.findPriceByProductId(testProductId)).thenReturn(Optional.of(100.0));
+        when(storageProductRepository.lockAllForProduct(testProductId)).thenReturn(List.of(first, second));
+
+        // Act
+        productService.adjustQuantity(testProductId, -5L, null, testRequestOwner);
+
+        // Assert
+        assertEquals(0L, first.getQuantity());
+        assertEquals(5L, second.getQuantity());
+        assertEquals(500.0, second.getValue());
+        verify(storageRepository).incrementTotals(1L, -2L, -200.0);
+        verify(storageRepository).incrementTotals(2L, -3L, -300.0);
+        verify(inventoryEventPublisher).storageTotalsChanged(1L, 2L);
+    }
+
+    @Test
+    void adjustQuantity_WithExpectedVersion() throws Exception {
+        // Arrange
+        when(productRepository.adjustQuantityIfVersion(eq(testProductId), eq(5L), eq(4L), anyString())).thenReturn(1);
+        when(productRepository.findStockByProductId(testProductId))
+            .thenReturn(Optional.of(new ProductStockResponse(testProductId, 15L, 5L)));
+
+        // Act
+        ProductStockResponse result = productService.adjustQuantity(testProductId, 5L, 4L, testRequestOwner);
+
+        // Assert
+        assertEquals(5L, result.version());
+        verify(productRepository, never()).adjustQuantity(any(), anyLong(), anyString());
+    }
+
+    @Test
+    void adjustQuantity_VersionConflict() {
+        // Arrange
+        when(productRepository.adjustQuantityIfVersion(eq(testProductId), eq(5L), eq(4L), anyString())).thenReturn(0);
+        when(productRepository.findStockByProductId(testProductId))
+            .thenReturn(Optional.of(new ProductStockResponse(testProductId, 10L, 6L)));
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class, () -> {
+            productService.adjustQuantity(testProductId, 5L, 4L, testRequestOwner);
+        });
+        verifyNoInteractions(logService);
+    }
+
+    @Test
+    void adjustQuantity_InsufficientQuantity() {
+        // Arrange
+        when(productRepository.adjustQuantity(eq(testProductId), eq(-30L), anyString())).thenReturn(0);
+        when(productRepository.findStockByProductId(testProductId))
+            .thenReturn(Optional.of(new ProductStockResponse(testProductId, 10L, 1L)));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> {
+            productService.adjustQuantity(testProductId, -30L, null, testRequestOwner);
+        });
+    }
+
+    @Test
+    void adjustQuantity_NotFound() {
+        // Arrange
+        when(productRepository.adjustQuantity(eq(testProductId), eq(1L), anyString())).thenReturn(0);
+        when(productRepository.findStockByProductId(testProductId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(NotFoundException.class, () -> {
+            productService.adjustQuantity(testProductId, 1L, null, testRequestOwner);
+        });
+    }
+}
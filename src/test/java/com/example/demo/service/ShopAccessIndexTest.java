@@ -0,0 +1,88 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ShopAccess;
+import com.example.demo.models.ShopModel;
+import com.example.demo.repository.ShopRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShopAccessIndexTest {
+
+    @Mock
+    private ShopRepository shopRepository;
+
+    private ShopAccessIndex shopAccessIndex;
+
+    private final UUID shopId = UUID.randomUUID();
+    private final UUID ownerId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        shopAccessIndex = new ShopAccessIndex(shopRepository, 100, 300);
+    }
+
+    @Test
+    void get_LoadsOnceAndServesFromMemory() {
+        // Arrange
+        when(shopRepository.findAccessById(shopId)).thenReturn(Optional.of(new ShopAccess(ownerId, true)));
+
+        // Act
+        ShopAccess first = shopAccessIndex.get(shopId);
+        ShopAccess second = shopAccessIndex.get(shopId);
+
+        // Assert
+        assertSame(first, second);
+        assertTrue(first.isActive());
+        assertTrue(first.isOwnedBy(ownerId));
+        verify(shopRepository, times(1)).findAccessById(shopId);
+    }
+
+    @Test
+    void get_ReturnsNullForUnknownShop() {
+        // Arrange
+        when(shopRepository.findAccessById(shopId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertNull(shopAccessIndex.get(shopId));
+    }
+
+    @Test
+    void put_ReplacesEntryWithoutLoading() {
+        // Arrange
+        ShopModel shop = new ShopModel();
+        shop.setId(shopId);
+        shop.setResponsibleId(ownerId);
+        shop.setStatus(false);
+
+        // Act
+        shopAccessIndex.put(shop);
+
+        // Assert
+        assertEquals(new ShopAccess(ownerId, false), shopAccessIndex.get(shopId));
+        verifyNoInteractions(shopRepository);
+    }
+
+    @Test
+    void invalidate_ForcesReload() {
+        // Arrange
+        when(shopRepository.findAccessById(shopId)).thenReturn(Optional.of(new ShopAccess(ownerId, true)));
+        shopAccessIndex.get(shopId);
+
+        // Act
+        shopAccessIndex.invalidate(shopId);
+        shopAccessIndex.get(shopId);
+
+        // Assert
+        verify(shopRepository, times(2)).findAccessById(shopId);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.service;
+
+import com.example.demo.service.ShopResponseCache.CachedResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShopResponseCacheTest {
+
+    private final ShopResponseCache shopResponseCache = new ShopResponseCache(new ObjectMapper(), 100, 300);
+
+    @Test
+    void put_EncodesValueAndComputesStableEtag() throws JsonProcessingException {
+        // Act
+        CachedResponse first = shopResponseCache.put("a", shopResponseCache.generation(), Map.of("name", "Shop"));
+        CachedResponse second = shopResponseCache.put("b", shopResponseCache.generation(), Map.of("name", "Shop"));
+
+        // Assert
+        assertEquals("{\"name\":\"Shop\"}", new String(first.body(), StandardCharsets.UTF_8));
+        assertEquals(first.etag(), second.etag());
+        assertTrue(first.etag().startsWith("\"") && first.etag().endsWith("\""));
+        assertSame(first, shopResponseCache.get("a"));
+    }
+
+    @Test
+    void invalidateAll_DropsEntries() throws JsonProcessingException {
+        // Arrange
+        shopResponseCache.put("a", shopResponseCache.generation(), "value");
+
+        // Act
+        shopResponseCache.invalidateAll();
+
+        // Assert
+        assertNull(shopResponseCache.get("a"));
+    }
+
+    @Test
+    void put_SkipsCachingWhenInvalidatedDuringLoad() throws JsonProcessingException {
+        // Arrange
+        long generation = shopResponseCache.generation();
+        shopResponseCache.invalidateAll();
+
+        // Act
+        CachedResponse response = shopResponseCache.put("a", generation, "stale");
+
+        // Assert
+        assertNotNull(response);
+        assertNull(shopResponseCache.get("a"));
+    }
+}
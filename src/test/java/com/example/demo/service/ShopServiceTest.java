@@ -1,5 +1,10 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.ResourceVersion;
+import com.example.demo.dto.ShopAccess;
+import com.example.demo.dto.ShopPageResponse;
+import com.example.demo.dto.ShopResponse;
+import com.example.demo.dto.ShopSummary;
 import com.example.demo.exception.NotFoundException;
 import com.example.demo.models.ShopModel;
 import com.example.demo.repository.ShopRepository;
@@ -7,9 +12,9 @@ import org.apache.coyote.BadRequestException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.util.*;
 
@@ -23,11 +28,16 @@ class ShopServiceTest {
     @Mock
     private ShopRepository shopRepository;
 
-    @InjectMocks
     private ShopService shopService;
 
     @Mock
     private LogService logService;
+
+    @Mock
+    private ShopResponseCache shopResponseCache;
+
+    @Mock
+    private ShopAccessIndex shopAccessIndex;
     
     private ShopModel testShop;
     private final UUID testShopId = UUID.randomUUID();
@@ -36,6 +46,7 @@ class ShopServiceTest {
 
     @BeforeEach
     void setUp() {
+        shopService = new ShopService(shopRepository, logService, shopResponseCache, shopAccessIndex, 2, 3);
         testShop = new ShopModel();
         testShop.setId(testShopId);
         testShop.setName("Test Shop");
@@ -53,39 +64,86 @@ class ShopServiceTest {
         testShop.setStatus(true);
     }
 
+    private ShopSummary summary(UUID id) {
+        ShopSummary summary = mock(ShopSummary.class);
+        when(summary.getId()).thenReturn(id);
+        return summary;
+    }
+
     @Test
-    void getAllShops_Success() {
+    void getShopsPage_FirstPageReturnsCursorWhenMoreRowsExist() throws BadRequestException {
         // Arrange
-        List<ShopModel> shops = Collections.singletonList(testShop);
-        when(shopRepository.findAll()).thenReturn(shops);
+        ShopSummary first = mock(ShopSummary.class);
+        ShopSummary second = summary(UUID.fromString("00000000-0000-0000-0000-000000000002"));
+        ShopSummary third = mock(ShopSummary.class);
+        when(shopRepository.findSummaries(true, null, Limit.of(3))).thenReturn(List.of(first, second, third));
 
         // Act
-        Iterable<ShopModel> result = shopService.getAllShops();
+        ShopPageResponse page = shopService.getShopsPage(true, null, null, null);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(1, ((Collection<?>) result).size());
-        verify(shopRepository, times(1)).findAll();
+        assertEquals(List.of(first, second), page.shops());
+        assertEquals(2, page.size());
+        assertNotNull(page.nextCursor());
+    }
+
+    @Test
+    void getShopsPage_CursorResumesAfterLastRow() throws BadRequestException {
+        // Arrange
+        UUID lastId = UUID.randomUUID();
+        List<ShopSummary> firstPage = List.of(summary(lastId), mock(ShopSummary.class));
+        when(shopRepository.findSummaries(null, testResponsibleId, Limit.of(2))).thenReturn(firstPage);
+        String cursor = shopService.getShopsPage(null, testResponsibleId, null, 1).nextCursor();
+        when(shopRepository.findSummariesAfter(null, testResponsibleId, lastId, Limit.of(2))).thenReturn(List.of());
+
+        // Act
+        ShopPageResponse page = shopService.getShopsPage(null, testResponsibleId, cursor, 1);
+
+        // Assert
+        assertTrue(page.shops().isEmpty());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getShopsPage_ClampsSizeToMaximum() throws BadRequestException {
+        // Arrange
+        when(shopRepository.findSummaries(null, null, Limit.of(4))).thenReturn(List.of());
+
+        // Act
+        ShopPageResponse page = shopService.getShopsPage(null, null, null, 1000);
+
+        // Assert
+        assertEquals(0, page.size());
+        verify(shopRepository).findSummaries(null, null, Limit.of(4));
+    }
+
+    @Test
+    void getShopsPage_RejectsInvalidCursorAndSize() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> shopService.getShopsPage(null, null, "not-a-cursor", null));
+        assertThrows(BadRequestException.class, () -> shopService.getShopsPage(null, null, null, 0));
+        verifyNoInteractions(shopRepository);
     }
 
     @Test
     void getShopById_Success() throws NotFoundException {
         // Arrange
-        when(shopRepository.findById(testShopId)).thenReturn(Optional.of(testShop));
+        when(shopRepository.findWithStoragesById(testShopId)).thenReturn(Optional.of(testShop));
 
         // Act
-        ShopModel result = shopService.getShopById(testShopId);
+        ShopResponse result = shopService.getShopById(testShopId);
 
         // Assert
         assertNotNull(result);
-        assertEquals(testShopId, result.getId());
-        verify(shopRepository, times(1)).findById(testShopId);
+        assertEquals(testShopId, result.id());
+        assertTrue(result.storageIds().isEmpty());
+        verify(shopRepository, times(1)).findWithStoragesById(testShopId);
     }
 
     @Test
     void getShopById_NotFound() {
         // Arrange
-        when(shopRepository.findById(testShopId)).thenReturn(Optional.empty());
+        when(shopRepository.findWithStoragesById(testShopId)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(NotFoundException.class, () -> {
@@ -93,6 +151,21 @@ class ShopServiceTest {
         });
     }
 
+    @Test
+    void getShopVersion_ReadsValidatorsOnly() throws NotFoundException {
+        // Arrange
+        String updatedAt = "Sat Oct 17 10:15:30 UTC 2026";
+        when(shopRepository.findVersionById(testShopId)).thenReturn(Optional.of(new ResourceVersion(2L, updatedAt)));
+
+        // Act
+        ResourceVersion result = shopService.getShopVersion(testShopId);
+
+        // Assert
+        assertEquals("\"2\"", result.etag());
+        assertEquals(1792232130000L, result.lastModified());
+        verify(shopRepository, never()).findWithStoragesById(any());
+    }
+
     @Test
     void createShop_Success() throws BadRequestException {
         // Arrange
@@ -108,6 +181,7 @@ class ShopServiceTest {
         assertNotNull(testShop.getUpdatedAt());
         assertTrue(testShop.getStatus());
         verify(shopRepository, times(1)).save(testShop);
+        verify(shopResponseCache).invalidateAll();
     }
 
     @Test
@@ -124,6 +198,7 @@ class ShopServiceTest {
     @Test
     void deactivateShop_Success() throws BadRequestException, IllegalAccessException {
         // Arrange
+        when(shopAccessIndex.get(testShopId)).thenReturn(ShopAccess.of(testShop));
         when(shopRepository.findById(testShopId)).thenReturn(Optional.of(testShop));
         when(shopRepository.save(any(ShopModel.class))).thenReturn(testShop);
 
@@ -133,36 +208,66 @@ class ShopServiceTest {
         // Assert
         assertTrue(result);
         assertFalse(testShop.getStatus());
+        assertNotNull(testShop.getUpdatedAt());
         verify(shopRepository, times(1)).save(testShop);
+        verify(shopAccessIndex).put(testShop);
+        verify(shopResponseCache).invalidateAll();
     }
 
     @Test
     void deactivateShop_AlreadyDeactivated() {
         // Arrange
         testShop.setStatus(false);
-        when(shopRepository.findById(testShopId)).thenReturn(Optional.of(testShop));
+        when(shopAccessIndex.get(testShopId)).thenReturn(ShopAccess.of(testShop));
 
         // Act & Assert
         assertThrows(BadRequestException.class, () -> {
             shopService.deactivateShop(testShopId, testResponsibleId);
         });
+        verifyNoInteractions(shopResponseCache);
+        verify(shopRepository, never()).findById(any());
     }
 
     @Test
     void deactivateShop_Unauthorized() {
         // Arrange
-        when(shopRepository.findById(testShopId)).thenReturn(Optional.of(testShop));
+        when(shopAccessIndex.get(testShopId)).thenReturn(ShopAccess.of(testShop));
 
         // Act & Assert
         assertThrows(IllegalAccessException.class, () -> {
             shopService.deactivateShop(testShopId, UUID.randomUUID());
         });
+        verify(shopRepository, never()).findById(any());
+    }
+
+    @Test
+    void deactivateShop_StaleIndexIsRecheckedAgainstLoadedShop() {
+        // Arrange
+        when(shopAccessIndex.get(testShopId)).thenReturn(ShopAccess.of(testShop));
+        ShopModel storedShop = new ShopModel();
+        storedShop.setId(testShopId);
+        storedShop.setResponsibleId(testResponsibleId);
+        storedShop.setStatus(false);
+        when(shopRepository.findById(testShopId)).thenReturn(Optional.of(storedShop));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> shopService.deactivateShop(testShopId, testResponsibleId));
+        verify(shopAccessIndex).put(storedShop);
+        verify(shopRepository, never()).save(any());
+    }
+
+    @Test
+    void deactivateShop_UnknownShop() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> shopService.deactivateShop(testShopId, testResponsibleId));
+        verify(shopRepository, never()).findById(any());
     }
 
     @Test
     void activateShop_Success() throws BadRequestException, IllegalAccessException {
         // Arrange
         testShop.setStatus(false);
+        when(shopAccessIndex.get(testShopId)).thenReturn(ShopAccess.of(testShop));
         when(shopRepository.findById(testShopId)).thenReturn(Optional.of(testShop));
         when(shopRepository.save(any(ShopModel.class))).thenReturn(testShop);
 
@@ -173,17 +278,19 @@ class ShopServiceTest {
         assertTrue(result);
         assertTrue(testShop.getStatus());
         verify(shopRepository, times(1)).save(testShop);
+        verify(shopResponseCache).invalidateAll();
     }
 
     @Test
     void activateShop_AlreadyActive() {
         // Arrange
-        when(shopRepository.findById(testShopId)).thenReturn(Optional.of(testShop));
+        when(shopAccessIndex.get(testShopId)).thenReturn(ShopAccess.of(testShop));
 
         // Act & Assert
         assertThrows(BadRequestException.class, () -> {
             shopService.activateShop(testShopId, testResponsibleId);
         });
+        verify(shopRepository, never()).findById(any());
     }
 
     @Test
@@ -204,6 +311,7 @@ class ShopServiceTest {
         updatedShop.setBannerUrl("https://updated.com/banner.jpg");
         updatedShop.setStatus(true);
         
+        when(shopAccessIndex.get(testShopId)).thenReturn(ShopAccess.of(testShop));
         when(shopRepository.findById(testShopId)).thenReturn(Optional.of(testShop));
         when(shopRepository.save(any(ShopModel.class))).thenReturn(updatedShop);
 
@@ -219,12 +327,13 @@ class ShopServiceTest {
     void updateShop_DeactivatedShop() {
         // Arrange
         testShop.setStatus(false);
-        when(shopRepository.findById(testShopId)).thenReturn(Optional.of(testShop));
+        when(shopAccessIndex.get(testShopId)).thenReturn(ShopAccess.of(testShop));
 
         // Act & Assert
         assertThrows(BadRequestException.class, () -> {
             shopService.updateShop(testShopId, testShop, testResponsibleId);
         });
+        verify(shopRepository, never()).findById(any());
     }
 
     @Test
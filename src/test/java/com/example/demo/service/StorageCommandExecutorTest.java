@@ -0,0 +1,167 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.NotFoundException;
+import com.example.demo.util.CustomLogger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StorageCommandExecutorTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CustomLogger customLogger;
+
+    private StorageCommandExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        executor = new StorageCommandExecutor(transactionManager, customLogger, 2, 64, 100, 1000);
+        executor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    private CountDownLatch blockLane(Long storageId) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(storageId, () -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    @Test
+    void submit_BatchesConsecutiveCommandsForSameStorageInOneTransaction() throws Exception {
+        // Arrange
+        CountDownLatch release = blockLane(1L);
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            int value = i;
+            futures.add(executor.submit(1L, () -> value));
+        }
+
+        // Act
+        release.countDown();
+
+        // Assert
+        assertEquals(List.of(0, 1, 2), futures.stream().map(CompletableFuture::join).toList());
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(0, executor.getRetriedCount());
+    }
+
+    @Test
+    void submit_FailingCommandOnlyFailsItsOwnFuture() throws Exception {
+        // Arrange
+        CountDownLatch release = blockLane(1L);
+        CompletableFuture<String> first = executor.submit(1L, () -> "first");
+        CompletableFuture<String> failing = executor.submit(1L, () -> {
+            throw new NotFoundException("Product not found");
+        });
+        CompletableFuture<String> last = executor.submit(1L, () -> "last");
+
+        // Act
+        release.countDown();
+
+        // Assert
+        assertEquals("first", first.join());
+        assertEquals("last", last.join());
+        CompletionException exception = assertThrows(CompletionException.class, failing::join);
+        assertInstanceOf(NotFoundException.class, exception.getCause());
+        assertEquals(3, executor.getRetriedCount());
+    }
+
+    @Test
+    void submit_NeverRunsCommandsForSameStorageConcurrently() {
+        // Arrange
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        // Act
+        List<Thread> submitters = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread submitter = new Thread(() -> {
+                for (int i = 0; i < 20; i++) {
+                    CompletableFuture<Void> future = executor.submit(7L, () -> {
+                        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                        Thread.sleep(1);
+                        active.decrementAndGet();
+                        return null;
+                    });
+                    synchronized (futures) {
+                        futures.add(future);
+                    }
+                }
+            });
+            submitters.add(submitter);
+            submitter.start();
+        }
+        submitters.forEach(thread -> assertDoesNotThrow(() -> thread.join()));
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        // Assert
+        assertEquals(80, futures.size());
+        assertEquals(1, maxActive.get());
+    }
+
+    @Test
+    void submit_RejectsWhenLaneIsFull() throws Exception {
+        // Arrange
+        executor.shutdown();
+        executor = new StorageCommandExecutor(transactionManager, customLogger, 1, 64, 1, 1000);
+        executor.start();
+        CountDownLatch release = blockLane(1L);
+        CompletableFuture<String> queued = executor.submit(1L, () -> "queued");
+
+        // Act
+        CompletableFuture<String> rejected = executor.submit(2L, () -> "rejected");
+        release.countDown();
+
+        // Assert
+        assertEquals("queued", queued.join());
+        CompletionException exception = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+        assertEquals(1, executor.getRejectedCount());
+    }
+
+    @Test
+    void submit_RejectsAfterShutdown() {
+        // Arrange
+        executor.shutdown();
+
+        // Act
+        CompletableFuture<String> future = executor.submit(1L, () -> "late");
+
+        // Assert
+        CompletionException exception = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+    }
+}
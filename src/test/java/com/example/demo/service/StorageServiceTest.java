@@ -3,20 +3,39 @@ package com.example.demo.service;
 import com.example.demo.exception.NotFoundException;
 import com.example.demo.models.ProductModel;
 import com.example.demo.models.StorageModel;
+import com.example.demo.models.StorageProductModel;
+import com.example.demo.dto.StorageTransferRequest;
+import com.example.demo.dto.StorageTransferResponse;
 import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.StorageProductBatchRepository;
+import com.example.demo.repository.StorageProductBatchRepository.StockMove;
+import com.example.demo.repository.StorageProductRepository;
 import com.example.demo.repository.StorageRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.apache.coyote.BadRequestException;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,9 +47,21 @@ class StorageServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private StorageProductRepository storageProductRepository;
+
     @Mock
     private LogService logService;
 
+    @Mock
+    private StorageProductBatchRepository storageProductBatchRepository;
+
+    @Mock
+    private StorageCommandExecutor storageCommandExecutor;
+
+    @Mock
+    private InventoryEventPublisher inventoryEventPublisher;
+
     @InjectMocks
     private StorageService storageService;
 
@@ -125,23 +156,39 @@ class StorageServiceTest {
     @Test
     void addProductToStorage_Success() throws NotFoundException {
         // Arrange
-        when(storageRepository.findById(testStorageId)).thenReturn(Optional.of(testStorage));
+        when(storageRepository.existsById(testStorageId)).thenReturn(true);
         when(productRepository.findById(testProductId)).thenReturn(Optional.of(testProduct));
-        when(storageRepository.save(any(StorageModel.class))).thenReturn(testStorage);
+        when(storageRepository.addProductToStorage(testStorageId, testProduct)).thenReturn(true);
 
         // Act
         boolean result = storageService.addProductToStorage(testRequestOwner, testStorageId,  testProductId, testStoreId);
 
         // Assert
         assertTrue(result);
-        verify(storageRepository, times(1)).save(testStorage);
-        // Additional assertions for product addition logic would go here
+        verify(storageRepository, never()).findById(any());
+        verify(storageRepository, never()).save(any(StorageModel.class));
+        verify(logService).saveStoreLog(anyString(), any(), eq(testStoreId), anyString(), eq(testRequestOwner), eq("ADD_PRODUCT"));
+    }
+
+    @Test
+    void addProductToStorage_AlreadyLinked() throws NotFoundException {
+        // Arrange
+        when(storageRepository.existsById(testStorageId)).thenReturn(true);
+        when(productRepository.findById(testProductId)).thenReturn(Optional.of(testProduct));
+        when(storageRepository.addProductToStorage(testStorageId, testProduct)).thenReturn(false);
+
+        // Act
+        boolean result = storageService.addProductToStorage(testRequestOwner, testStorageId,  testProductId, testStoreId);
+
+        // Assert
+        assertTrue(result);
+        verifyNoInteractions(logService);
     }
 
     @Test
     void addProductToStorage_StorageNotFound() {
         // Arrange
-        when(storageRepository.findById(testStorageId)).thenReturn(Optional.empty());
+        when(storageRepository.existsById(testStorageId)).thenReturn(false);
 
         // Act & Assert
         assertThrows(NotFoundException.class, () -> {
@@ -152,7 +199,7 @@ class StorageServiceTest {
     @Test
     void addProductToStorage_ProductNotFound() {
         // Arrange
-        when(storageRepository.findById(testStorageId)).thenReturn(Optional.of(testStorage));
+        when(storageRepository.existsById(testStorageId)).thenReturn(true);
         when(productRepository.findById(testProductId)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -164,17 +211,17 @@ class StorageServiceTest {
     @Test
     void removeProductFromStorage_Success() throws NotFoundException {
         // Arrange
-        when(storageRepository.findById(testStorageId)).thenReturn(Optional.of(testStorage));
+        when(storageRepository.existsById(testStorageId)).thenReturn(true);
         when(productRepository.findById(testProductId)).thenReturn(Optional.of(testProduct));
-        when(storageRepository.save(any(StorageModel.class))).thenReturn(testStorage);
+        when(storageRepository.removeProductFromStorage(testStorageId, testProduct)).thenReturn(true);
 
         // Act
         boolean result = storageService.removeProductFromStorage(testRequestOwner, testStorageId,  testProductId, testStoreId);
 
         // Assert
         assertTrue(result);
-        verify(storageRepository, times(1)).save(testStorage);
-        // Additional assertions for product removal logic would go here
+        verify(storageRepository, never()).save(any(StorageModel.class));
+        verify(logService).saveStoreLog(anyString(), any(), eq(testStoreId), anyString(), eq(testRequestOwner), eq("REMOVE_PRODUCT"));
     }
 
     @Test
@@ -208,4 +255,137 @@ class StorageServiceTest {
         assertTrue(testStorage.isActive());
         verify(storageRepository, times(1)).save(testStorage);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getStorageProducts_UsesIndexedLookup() throws Exception {
+        // Arrange
+        StorageProductModel link = new StorageProductModel(testStorageId, testProductId, 10L, 1000.0);
+        when(storageRepository.existsById(testStorageId)).thenReturn(true);
+        when(storageProductRepository.findByStorageId(eq(testStorageId), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(List.of(link)));
+
+        // Act
+        Page<StorageProductModel> result = storageService.getStorageProducts(testStorageId, 0, 10_000);
+
+        // Assert
+        assertEquals(List.of(link), result.getContent());
+        verify(storageProductRepository).findByStorageId(eq(testStorageId), argThat(pageable -> pageable.getPageSize() == 500));
+        verify(storageRepository, never()).findById(any());
+    }
+
+    @Test
+    void getStorageProducts_StorageNotFound() {
+        // Arrange
+        when(storageRepository.existsById(testStorageId)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(NotFoundException.class, () -> {
+            storageService.getStorageProducts(testStorageId, 0, 50);
+        });
+    }
+
+    @Test
+    void submitAddProductToStorage_RoutesThroughStorageLane() throws Exception {
+        // Arrange
+        when(storageCommandExecutor.submit(eq(testStorageId), any())).thenAnswer(invocation -> {
+            StorageCommandExecutor.StorageCommand<?> command = invocation.getArgument(1);
+            return CompletableFuture.completedFuture(command.execute());
+        });
+        when(storageRepository.existsById(testStorageId)).thenReturn(true);
+        when(productRepository.findById(testProductId)).thenReturn(Optional.of(testProduct));
+        when(storageRepository.addProductToStorage(testStorageId, testProduct)).thenReturn(true);
+
+        // Act
+        Boolean result = storageService.submitAddProductToStorage(testRequestOwner, testStorageId, testProductId, testStoreId).join();
+
+        // Assert
+        assertTrue(result);
+        verify(storageCommandExecutor).submit(eq(testStorageId), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void transferProducts_MovesStockWithOneBatchPerChange() throws Exception {
+        // Arrange
+        Long destinationId = 2L;
+        UUID partialId = UUID.randomUUID();
+        UUID fullId = UUID.randomUUID();
+        when(storageRepository.existsById(anyLong())).thenReturn(true);
+        when(storageProductRepository.lockAllByStorageIdAndProductIdIn(eq(testStorageId), anyCollection())).thenReturn(List.of(
+            new StorageProductModel(testStorageId, partialId, 10L, 100.0),
+            new StorageProductModel(testStorageId, fullId, 4L, 20.0)));
+        when(storageProductRepository.findAllByStorageIdAndProductIdIn(eq(destinationId), anyCollection())).thenReturn(List.of(
+            new StorageProductModel(destinationId, partialId, 1L, 10.0)));
+        when(storageProductBatchRepository.withdraw(eq(testStorageId), anyList())).thenReturn(2);
+        StorageTransferRequest request = new StorageTransferRequest(testStorageId, destinationId, List.of(
+            new StorageTransferRequest.Item(partialId, 3L),
+            new StorageTransferRequest.Item(fullId, null)));
+
+        // Act
+        StorageTransferResponse response = storageService.transferProducts(testRequestOwner, request, testStoreId);
+
+        // Assert
+        assertEquals(2, response.products());
+        assertEquals(7L, response.quantity());
+        assertEquals(50.0, response.value(), 1e-9);
+        verify(storageProductBatchRepository).deleteLinks(testStorageId, List.of(fullId));
+        verify(storageProductBatchRepository).deposit(destinationId, List.of(new StockMove(partialId, 3L, 30.0)));
+        verify(storageProductBatchRepository).insertLinks(destinationId, List.of(new StockMove(fullId, 4L, 20.0)));
+        verify(storageRepository).incrementTotals(testStorageId, -7L, -50.0);
+        verify(storageRepository).incrementTotals(destinationId, 7L, 50.0);
+        verify(logService, times(1)).saveStoreLog(anyString(), any(), eq(testStoreId), anyString(), eq(testRequestOwner), eq("TRANSFER"));
+    }
+
+    @Test
+    void transferProducts_RecreatesDestinationLinkRemovedBeforeDeposit() throws Exception {
+        // Arrange
+        Long destinationId = 2L;
+        when(storageRepository.existsById(anyLong())).thenReturn(true);
+        when(storageProductRepository.lockAllByStorageIdAndProductIdIn(eq(testStorageId), anyCollection())).thenReturn(List.of(
+            new StorageProductModel(testStorageId, testProductId, 10L, 100.0)));
+        when(storageProductRepository.findAllByStorageIdAndProductIdIn(eq(destinationId), anyCollection())).thenReturn(List.of(
+            new StorageProductModel(destinationId, testProductId, 1L, 10.0)));
+        when(storageProductBatchRepository.withdraw(eq(testStorageId), anyList())).thenReturn(1);
+        StockMove move = new StockMove(testProductId, 3L, 30.0);
+        when(storageProductBatchRepository.deposit(destinationId, List.of(move))).thenReturn(List.of(move));
+        StorageTransferRequest request = new StorageTransferRequest(testStorageId, destinationId, List.of(
+            new StorageTransferRequest.Item(testProductId, 3L)));
+
+        // Act
+        storageService.transferProducts(testRequestOwner, request, testStoreId);
+
+        // Assert
+        verify(storageProductBatchRepository).insertLinks(destinationId, List.of(move));
+        verify(storageRepository).incrementTotals(testStorageId, -3L, -30.0);
+        verify(storageRepository).incrementTotals(destinationId, 3L, 30.0);
+    }
+
+    @Test
+    void transferProducts_InsufficientStock() {
+        // Arrange
+        when(storageRepository.existsById(anyLong())).thenReturn(true);
+        when(storageProductRepository.lockAllByStorageIdAndProductIdIn(eq(testStorageId), anyCollection())).thenReturn(List.of(
+            new StorageProductModel(testStorageId, testProductId, 2L, 20.0)));
+        StorageTransferRequest request = new StorageTransferRequest(testStorageId, 2L, List.of(
+            new StorageTransferRequest.Item(testProductId, 5L)));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> {
+            storageService.transferProducts(testRequestOwner, request, testStoreId);
+        });
+        verifyNoInteractions(storageProductBatchRepository);
+        verify(storageRepository, never()).incrementTotals(any(), anyLong(), anyDouble());
+    }
+
+    @Test
+    void transferProducts_SameStorage() {
+        // Arrange
+        StorageTransferRequest request = new StorageTransferRequest(testStorageId, testStorageId, List.of(
+            new StorageTransferRequest.Item(testProductId, 1L)));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> {
+            storageService.transferProducts(testRequestOwner, request, testStoreId);
+        });
+    }
+}
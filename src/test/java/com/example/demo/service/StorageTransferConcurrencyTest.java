@@ -0,0 +1,101 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.StorageTransferRequest;
+import com.example.demo.models.StorageModel;
+import com.example.demo.models.StorageProductId;
+import com.example.demo.models.StorageProductModel;
+import com.example.demo.repository.StorageProductBatchRepository;
+import com.example.demo.repository.StorageProductRepository;
+import com.example.demo.repository.StorageRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Runs a transfer against the database while the destination link disappears between planning
+ * and depositing, as it would when a removal commits in between.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StorageTransferConcurrencyTest {
+
+    @Autowired
+    private StorageService storageService;
+
+    @Autowired
+    private StorageRepository storageRepository;
+
+    @Autowired
+    private StorageProductRepository storageProductRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoSpyBean
+    private StorageProductBatchRepository storageProductBatchRepository;
+
+    private Long storage(String name, long quantity, double value) {
+        StorageModel storage = new StorageModel();
+        storage.setName(name);
+        storage.setTotalProductsQuantity(quantity);
+        storage.setTotalProductsValue(value);
+        return storageRepository.save(storage).getId();
+    }
+
+    @Test
+    void transferProducts_KeepsStockWhenDestinationLinkIsRemovedDuringTransfer() throws Exception {
+        // Arrange
+        UUID productId = UUID.randomUUID();
+        Long sourceId = storage("Source", 10L, 100.0);
+        Long destinationId = storage("Destination", 1L, 10.0);
+        storageProductRepository.save(new StorageProductModel(sourceId, productId, 10L, 100.0));
+        storageProductRepository.save(new StorageProductModel(destinationId, productId, 1L, 10.0));
+        doAnswer(invocation -> {
+            jdbcTemplate.update("DELETE FROM storage_products WHERE storage_id = ?", destinationId);
+            return invocation.callRealMethod();
+        }).when(storageProductBatchRepository).deposit(eq(destinationId), anyList());
+        StorageTransferRequest request = new StorageTransferRequest(sourceId, destinationId, List.of(
+            new StorageTransferRequest.Item(productId, 4L)));
+
+        // Act
+        storageService.transferProducts(UUID.randomUUID(), request, UUID.randomUUID());
+
+        // Assert
+        assertEquals(6L, storageProductRepository.findById(new StorageProductId(sourceId, productId)).orElseThrow().getQuantity());
+        assertEquals(4L, storageProductRepository.findById(new StorageProductId(destinationId, productId)).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void transferProducts_KeepsSourceLinkToppedUpBeforeWithdraw() throws Exception {
+        // Arrange
+        UUID productId = UUID.randomUUID();
+        Long sourceId = storage("Source", 10L, 100.0);
+        Long destinationId = storage("Destination", 0L, 0.0);
+        storageProductRepository.save(new StorageProductModel(sourceId, productId, 10L, 100.0));
+        doAnswer(invocation -> {
+            jdbcTemplate.update("UPDATE storage_products SET quantity = quantity + 5, stock_value = stock_value + 50 "
+                + "WHERE storage_id = ?", sourceId);
+            return invocation.callRealMethod();
+        }).when(storageProductBatchRepository).withdraw(eq(sourceId), anyList());
+        StorageTransferRequest request = new StorageTransferRequest(sourceId, destinationId, List.of(
+            new StorageTransferRequest.Item(productId, null)));
+
+        // Act
+        storageService.transferProducts(UUID.randomUUID(), request, UUID.randomUUID());
+
+        // Assert
+        assertEquals(5L, storageProductRepository.findById(new StorageProductId(sourceId, productId)).orElseThrow().getQuantity());
+        assertEquals(10L, storageProductRepository.findById(new StorageProductId(destinationId, productId)).orElseThrow().getQuantity());
+    }
+}